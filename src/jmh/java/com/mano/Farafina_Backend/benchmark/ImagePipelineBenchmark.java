@@ -0,0 +1,71 @@
+package com.mano.Farafina_Backend.benchmark;
+
+import com.mano.Farafina_Backend.services.media.ImagePipeline;
+import com.mano.Farafina_Backend.services.media.ImageVariant;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One upload through the thumbnail pipeline (decode, 320/640/1280 resizes, JPEG encode) for phone-sized
+// photos, with a single worker and with one worker per core.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImagePipelineBenchmark {
+
+    @Param({"1600x1200", "4000x3000"})
+    public String source;
+
+    // 0 = one per core
+    @Param({"1", "0"})
+    public int workers;
+
+    private ImagePipeline pipeline;
+    private byte[] original;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pipeline = new ImagePipeline(List.of(320, 640, 1280), 0.8f, workers, 64, 24_000_000L);
+
+        String[] dimensions = source.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+        // Gradient plus noise and shapes, so the JPEG codec does realistic work (a flat image would not)
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(200, 120, 40), width, height, new Color(30, 60, 160)));
+        graphics.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 400; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillOval(random.nextInt(width), random.nextInt(height), 20 + random.nextInt(200), 20 + random.nextInt(200));
+        }
+        graphics.dispose();
+        for (int y = 0; y < height; y += 2) {
+            for (int x = 0; x < width; x += 2) {
+                image.setRGB(x, y, image.getRGB(x, y) ^ random.nextInt(0x101010));
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", bytes);
+        original = bytes.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Benchmark
+    public List<ImageVariant> process() throws IOException {
+        return pipeline.process(original);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mano.Farafina_Backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// PasswordEncoder.matches per login at BCrypt strengths around the default (10, PasswordConfig)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encoded = encoder.encode("motdepasse-Bamako-2024");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("motdepasse-Bamako-2024", encoded);
+    }
+}
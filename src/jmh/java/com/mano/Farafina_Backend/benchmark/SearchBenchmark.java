@@ -0,0 +1,80 @@
+package com.mano.Farafina_Backend.benchmark;
+
+import com.mano.Farafina_Backend.dto.CursorPage;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import com.mano.Farafina_Backend.services.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// ProductService.searchProducts end to end (search index, specifications, summary projection,
+// first-image batch query) on the seeded catalog, first page and the keyset page after it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SearchBenchmark {
+
+    @Param({"20000"})
+    public int products;
+
+    @Param({"keyword", "keywordPrefix", "category", "categoryLocation", "priceRange", "keywordAndCategory"})
+    public String variant;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductFilter filter;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededCatalog.start(products);
+        productService = context.getBean(ProductService.class);
+        filter = filterFor(variant);
+        secondPageCursor = productService.searchProducts(filter, null, 20).getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<ProductSummary> firstPage() {
+        return productService.searchProducts(filter, null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<ProductSummary> secondPage() {
+        return productService.searchProducts(filter, secondPageCursor, 20);
+    }
+
+    private static ProductFilter filterFor(String variant) {
+        ProductFilter filter = new ProductFilter();
+        switch (variant) {
+            case "keyword" -> filter.setKeyword("telephone samsung");
+            case "keywordPrefix" -> filter.setKeyword("tele");
+            case "category" -> filter.setCategory("Electronics");
+            case "categoryLocation" -> {
+                filter.setCategory("Electronics");
+                filter.setCountry("Mali");
+                filter.setCity("Bamako");
+            }
+            case "priceRange" -> {
+                filter.setCondition("Used");
+                filter.setMinPrice(new BigDecimal("10000"));
+                filter.setMaxPrice(new BigDecimal("50000"));
+            }
+            case "keywordAndCategory" -> {
+                filter.setKeyword("moto");
+                filter.setCategory("Vehicles");
+                filter.setCountry("Mali");
+            }
+            default -> throw new IllegalArgumentException("Unknown variant " + variant);
+        }
+        return filter;
+    }
+}
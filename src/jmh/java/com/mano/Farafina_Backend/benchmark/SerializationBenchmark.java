@@ -0,0 +1,157 @@
+package com.mano.Farafina_Backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.entity.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Response serialization with the same Jackson setup Spring Boot builds: full Product entities (detail
+// and legacy list shape), the paged summary response map, and NDJSON lines as /stream writes them. The NDJSON
+// benchmarks write into a buffered sink like the servlet response and report flushes per operation (each
+// one a chunk on the wire), so flushing every row instead of every STREAM_FLUSH_EVERY rows shows up.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializationBenchmark {
+
+    // ProductController.STREAM_FLUSH_EVERY
+    private static final int STREAM_FLUSH_EVERY = 100;
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter streamWriter;
+    private List<Product> products;
+    private List<ProductSummary> summaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        products = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= size; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setUserId(id % 50);
+            product.setProductName("Téléphone Samsung Galaxy A14 très bon état " + id);
+            product.setDescription("Téléphone Samsung Galaxy A14 disponible à Bamako. Article d'occasion, bien entretenu. " +
+                    "Livraison possible, paiement Orange Money ou espèces.");
+            product.setCategory("Electronics");
+            product.setCondition("Used");
+            product.setPrice(new BigDecimal("85000"));
+            product.setCurrency("XOF");
+            product.setCountry("Mali");
+            product.setCity("Bamako");
+            product.setShopName("Boutique Bamako");
+            product.setContactPhone("+223 70000000");
+            product.setImages(List.of("/media/products/" + id + "/orig.jpg", "/media/products/" + id + "b/orig.jpg"));
+            product.setLikesCount(12);
+            product.setCommentsCount(3);
+            product.setCreatedAt(now.minusHours(id));
+            product.setUpdatedAt(now.minusHours(id));
+            products.add(product);
+
+            ProductSummary summary = new ProductSummary(id, product.getProductName(), product.getPrice(), "XOF",
+                    "Bamako", 12, 3, product.getCreatedAt());
+            summary.setImage(product.getImages().get(0));
+            summaries.add(summary);
+        }
+    }
+
+    @Benchmark
+    public byte[] productEntities() throws IOException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] summaryPageResponse() throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("products", summaries);
+        response.put("count", summaries.size());
+        response.put("nextCursor", "MjAyNi0xMC0xOFQwODo1NjozNnwxMjM0NQ");
+        response.put("hasMore", true);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Same generator setup and write path as ProductController's /stream
+    @Benchmark
+    public void summaryNdjson(ResponseSink sink) throws IOException {
+        writeNdjson(sink, streamWriter, STREAM_FLUSH_EVERY);
+    }
+
+    // The mapper's default writer flushes after every row: one chunk per line
+    @Benchmark
+    public void summaryNdjsonFlushEveryRow(ResponseSink sink) throws IOException {
+        writeNdjson(sink, objectMapper.writer(), Integer.MAX_VALUE);
+    }
+
+    private void writeNdjson(ResponseSink sink, ObjectWriter writer, int flushEvery) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(sink.open())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            for (ProductSummary summary : summaries) {
+                writer.writeValue(generator, summary);
+                generator.writeRaw('\n');
+                if (++written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    // Stands in for the servlet response: an 8 KB buffer (Tomcat's default) in front of a socket that
+    // counts flushes. JMH reports the public counter as flushes/s next to ops/s.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ResponseSink {
+
+        public long flushes;
+
+        private final OutputStream socket = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public void flush() {
+                flushes++;
+            }
+        };
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            flushes = 0;
+        }
+
+        OutputStream open() {
+            return new BufferedOutputStream(socket, 8192);
+        }
+    }
+}
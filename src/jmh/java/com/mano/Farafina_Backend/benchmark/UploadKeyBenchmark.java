@@ -0,0 +1,40 @@
+package com.mano.Farafina_Backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Cost of naming an upload: the old random UUID_timestamp key (S3Service.generateFileName) versus
+// the SHA-256 content key uploads now use for deduplication, at typical photo and video sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UploadKeyBenchmark {
+
+    @Param({"262144", "4194304", "33554432"})
+    public int bytes;
+
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = new byte[bytes];
+        new Random(42).nextBytes(content);
+    }
+
+    @Benchmark
+    public String randomKey() {
+        return "videos/" + UUID.randomUUID() + "_" + System.currentTimeMillis() + ".mp4";
+    }
+
+    @Benchmark
+    public String contentKey() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return "videos/" + HexFormat.of().formatHex(digest.digest(content)) + ".mp4";
+    }
+}
@@ -1,14 +1,20 @@
 package com.mano.Farafina_Backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+import java.net.URI;
 
 @Configuration
+@ConditionalOnProperty(name = "farafina.storage.backend", havingValue = "s3", matchIfMissing = true)
 public class AwsS3Config {
 
     @Value("${aws.s3.access-key}")
@@ -20,13 +26,28 @@ public class AwsS3Config {
     @Value("${aws.s3.region}")
     private String region;
 
+    // Optional override for S3-compatible stand-ins (MinIO, LocalStack) in local and perf testing
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
+    // Shared by the client and the direct-upload form signer (S3StorageBackend)
     @Bean
-    public S3Client s3Client() {
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+    public AwsCredentialsProvider s3CredentialsProvider() {
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
 
-        return S3Client.builder()
+    @Bean
+    public S3Client s3Client(AwsCredentialsProvider s3CredentialsProvider) {
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .build();
+                .credentialsProvider(s3CredentialsProvider)
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 }
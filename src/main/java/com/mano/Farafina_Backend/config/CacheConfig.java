@@ -0,0 +1,13 @@
+package com.mano.Farafina_Backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed; names, size and TTL live in application.properties (spring.cache.*)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Product detail by id, evicted on every write that changes what GET /api/products/{id} returns
+    public static final String PRODUCTS = "products";
+}
@@ -0,0 +1,57 @@
+package com.mano.Farafina_Backend.config;
+
+import com.mano.Farafina_Backend.metrics.StatementMetricsInterceptor;
+import com.mano.Farafina_Backend.metrics.StatementMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+// JDBC instrumentation. Endpoint timers (http.server.requests), Hibernate statistics (hibernate.*),
+// cache and pool metrics come from Spring Boot; everything is scraped at /actuator/prometheus.
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final StatementMetricsInterceptor statementMetricsInterceptor;
+
+    @Autowired
+    public MetricsConfig(StatementMetricsInterceptor statementMetricsInterceptor) {
+        this.statementMetricsInterceptor = statementMetricsInterceptor;
+    }
+
+    // Wraps the pool so every statement, whether issued by Hibernate or a JdbcTemplate, passes the listener
+    @Bean
+    public static BeanPostProcessor statementMetricsDataSourceWrapper(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new StatementMetricsListener(meterRegistry))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementMetricsInterceptor);
+    }
+
+    // Statements run while an async body (GET /api/products/stream) is written count for its request
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(statementMetricsInterceptor);
+    }
+}
@@ -1,20 +1,50 @@
 package com.mano.Farafina_Backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Metrics, caches, traces and profiles expose code paths, SQL, URLs and traffic;
+                        // only the health and info probes stay public
+                        .requestMatchers(EndpointRequest.toAnyEndpoint().excluding("health", "info")).hasRole("ADMIN")
                         .anyRequest().permitAll()
-                );
+                )
+                .httpBasic(Customizer.withDefaults());
         return http.build();
     }
-}
\ No newline at end of file
+
+    // HTTP Basic account for the actuator endpoints; without a password they refuse everyone
+    @Bean
+    public UserDetailsService adminUsers(@Value("${farafina.admin.username:admin}") String username,
+                                         @Value("${farafina.admin.password:}") String password,
+                                         PasswordEncoder passwordEncoder) {
+        if (password.isBlank()) {
+            log.warn("farafina.admin.password is not set: admin actuator endpoints are disabled");
+            return new InMemoryUserDetailsManager();
+        }
+        return new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder.encode(password))
+                .roles("ADMIN")
+                .build());
+    }
+}
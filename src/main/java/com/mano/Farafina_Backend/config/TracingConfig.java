@@ -0,0 +1,89 @@
+package com.mano.Farafina_Backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import com.mano.Farafina_Backend.services.storage.StorageBackend;
+import com.mano.Farafina_Backend.tracing.SpanInterceptor;
+import com.mano.Farafina_Backend.tracing.TracingJsonConverter;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Repository;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+
+// Request tracing (see TracingFilter). Spans come from: repositories and services, the storage backend and
+// the raw S3 clients, BCrypt, JSON (de)serialization, and every JDBC statement (StatementMetricsListener).
+@Configuration
+public class TracingConfig {
+
+    private static final String BASE_PACKAGE = "com.mano.Farafina_Backend";
+
+    // Adds a span interceptor to the beans worth timing. Beans that are already proxies (@Repository
+    // exception translation, @Cacheable, Spring Data) get it as their outermost advice instead of a second proxy.
+    @Bean
+    public static BeanPostProcessor tracingSpanWrapper(@Value("${farafina.tracing.enabled:true}") boolean enabled) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                String category = enabled ? category(bean) : null;
+                if (category == null) {
+                    return bean;
+                }
+                SpanInterceptor interceptor = new SpanInterceptor(category, beanName);
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, interceptor);
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                // Class proxies for our own beans (MediaController checks the concrete storage backend type);
+                // interface proxies for library ones such as the AWS clients and the BCrypt encoder
+                proxyFactory.setProxyTargetClass(bean.getClass().getPackageName().startsWith(BASE_PACKAGE));
+                proxyFactory.addAdvice(interceptor);
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+
+    private static String category(Object bean) {
+        if (bean instanceof S3Client) {
+            return "s3";
+        }
+        if (bean instanceof StorageBackend) {
+            return "storage";
+        }
+        if (bean instanceof PasswordEncoder) {
+            return "crypto";
+        }
+        if (bean instanceof ProductSearchIndex) {
+            return "search";
+        }
+        if (bean instanceof org.springframework.data.repository.Repository) {
+            return "repository";
+        }
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (!type.getPackageName().startsWith(BASE_PACKAGE)) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Repository.class)) {
+            return "repository";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(type, Service.class)) {
+            return "service";
+        }
+        return null;
+    }
+
+    // Replaces Boot's default JSON converter (same ObjectMapper) so request and response bodies get spans
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TracingJsonConverter(objectMapper);
+    }
+}
@@ -1,6 +1,7 @@
 package com.mano.Farafina_Backend.controller;
 
 import com.mano.Farafina_Backend.entity.User;
+import com.mano.Farafina_Backend.metrics.StatementBudget;
 import com.mano.Farafina_Backend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +21,7 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @StatementBudget(4)
     @PostMapping("/signup")
     public ResponseEntity<Map<String, Object>> signup(@RequestBody Map<String, String> request) {
         Map<String, Object> response = new HashMap<>();
@@ -71,6 +73,7 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @StatementBudget(1)
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> request) {
         Map<String, Object> response = new HashMap<>();
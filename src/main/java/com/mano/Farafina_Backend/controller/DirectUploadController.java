@@ -0,0 +1,122 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.mano.Farafina_Backend.dto.DirectUpload;
+import com.mano.Farafina_Backend.dto.UploadedImage;
+import com.mano.Farafina_Backend.metrics.StatementBudget;
+import com.mano.Farafina_Backend.services.S3Service;
+import com.mano.Farafina_Backend.services.storage.PresignedUpload;
+import com.mano.Farafina_Backend.services.storage.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Direct-to-storage uploads:
+//   1. POST /api/uploads/presign {type, filename, contentType, sha256?} -> upload URL + headers + completionToken
+//      (or the existing URL straight away when sha256 is already stored)
+//   2. client sends the bytes to upload.url with upload.method and upload.headers; for POST (S3) as a
+//      multipart/form-data body of upload.fields followed by the file
+//   3. POST /api/uploads/complete {token} -> final URL (and variants for images)
+@RestController
+@RequestMapping("/api/uploads")
+@CrossOrigin(origins = "*")
+public class DirectUploadController {
+
+    private final S3Service s3Service;
+
+    @Autowired
+    public DirectUploadController(S3Service s3Service) {
+        this.s3Service = s3Service;
+    }
+
+    @StatementBudget(1)
+    @PostMapping("/presign")
+    public ResponseEntity<?> presign(@RequestBody Map<String, String> request) {
+        try {
+            DirectUpload directUpload = s3Service.presignDirectUpload(request.get("type"), request.get("filename"),
+                    request.get("contentType"), request.get("sha256"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("duplicate", directUpload.isDuplicate());
+            if (directUpload.isDuplicate()) {
+                putResult(response, directUpload.getExisting());
+            } else {
+                PresignedUpload upload = directUpload.getUpload();
+                Map<String, Object> uploadInfo = new HashMap<>();
+                uploadInfo.put("method", upload.getMethod());
+                uploadInfo.put("url", upload.getUrl());
+                uploadInfo.put("headers", upload.getHeaders());
+                if (!upload.getFields().isEmpty()) {
+                    uploadInfo.put("fields", upload.getFields());
+                }
+                uploadInfo.put("expiresAt", upload.getExpiresAt().toString());
+                response.put("upload", uploadInfo);
+                response.put("completionToken", directUpload.getCompletionToken());
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to prepare upload",
+                            "details", e.getMessage()));
+        }
+    }
+
+    @StatementBudget(3)
+    @PostMapping("/complete")
+    public ResponseEntity<?> complete(@RequestBody Map<String, String> request) {
+        try {
+            UploadedImage uploaded = s3Service.completeDirectUpload(request.get("token"));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            putResult(response, uploaded);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to complete upload",
+                            "details", e.getMessage()));
+        }
+    }
+
+    // Upload target for the local storage backend (S3 presigned URLs go to S3 instead)
+    @StatementBudget(3)
+    @PutMapping("/direct/{token}")
+    public ResponseEntity<?> receive(@PathVariable String token, HttpServletRequest request) {
+        try {
+            if (request.getContentLengthLong() > s3Service.getMaxDirectUploadSize()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(Map.of("success", false, "error", "Upload too large"));
+            }
+            s3Service.receiveDirectUpload(token, request.getContentType(), request.getInputStream());
+            return ResponseEntity.ok(Map.of("success", true));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to store upload",
+                            "details", e.getMessage()));
+        }
+    }
+
+    private static void putResult(Map<String, Object> response, UploadedImage uploaded) {
+        response.put("url", uploaded.getUrl());
+        if (!uploaded.getVariants().isEmpty()) {
+            response.put("variants", uploaded.getVariants());
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.mano.Farafina_Backend.controller;
 
+import com.mano.Farafina_Backend.dto.UploadedImage;
+import com.mano.Farafina_Backend.metrics.StatementBudget;
 import com.mano.Farafina_Backend.services.S3Service;
+import com.mano.Farafina_Backend.services.media.ResumableUpload;
+import com.mano.Farafina_Backend.services.media.ResumableUploadService;
+import com.mano.Farafina_Backend.services.storage.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,12 +27,15 @@ import java.util.Map;
 public class FileUploadController {
 
     private final S3Service s3Service;
+    private final ResumableUploadService resumableUploadService;
 
     @Autowired
-    public FileUploadController(S3Service s3Service) {
+    public FileUploadController(S3Service s3Service, ResumableUploadService resumableUploadService) {
         this.s3Service = s3Service;
+        this.resumableUploadService = resumableUploadService;
     }
 
+    @StatementBudget(3)
     @PostMapping("/upload-image")
     public ResponseEntity<?> uploadImage(@RequestParam("image") MultipartFile file) {
         try {
@@ -29,11 +44,12 @@ public class FileUploadController {
                         .body(Map.of("success", false, "error", "No image file provided"));
             }
 
-            String url = s3Service.uploadImage(file);
+            UploadedImage image = s3Service.uploadImage(file);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("url", url);
+            response.put("url", image.getUrl());
+            response.put("variants", image.getVariants());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -43,6 +59,7 @@ public class FileUploadController {
         }
     }
 
+    @StatementBudget(3)
     @PostMapping("/upload-video")
     public ResponseEntity<?> uploadVideo(@RequestParam("video") MultipartFile file) {
         try {
@@ -64,4 +81,154 @@ public class FileUploadController {
                             "details", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Raw body upload for large videos: the request stream is fed straight into a parallel
+    // multipart upload, e.g. curl -T clip.mp4 -H "Content-Type: video/mp4" ".../upload-video/stream?filename=clip.mp4"
+    @StatementBudget(3)
+    @PostMapping("/upload-video/stream")
+    public ResponseEntity<?> uploadVideoStream(
+            HttpServletRequest request,
+            @RequestParam(required = false) String filename) {
+        try {
+            if (request.getContentLengthLong() == 0) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "error", "No video data provided"));
+            }
+            if (request.getContentLengthLong() > s3Service.getMaxStreamUploadSize()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(Map.of("success", false, "error", "Upload too large"));
+            }
+
+            String contentType = request.getContentType() != null ? request.getContentType() : "video/mp4";
+            String url = s3Service.uploadVideoStream(request.getInputStream(), filename, contentType);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("url", url);
+
+            return ResponseEntity.ok(response);
+        } catch (UploadTooLargeException e) {
+            // Chunked bodies have no Content-Length; the cap is enforced while the bytes arrive
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("success", false, "error", "Upload too large"));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to upload video",
+                            "details", e.getMessage()));
+        }
+    }
+
+    // ---------------- RESUMABLE VIDEO UPLOADS ----------------
+    // tus-style: POST with Upload-Length creates the upload, HEAD reports Upload-Offset, PATCH sends
+    // bytes starting at Upload-Offset. After a dropped connection the client HEADs and resumes from
+    // the returned offset instead of sending the whole file again.
+
+    @StatementBudget(0)
+    @PostMapping("/upload-video/resumable")
+    public ResponseEntity<?> createResumableUpload(
+            @RequestHeader("Upload-Length") long length,
+            @RequestParam(required = false) String filename,
+            @RequestParam(required = false) String contentType) {
+        try {
+            ResumableUpload upload = resumableUploadService.create(length, filename, contentType);
+            String location = "/api/upload-video/resumable/" + upload.getId();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("uploadId", upload.getId());
+            response.put("location", location);
+            response.put("uploadOffset", 0);
+
+            return ResponseEntity.created(URI.create(location))
+                    .headers(resumableHeaders(upload, 0))
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to create upload",
+                            "details", e.getMessage()));
+        }
+    }
+
+    @StatementBudget(0)
+    @RequestMapping(value = "/upload-video/resumable/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> resumableUploadStatus(@PathVariable String uploadId) throws IOException {
+        ResumableUpload upload = resumableUploadService.find(uploadId);
+        if (upload == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .headers(resumableHeaders(upload, resumableUploadService.offset(upload)))
+                .build();
+    }
+
+    @StatementBudget(3)
+    @PatchMapping("/upload-video/resumable/{uploadId}")
+    public ResponseEntity<?> appendResumableUpload(
+            @PathVariable String uploadId,
+            @RequestHeader("Upload-Offset") long offset,
+            HttpServletRequest request) {
+        try {
+            ResumableUpload upload = resumableUploadService.append(uploadId, offset, request.getInputStream());
+            if (upload == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("success", false, "error", "Upload not found or expired"));
+            }
+            long uploadOffset = resumableUploadService.offset(upload);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("uploadOffset", uploadOffset);
+            response.put("complete", upload.getUrl() != null);
+            if (upload.getUrl() != null) {
+                response.put("url", upload.getUrl());
+            }
+
+            return ResponseEntity.ok()
+                    .headers(resumableHeaders(upload, uploadOffset))
+                    .body(response);
+        } catch (IllegalStateException e) {
+            // Wrong offset or a concurrent PATCH: tell the client where to resume from
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            try {
+                ResumableUpload upload = resumableUploadService.find(uploadId);
+                if (upload != null) {
+                    response.put("uploadOffset", resumableUploadService.offset(upload));
+                }
+            } catch (IOException ignored) {
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to upload video",
+                            "details", e.getMessage()));
+        }
+    }
+
+    @StatementBudget(0)
+    @DeleteMapping("/upload-video/resumable/{uploadId}")
+    public ResponseEntity<Void> terminateResumableUpload(@PathVariable String uploadId) throws IOException {
+        try {
+            return resumableUploadService.terminate(uploadId) ?
+                    ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            // A PATCH is still writing; the client can retry once it ends
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private HttpHeaders resumableHeaders(ResumableUpload upload, long offset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Tus-Resumable", "1.0.0");
+        headers.set("Upload-Offset", String.valueOf(offset));
+        headers.set("Upload-Length", String.valueOf(upload.getLength()));
+        headers.set("Upload-Expires", DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(resumableUploadService.expiresAt(upload).atZone(ZoneOffset.UTC)));
+        headers.setCacheControl("no-store");
+        return headers;
+    }
+}
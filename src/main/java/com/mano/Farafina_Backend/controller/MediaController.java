@@ -0,0 +1,224 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.mano.Farafina_Backend.metrics.StatementBudget;
+import com.mano.Farafina_Backend.services.storage.LocalStorageBackend;
+import com.mano.Farafina_Backend.services.storage.StorageBackend;
+import com.mano.Farafina_Backend.services.storage.StoredObject;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Serves stored media at /media/<key> from any storage backend, with single-range Range requests
+// (so players can seek without fetching the prefix), ETag / If-None-Match and If-Range.
+// Local disk: Tomcat sendfile when the connector supports it, else FileChannel.transferTo.
+// S3: one ranged GET, copied to the response in fixed-size chunks.
+// With the S3 backend, point aws.s3.public-url at <api>/media to deliver uploads through here.
+@RestController
+@CrossOrigin(origins = "*")
+public class MediaController {
+
+    private static final String MEDIA_PREFIX = "/media/";
+
+    // Only published media; temporary keys (tmp/, half-finished streams) are never served
+    private static final List<String> SERVED_PREFIXES = List.of("products/", "videos/");
+
+    // products/<sha256>/<file> and videos/<sha256>.<ext>: the key changes whenever the content does
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile(
+            "products/[0-9a-f]{64}/[^/]+|videos/[0-9a-f]{64}\\.[^/]+");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // parseRange result for a range that lies outside the object (416)
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final StorageBackend storage;
+
+    @Value("${farafina.media.chunk-size:256KB}")
+    private DataSize chunkSize;
+
+    @Autowired
+    public MediaController(StorageBackend storage) {
+        this.storage = storage;
+    }
+
+    // Spring routes HEAD here as well; only the headers are written then
+    @StatementBudget(0)
+    @GetMapping(MEDIA_PREFIX + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // Resolved before the prefix check so "products/../tmp/x" cannot reach an unpublished key
+        String key = StringUtils.cleanPath(UriUtils.decode(path.substring(MEDIA_PREFIX.length()), StandardCharsets.UTF_8));
+        if (SERVED_PREFIXES.stream().noneMatch(key::startsWith)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Optional<StoredObject> stored;
+        try {
+            stored = storage.stat(key);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (stored.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StoredObject object = stored.get();
+        long size = object.getSize();
+
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", object.getEtag());
+        if (object.getLastModified() != null) {
+            response.setDateHeader("Last-Modified", object.getLastModified().toEpochMilli());
+        }
+        // Content-addressed keys are never rewritten; older upload keys are revalidated with the ETag
+        response.setHeader("Cache-Control", CONTENT_ADDRESSED.matcher(key).matches() ?
+                "public, max-age=31536000, immutable" : "public, no-cache");
+
+        if (etagMatches(request.getHeader("If-None-Match"), object.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        // If-Range: only honour the range when the client's copy is still current
+        if (range != null && (ifRange == null || ifRange.equals(object.getEtag()))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader("Content-Range", "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        String contentType = object.getContentType() != null ? object.getContentType() :
+                MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (storage instanceof LocalStorageBackend local) {
+            sendFile(request, response, local.resolve(key), start, length);
+            return;
+        }
+        try (InputStream input = storage.openRange(key, start, end);
+             OutputStream output = response.getOutputStream()) {
+            byte[] buffer = new byte[(int) chunkSize.toBytes()];
+            int read;
+            while ((read = input.readNBytes(buffer, 0, buffer.length)) > 0) {
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void sendFile(HttpServletRequest request, HttpServletResponse response, Path file,
+                          long start, long length) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             WritableByteChannel output = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, Math.min(remaining, chunkSize.toBytes()), output);
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // "bytes=a-b", "bytes=a-" or "bytes=-n" -> {start, endInclusive}. Returns null for anything else
+    // (malformed, or several ranges), in which case the whole object is sent, as RFC 9110 allows.
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, Math.min(end, size - 1)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,36 @@
 package com.mano.Farafina_Backend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mano.Farafina_Backend.dto.CursorPage;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
 import com.mano.Farafina_Backend.entity.Product;
+import com.mano.Farafina_Backend.metrics.StatementBudget;
 import com.mano.Farafina_Backend.services.ProductService;
+import com.mano.Farafina_Backend.services.bulk.ProductImportReport;
+import com.mano.Farafina_Backend.services.bulk.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,38 +41,37 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+
+    // Upper bound for endpoints that take a list of product ids
+    private static final int MAX_BATCH_IDS = 100;
+
+    // Rows buffered by the JSON generator before pushing a chunk to the client
+    private static final int STREAM_FLUSH_EVERY = 100;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.objectMapper = objectMapper;
     }
 
     // ---------------- CREATE PRODUCT ----------------
+    @StatementBudget(2)
     @PostMapping
     public ResponseEntity<?> createProduct(@RequestBody Product product) {
         try {
-            System.out.println("=== PRODUCT CREATION DEBUG ===");
-            System.out.println("Product Name: " + product.getProductName());
-            System.out.println("User ID: " + product.getUserId());
-            System.out.println("Category: " + product.getCategory());
-            System.out.println("Condition: " + product.getCondition());
-            System.out.println("Price: " + product.getPrice());
-            System.out.println("Country: " + product.getCountry());
-            System.out.println("Images received: " + (product.getImages() != null ? product.getImages().size() : "NULL"));
-            System.out.println("Video URL: " + product.getVideoUrl());
-
             if (product.getImages() == null) {
                 product.setImages(new ArrayList<>());
             }
 
             Product savedProduct = productService.createProduct(product);
 
-            System.out.println("Product saved with ID: " + savedProduct.getId());
-            System.out.println("Images in saved product: " +
-                    (savedProduct.getImages() != null ? savedProduct.getImages().size() : "NULL"));
-            System.out.println("=== END DEBUG ===");
-
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Product created successfully");
@@ -61,36 +85,154 @@ public class ProductController {
         }
     }
 
+    // ---------------- BULK IMPORT ----------------
+    // Body is CSV (text/csv, header row of product field names, images separated by |) or NDJSON
+    // (application/x-ndjson, one product object per line). Streamed: rows are validated as they arrive and
+    // saved in batches, so valid rows are imported and the rest come back in "errors" with their row number.
+    // Budget, at the default settings: 40 batches (max-rows / batch-size) of two statements each (products,
+    // then their at most 10 images per row), plus up to 64 two-statement writes retrying rejected batches.
+    @StatementBudget(208)
+    @PostMapping("/import")
+    public ResponseEntity<?> importProducts(HttpServletRequest request,
+                                            @RequestParam(required = false) Long userId) {
+        // From the Content-Type itself: getCharacterEncoding() is always UTF-8, Spring Boot forces it on requests
+        Charset charset = StandardCharsets.UTF_8;
+        try {
+            if (request.getContentType() != null) {
+                Charset declared = MediaType.parseMediaType(request.getContentType()).getCharset();
+                charset = declared != null ? declared : charset;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Also unknown or malformed charset names
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", "Invalid Content-Type: " + e.getMessage()));
+        }
+        try {
+            BufferedReader body = new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+            ProductImportReport report = productImportService.importProducts(body, request.getContentType(), userId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", report.getFailed() == 0 && !report.isRowLimitReached());
+            response.put("rows", report.getRows());
+            response.put("imported", report.getImported());
+            response.put("failed", report.getFailed());
+            response.put("errors", report.getErrors());
+            response.put("errorsTruncated", report.isErrorsTruncated());
+            response.put("rowLimitReached", report.isRowLimitReached());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Product import failed", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to import products", "details", e.getMessage()));
+        }
+    }
+
     // ---------------- GET ALL PRODUCTS / SEARCH ----------------
+    @StatementBudget(3)
     @GetMapping
     public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String country,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) String condition,
-            @RequestParam(required = false) String search
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
     ) {
         try {
-            List<Product> products;
-            if (category != null || country != null || city != null || condition != null || search != null) {
-                products = productService.searchProducts(category, country, city, condition, search);
-            } else {
-                products = productService.getAllProducts();
-            }
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("products", products);
-            response.put("count", products.size());
-
-            return ResponseEntity.ok(response);
+            ProductFilter filter = new ProductFilter();
+            filter.setCategory(category);
+            filter.setCountry(country);
+            filter.setCity(city);
+            filter.setCondition(condition);
+            filter.setMinPrice(minPrice);
+            filter.setMaxPrice(maxPrice);
+            filter.setKeyword(search);
+
+            CursorPage<ProductSummary> page = filter.isEmpty()
+                    ? productService.getAllProducts(cursor, limit)
+                    : productService.searchProducts(filter, cursor, limit);
+
+            return ResponseEntity.ok(pageResponse(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "error", "Failed to fetch products"));
         }
     }
 
+    // ---------------- STREAM PRODUCTS ----------------
+    // Whole filtered listing written row by row as NDJSON (default) or a chunked JSON array
+    @StatementBudget(2)
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String condition,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or json");
+        }
+
+        ProductFilter filter = new ProductFilter();
+        filter.setCategory(category);
+        filter.setCountry(country);
+        filter.setCity(city);
+        filter.setCondition(condition);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+
+        // The mapper flushes after every writeValue by default, which would push one chunk per row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // No " " between root values: NDJSON lines are separated by the '\n' written below only
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                int[] written = {0};
+                productService.streamProducts(filter, product -> {
+                    try {
+                        writer.writeValue(generator, product);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                        if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        // Client went away: abort the query instead of reading the rest of the rows
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     // ---------------- GET PRODUCT BY ID ----------------
+    @StatementBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         try {
@@ -110,15 +252,18 @@ public class ProductController {
     }
 
     // ---------------- GET PRODUCTS BY USER ----------------
+    @StatementBudget(2)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getProductsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<?> getProductsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.getProductsByUserId(userId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("products", products);
-            response.put("count", products.size());
-            return ResponseEntity.ok(response);
+            CursorPage<ProductSummary> page = productService.getProductsByUserId(userId, cursor, limit);
+            return ResponseEntity.ok(pageResponse(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "error", "Failed to fetch products"));
@@ -126,19 +271,12 @@ public class ProductController {
     }
 
     // ---------------- UPDATE PRODUCT ----------------
+    @StatementBudget(4)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
         try {
-            System.out.println("=== PRODUCT UPDATE DEBUG ===");
-            System.out.println("Updating product ID: " + id);
-            System.out.println("New data received: " + productDetails.getProductName());
-
             Product updatedProduct = productService.updateProduct(id, productDetails);
 
-            System.out.println("Product updated successfully");
-            System.out.println("Updated at: " + updatedProduct.getUpdatedAt());
-            System.out.println("=== END UPDATE DEBUG ===");
-
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Product updated successfully");
@@ -155,6 +293,7 @@ public class ProductController {
     }
 
     // ---------------- DELETE PRODUCT ----------------
+    @StatementBudget(3)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
         try {
@@ -170,6 +309,7 @@ public class ProductController {
     }
 
     // ---------------- GET STATISTICS ----------------
+    @StatementBudget(1)
     @GetMapping("/stats")
     public ResponseEntity<?> getStatistics() {
         try {
@@ -188,15 +328,18 @@ public class ProductController {
     }
 
     // ---------------- GET PRODUCTS BY CATEGORY ----------------
+    @StatementBudget(2)
     @GetMapping("/category/{category}")
-    public ResponseEntity<?> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.getProductsByCategory(category);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("products", products);
-            response.put("count", products.size());
-            return ResponseEntity.ok(response);
+            CursorPage<ProductSummary> page = productService.getProductsByCategory(category, cursor, limit);
+            return ResponseEntity.ok(pageResponse(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "error", "Failed to fetch products"));
@@ -204,15 +347,18 @@ public class ProductController {
     }
 
     // ---------------- GET PRODUCTS BY CONDITION ----------------
+    @StatementBudget(2)
     @GetMapping("/condition/{condition}")
-    public ResponseEntity<?> getProductsByCondition(@PathVariable String condition) {
+    public ResponseEntity<?> getProductsByCondition(
+            @PathVariable String condition,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.getProductsByCondition(condition);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("products", products);
-            response.put("count", products.size());
-            return ResponseEntity.ok(response);
+            CursorPage<ProductSummary> page = productService.getProductsByCondition(condition, cursor, limit);
+            return ResponseEntity.ok(pageResponse(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(Map.of("success", false, "error", "Failed to fetch products"));
@@ -220,10 +366,11 @@ public class ProductController {
     }
 
     // ---------------- GET LATEST PRODUCTS ----------------
+    @StatementBudget(2)
     @GetMapping("/latest")
     public ResponseEntity<?> getLatestProducts(@RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Product> products = productService.getLatestProducts(limit);
+            List<ProductSummary> products = productService.getLatestProducts(limit);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("products", products);
@@ -236,10 +383,11 @@ public class ProductController {
     }
 
     // ---------------- GET RECENTLY UPDATED PRODUCTS ----------------
+    @StatementBudget(2)
     @GetMapping("/recently-updated")
     public ResponseEntity<?> getRecentlyUpdatedProducts(@RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Product> products = productService.getRecentlyUpdatedProducts(limit);
+            List<ProductSummary> products = productService.getRecentlyUpdatedProducts(limit);
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("products", products);
@@ -254,6 +402,7 @@ public class ProductController {
     // ============ LIKES & COMMENTS ENDPOINTS ============
 
     // Get all likes for a product
+    @StatementBudget(1)
     @GetMapping("/{productId}/likes")
     public ResponseEntity<?> getProductLikes(@PathVariable Long productId) {
         try {
@@ -275,6 +424,7 @@ public class ProductController {
     }
 
     // Get all comments for a product
+    @StatementBudget(1)
     @GetMapping("/{productId}/comments")
     public ResponseEntity<?> getProductComments(@PathVariable Long productId) {
         try {
@@ -296,6 +446,7 @@ public class ProductController {
     }
 
     // Add a like to a product
+    @StatementBudget(1)
     @PostMapping("/{productId}/like")
     public ResponseEntity<?> likeProduct(
             @PathVariable Long productId,
@@ -310,7 +461,35 @@ public class ProductController {
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Like failed for product {}", productId, e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    // Which of the given products a user has liked, e.g. /liked?userId=5&productIds=1,2,3
+    @StatementBudget(1)
+    @GetMapping("/liked")
+    public ResponseEntity<?> getLikedByUser(
+            @RequestParam Long userId,
+            @RequestParam List<Long> productIds) {
+        try {
+            if (productIds.size() > MAX_BATCH_IDS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "error", "At most " + MAX_BATCH_IDS + " product ids per request"));
+            }
+            Map<Long, Boolean> liked = productService.getLikedByUser(userId, productIds);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("userId", userId);
+            response.put("liked", liked);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Liked lookup failed for user {}", userId, e);
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("error", e.getMessage());
@@ -319,6 +498,7 @@ public class ProductController {
     }
 
     // Remove a like from a product
+    @StatementBudget(1)
     @DeleteMapping("/{productId}/like/{userId}")
     public ResponseEntity<?> unlikeProduct(
             @PathVariable Long productId,
@@ -332,7 +512,7 @@ public class ProductController {
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Unlike failed for product {}", productId, e);
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("error", e.getMessage());
@@ -341,6 +521,7 @@ public class ProductController {
     }
 
     // Add a comment to a product
+    @StatementBudget(2)
     @PostMapping("/{productId}/comment")
     public ResponseEntity<?> commentOnProduct(
             @PathVariable Long productId,
@@ -367,12 +548,13 @@ public class ProductController {
     }
 
     // Delete a comment
+    @StatementBudget(1)
     @DeleteMapping("/{productId}/comment/{commentId}")
     public ResponseEntity<?> deleteComment(
             @PathVariable Long productId,
             @PathVariable Long commentId) {
         try {
-            boolean result = productService.deleteComment(commentId);
+            boolean result = productService.deleteComment(productId, commentId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", result);
@@ -388,7 +570,33 @@ public class ProductController {
         }
     }
 
+    // Get interaction statistics for a batch of products, e.g. /stats/batch?productIds=1,2,3
+    @StatementBudget(2)
+    @GetMapping("/stats/batch")
+    public ResponseEntity<?> getProductInteractionStatsBatch(@RequestParam List<Long> productIds) {
+        try {
+            if (productIds.size() > MAX_BATCH_IDS) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("success", false, "error", "At most " + MAX_BATCH_IDS + " product ids per request"));
+            }
+            Map<Long, Map<String, Object>> stats = productService.getProductInteractionStats(productIds);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("stats", stats);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Batch interaction stats failed for {}", productIds, e);
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
     // Get interaction statistics for a product
+    @StatementBudget(2)
     @GetMapping("/{productId}/stats")
     public ResponseEntity<?> getProductInteractionStats(@PathVariable Long productId) {
         try {
@@ -400,11 +608,22 @@ public class ProductController {
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Interaction stats failed for product {}", productId, e);
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("error", e.getMessage());
             return ResponseEntity.status(500).body(error);
         }
     }
+
+    // Shared body for every keyset-paginated listing
+    private Map<String, Object> pageResponse(CursorPage<?> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("products", page.getItems());
+        response.put("count", page.getItems().size());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasMore", page.hasMore());
+        return response;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.mano.Farafina_Backend.dto;
+
+import com.mano.Farafina_Backend.services.storage.PresignedUpload;
+
+// Answer to a direct-upload request: either the content is already stored (existing), or the
+// client PUTs to upload and then confirms with completionToken
+public class DirectUpload {
+
+    private final UploadedImage existing;
+    private final PresignedUpload upload;
+    private final String completionToken;
+
+    private DirectUpload(UploadedImage existing, PresignedUpload upload, String completionToken) {
+        this.existing = existing;
+        this.upload = upload;
+        this.completionToken = completionToken;
+    }
+
+    public static DirectUpload duplicate(UploadedImage existing) {
+        return new DirectUpload(existing, null, null);
+    }
+
+    public static DirectUpload pending(PresignedUpload upload, String completionToken) {
+        return new DirectUpload(null, upload, completionToken);
+    }
+
+    public boolean isDuplicate() {
+        return existing != null;
+    }
+
+    public UploadedImage getExisting() {
+        return existing;
+    }
+
+    public PresignedUpload getUpload() {
+        return upload;
+    }
+
+    public String getCompletionToken() {
+        return completionToken;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mano.Farafina_Backend.dto;
+
+import java.math.BigDecimal;
+
+// Any subset of the listing filters; null fields are ignored
+public class ProductFilter {
+
+    private String category;
+    private String country;
+    private String city;
+    private String condition;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String keyword;
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.trim().isEmpty();
+    }
+
+    // True when something other than the keyword restricts the result
+    public boolean hasAttributeFilters() {
+        return category != null || country != null || city != null || condition != null
+                || minPrice != null || maxPrice != null;
+    }
+
+    public boolean isEmpty() {
+        return !hasKeyword() && !hasAttributeFilters();
+    }
+
+    // Getters and Setters
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mano.Farafina_Backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Listing card read model: no description TEXT and only the first image
+public class ProductSummary {
+
+    private final Long id;
+
+    @JsonProperty("productName")
+    private final String productName;
+
+    private final BigDecimal price;
+    private final String currency;
+    private final String city;
+
+    // First image (image_order = 0), filled in by one batched query per page
+    private String image;
+
+    // Smallest pipeline variant of the first image; same as image for uploads that predate variants
+    private String thumbnail;
+
+    @JsonProperty("likesCount")
+    private final Integer likesCount;
+
+    @JsonProperty("commentsCount")
+    private final Integer commentsCount;
+
+    @JsonProperty("createdAt")
+    private final LocalDateTime createdAt;
+
+    // Used by the JPA criteria constructor expression; argument order matters
+    public ProductSummary(Long id, String productName, BigDecimal price, String currency, String city,
+                          Integer likesCount, Integer commentsCount, LocalDateTime createdAt) {
+        this.id = id;
+        this.productName = productName;
+        this.price = price;
+        this.currency = currency;
+        this.city = city;
+        this.likesCount = likesCount != null ? likesCount : 0;
+        this.commentsCount = commentsCount != null ? commentsCount : 0;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+        this.thumbnail = VariantUrls.variantUrl(image, VariantUrls.THUMBNAIL_WIDTH);
+    }
+
+    public String getThumbnail() {
+        return thumbnail;
+    }
+
+    public Integer getLikesCount() {
+        return likesCount;
+    }
+
+    public Integer getCommentsCount() {
+        return commentsCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mano.Farafina_Backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position for ranked search results ordered by (score DESC, id DESC)
+public class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final double score;
+    private final Long id;
+
+    public SearchCursor(double score, Long id) {
+        this.score = score;
+        this.id = id;
+    }
+
+    // ---------------- ENCODE / DECODE ----------------
+    public String encode() {
+        String raw = "s" + score + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (!raw.startsWith("s") || separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            double score = Double.parseDouble(raw.substring(1, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new SearchCursor(score, id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mano.Farafina_Backend.dto;
+
+import java.util.Map;
+
+// Stored original plus its resized JPEG variants (width -> URL)
+public class UploadedImage {
+
+    private final String url;
+    private final Map<Integer, String> variants;
+
+    public UploadedImage(String url, Map<Integer, String> variants) {
+        this.url = url;
+        this.variants = variants;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<Integer, String> getVariants() {
+        return variants;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mano.Farafina_Backend.dto;
+
+// Where the image pipeline puts resized variants, so read models can point at them without depending on
+// the pipeline itself: ".../<folder>/orig.png" -> ".../<folder>/w320.jpg"
+public final class VariantUrls {
+
+    // Listings always ask for this width, so the pipeline generates it even if not configured
+    public static final int THUMBNAIL_WIDTH = 320;
+
+    private VariantUrls() {
+    }
+
+    // URLs from before the pipeline are returned unchanged
+    public static String variantUrl(String originalUrl, int width) {
+        if (originalUrl == null) {
+            return null;
+        }
+        int slash = originalUrl.lastIndexOf('/');
+        if (slash < 0 || !originalUrl.startsWith("orig.", slash + 1)) {
+            return originalUrl;
+        }
+        return originalUrl.substring(0, slash + 1) + "w" + width + ".jpg";
+    }
+}
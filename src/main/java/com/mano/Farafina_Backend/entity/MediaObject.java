@@ -0,0 +1,118 @@
+package com.mano.Farafina_Backend.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// One row per distinct uploaded content (SHA-256 of the bytes); duplicates reuse the stored key
+@Entity
+@Table(name = "media_objects")
+public class MediaObject implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(name = "storage_key", nullable = false, length = 512)
+    private String storageKey;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // Widths of the generated JPEG variants ("320,640,1280"); null for videos
+    @Column(name = "variant_widths")
+    private String variantWidths;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // The id is assigned, so without this save() would merge over an existing row (created_at included);
+    // a new instance is always inserted and a second row for the same hash fails instead
+    @Transient
+    private boolean isNew = true;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    // Constructors
+    public MediaObject() {}
+
+    public MediaObject(String sha256, String storageKey, String contentType, Long size, String variantWidths) {
+        this.sha256 = sha256;
+        this.storageKey = storageKey;
+        this.contentType = contentType;
+        this.size = size;
+        this.variantWidths = variantWidths;
+    }
+
+    // Getters and Setters
+    @Override
+    public String getId() {
+        return sha256;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getStorageKey() {
+        return storageKey;
+    }
+
+    public void setStorageKey(String storageKey) {
+        this.storageKey = storageKey;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getVariantWidths() {
+        return variantWidths;
+    }
+
+    public void setVariantWidths(String variantWidths) {
+        this.variantWidths = variantWidths;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
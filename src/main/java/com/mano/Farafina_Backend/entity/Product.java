@@ -12,10 +12,14 @@ import java.util.List;
 
 @Entity
 @Table(name = "products", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_category", columnList = "category"),
-        @Index(name = "idx_country", columnList = "country"),
-        @Index(name = "idx_condition_col", columnList = "product_condition")
+        // Composite indexes follow the filter tuples the listings use, each ending in the
+        // (created_at, id) keyset so filtered pages are an index range seek
+        @Index(name = "idx_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_category_country_city", columnList = "category, country, city, created_at, id"),
+        @Index(name = "idx_category_condition", columnList = "category, product_condition, created_at, id"),
+        @Index(name = "idx_country_city", columnList = "country, city, created_at, id"),
+        @Index(name = "idx_condition_created", columnList = "product_condition, created_at, id"),
+        @Index(name = "idx_created_at_id", columnList = "created_at, id")
 })
 public class Product {
 
@@ -86,11 +90,12 @@ public class Product {
     private String videoUrl;
 
     // ============ LIKES & COMMENTS COUNT FIELDS ============
-    @Column(name = "likes_count")
+    // Maintained by InteractionCounters; not updatable so a product edit never writes back a stale count
+    @Column(name = "likes_count", updatable = false)
     @JsonProperty("likesCount")
     private Integer likesCount = 0;
 
-    @Column(name = "comments_count")
+    @Column(name = "comments_count", updatable = false)
     @JsonProperty("commentsCount")
     private Integer commentsCount = 0;
     // ============ END LIKES & COMMENTS FIELDS ============
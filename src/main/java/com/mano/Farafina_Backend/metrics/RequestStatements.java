@@ -0,0 +1,63 @@
+package com.mano.Farafina_Backend.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// JDBC statements executed on behalf of the current HTTP request. Opened and closed by
+// StatementMetricsInterceptor; statements outside a request (scheduled jobs, startup) are not collected.
+// Async requests hand the same instance to the thread writing the response, one thread at a time.
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    // SQL text kept for the budget log; a runaway loop still only holds this many
+    private static final int MAX_RECORDED_SQL = 100;
+
+    private final List<String> sql = new ArrayList<>();
+    private int count;
+    private long nanos;
+
+    private RequestStatements() {}
+
+    public static RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    // Continues a request's count on the thread now working for it (async response bodies)
+    public static void attach(RequestStatements statements) {
+        CURRENT.set(statements);
+    }
+
+    // Null when the calling thread is not serving a request
+    public static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(String statement, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        if (sql.size() < MAX_RECORDED_SQL) {
+            sql.add(statement);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    // The first MAX_RECORDED_SQL statements, in execution order
+    public List<String> getSql() {
+        return Collections.unmodifiableList(sql);
+    }
+}
@@ -0,0 +1,19 @@
+package com.mano.Farafina_Backend.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most JDBC statements one request to this endpoint may execute (JPA and JdbcTemplate together).
+// Checked by StatementBudgetGuard on every request and by StatementBudgetTest; on a controller class
+// it applies to every handler without its own annotation. Size it for the worst case the endpoint
+// allows (largest page, most ids), so an N+1 shows up as a count that grows with the data.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,105 @@
+package com.mano.Farafina_Backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Compares each request's statement count with its endpoint's @StatementBudget. Over-budget requests
+// are logged with their statement list, counted in farafina.jdbc.budget.exceeded{method, uri}, and
+// the latest ones are kept for StatementBudgetTest and debugging.
+@Component
+public class StatementBudgetGuard {
+
+    // No annotation on the handler or its controller: not checked
+    public static final int NO_BUDGET = -1;
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetGuard.class);
+
+    private static final int MAX_KEPT_VIOLATIONS = 50;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+    private final Deque<StatementBudgetViolation> recent = new ArrayDeque<>();
+    // Guards recent; a lock rather than synchronized so a virtual request thread never pins its carrier
+    private final ReentrantLock recentLock = new ReentrantLock();
+
+    @Autowired
+    public StatementBudgetGuard(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static int budgetOf(HandlerMethod handler) {
+        StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(handler.getMethod(), StatementBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), StatementBudget.class);
+        }
+        return budget != null ? budget.value() : NO_BUDGET;
+    }
+
+    public void check(HttpServletRequest request, Object handler, String uri, RequestStatements statements) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int budget = budgets.computeIfAbsent(handlerMethod.getMethod(), ignored -> budgetOf(handlerMethod));
+        if (budget == NO_BUDGET || statements.getCount() <= budget) {
+            return;
+        }
+
+        String path = request.getQueryString() != null
+                ? request.getRequestURI() + "?" + request.getQueryString()
+                : request.getRequestURI();
+        StatementBudgetViolation violation = new StatementBudgetViolation(request.getMethod(), uri, path, budget,
+                statements.getCount(), statements.getSql());
+
+        Counter.builder("farafina.jdbc.budget.exceeded")
+                .description("Requests that ran more JDBC statements than their endpoint's budget")
+                .tag("method", violation.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        recentLock.lock();
+        try {
+            if (recent.size() == MAX_KEPT_VIOLATIONS) {
+                recent.removeFirst();
+            }
+            recent.addLast(violation);
+        } finally {
+            recentLock.unlock();
+        }
+        log.warn("Statement budget exceeded: {}", violation);
+    }
+
+    // Oldest first
+    public List<StatementBudgetViolation> getRecentViolations() {
+        recentLock.lock();
+        try {
+            return new ArrayList<>(recent);
+        } finally {
+            recentLock.unlock();
+        }
+    }
+
+    public void clearRecentViolations() {
+        recentLock.lock();
+        try {
+            recent.clear();
+        } finally {
+            recentLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mano.Farafina_Backend.metrics;
+
+import java.time.Instant;
+import java.util.List;
+
+// One request that ran more statements than its endpoint's @StatementBudget
+public class StatementBudgetViolation {
+
+    private final Instant at = Instant.now();
+    private final String method;
+    private final String uri;
+    private final String path;
+    private final int budget;
+    private final int statements;
+    private final List<String> sql;
+
+    public StatementBudgetViolation(String method, String uri, String path, int budget, int statements, List<String> sql) {
+        this.method = method;
+        this.uri = uri;
+        this.path = path;
+        this.budget = budget;
+        this.statements = statements;
+        this.sql = List.copyOf(sql);
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    // Route template, e.g. /api/products/{id}
+    public String getUri() {
+        return uri;
+    }
+
+    // Actual request path and query string
+    public String getPath() {
+        return path;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public List<String> getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(method).append(' ').append(path).append(" (").append(uri).append(") ran ")
+                .append(statements).append(" statements, budget ").append(budget);
+        for (int i = 0; i < sql.size(); i++) {
+            text.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(sql.get(i));
+        }
+        if (sql.size() < statements) {
+            text.append(System.lineSeparator()).append("  ... ").append(statements - sql.size()).append(" more");
+        }
+        return text.toString();
+    }
+}
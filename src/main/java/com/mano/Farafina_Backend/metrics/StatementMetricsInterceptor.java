@@ -0,0 +1,105 @@
+package com.mano.Farafina_Backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Per-endpoint JDBC cost: statements per request (farafina.jdbc.request.statements) and their total
+// time (farafina.jdbc.request.time), tagged like http.server.requests with method and uri template.
+// The same count is checked against the endpoint's @StatementBudget by StatementBudgetGuard.
+// Streaming responses are written on another thread after the handler returns: the count travels with
+// the request to that thread and back to the async dispatch, where it is recorded and checked.
+@Component
+public class StatementMetricsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String STATEMENTS_ATTRIBUTE = StatementMetricsInterceptor.class.getName() + ".statements";
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetGuard statementBudgetGuard;
+
+    @Autowired
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry, StatementBudgetGuard statementBudgetGuard) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudgetGuard = statementBudgetGuard;
+    }
+
+    // The count goes on the request before the handler runs: an async body can start on its own thread
+    // before afterConcurrentHandlingStarted is called, and must find it there
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(STATEMENTS_ATTRIBUTE, RequestStatements.begin());
+        } else if (request.getAttribute(STATEMENTS_ATTRIBUTE) instanceof RequestStatements statements) {
+            RequestStatements.attach(statements);
+        }
+        return true;
+    }
+
+    // The container thread is released; the count stays on the request for the async thread
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RequestStatements.end();
+    }
+
+    // Runs on the thread executing the StreamingResponseBody / Callable
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(STATEMENTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof RequestStatements statements) {
+            RequestStatements.attach(statements);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestStatements.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestStatements statements = RequestStatements.current();
+        if (statements == null) {
+            return;
+        }
+        RequestStatements.end();
+
+        String method = request.getMethod();
+        String uri = uri(request);
+        DistributionSummary.builder("farafina.jdbc.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getCount());
+        Timer.builder("farafina.jdbc.request.time")
+                .description("Time spent in JDBC statements per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.getNanos(), TimeUnit.NANOSECONDS);
+
+        statementBudgetGuard.check(request, handler, uri, statements);
+    }
+
+    // The matched route template (/api/products/{id}), never the raw path, to keep tag cardinality bounded
+    static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
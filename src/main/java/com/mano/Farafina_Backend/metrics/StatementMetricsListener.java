@@ -0,0 +1,79 @@
+package com.mano.Farafina_Backend.metrics;
+
+import com.mano.Farafina_Backend.tracing.TraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every statement sent through the proxied DataSource (JPA and JdbcTemplate alike) as
+// farafina.jdbc.statements{type, batch, outcome}, adds it to the current request's RequestStatements
+// and records it as a jdbc span in the request's trace.
+public class StatementMetricsListener implements QueryExecutionListener {
+
+    private static final String START = "farafina.start";
+
+    // Resolved lazily: the DataSource is wrapped long before the meter registry is ready
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StatementMetricsListener(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // A batch counts as one round trip, tagged with the type of its first statement
+        String type = queryInfoList.isEmpty()
+                ? "other"
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery()).name().toLowerCase(Locale.ROOT);
+
+        RequestStatements statements = RequestStatements.current();
+        if (statements != null || TraceContext.currentTraceId() != null) {
+            String sql = describe(execInfo, queryInfoList);
+            if (statements != null) {
+                statements.record(sql, elapsed);
+            }
+            TraceContext.record("jdbc", type, sql, start, elapsed, !execInfo.isSuccess());
+        }
+        timer(type, execInfo.isBatch(), execInfo.isSuccess()).record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private static String describe(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "?" : queryInfoList.get(0).getQuery();
+        if (execInfo.isBatch()) {
+            sql += " [batch of " + execInfo.getBatchSize() + "]";
+        }
+        return sql;
+    }
+
+    private Timer timer(String type, boolean batch, boolean success) {
+        String key = type + ':' + batch + ':' + success;
+        return timers.computeIfAbsent(key, ignored -> Timer.builder("farafina.jdbc.statements")
+                .description("JDBC statement execution time")
+                .tag("type", type)
+                .tag("batch", String.valueOf(batch))
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry.getObject()));
+    }
+}
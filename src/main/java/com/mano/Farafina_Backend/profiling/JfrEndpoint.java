@@ -0,0 +1,91 @@
+package com.mano.Farafina_Backend.profiling;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Admin-only (see SecurityConfig):
+//   POST   /actuator/jfr                     {"profile":"profile","duration":"PT2M"}, both optional
+//   DELETE /actuator/jfr                     stop early and return the summary
+//   GET    /actuator/jfr                     running recording and the finished ones
+//   GET    /actuator/jfr/{id}                hot-path summary (CPU, allocations, locks, GC) as JSON
+//   GET    /actuator/jfr/{id}/download       the raw .jfr for JDK Mission Control
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrProfiler profiler;
+
+    @Autowired
+    public JfrEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable String profile, @Nullable Duration duration)
+            throws IOException {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("recording", profiler.start(profile, duration));
+            return new WebEndpointResponse<>(response);
+        } catch (IllegalArgumentException e) {
+            return failure(WebEndpointResponse.STATUS_BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return failure(409, e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> stop() throws IOException {
+        String id = profiler.stop();
+        if (id == null) {
+            return failure(WebEndpointResponse.STATUS_NOT_FOUND, "No recording is running");
+        }
+        return new WebEndpointResponse<>(profiler.summary(id));
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() throws IOException {
+        return profiler.status();
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Map<String, Object>> summary(@Selector String id) throws IOException {
+        Map<String, Object> summary = profiler.summary(id);
+        if (summary == null) {
+            return failure(WebEndpointResponse.STATUS_NOT_FOUND, "Recording not found");
+        }
+        return new WebEndpointResponse<>(summary);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String id, @Selector String file) {
+        Path path = "download".equals(file) ? profiler.finishedFile(id) : null;
+        if (path == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(path));
+    }
+
+    private static WebEndpointResponse<Map<String, Object>> failure(int status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return new WebEndpointResponse<>(response, status);
+    }
+}
@@ -0,0 +1,230 @@
+package com.mano.Farafina_Backend.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// One Java Flight Recorder session at a time, started on demand. JFR stops the recording itself when its
+// duration is up and writes it to <dir>/<id>.jfr; the summary is built from that file the first time it is
+// asked for. Only the newest `keep` files are kept.
+@Component
+public class JfrProfiler {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfiler.class);
+
+    private static final String APPLICATION_PACKAGE = "com.mano.Farafina_Backend";
+    private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final int keep;
+
+    private final Map<String, Map<String, Object>> summaries = new ConcurrentHashMap<>();
+
+    // Guards the current* fields below
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording current;
+    private String currentId;
+    private String currentProfile;
+    private Instant currentStartedAt;
+
+    @Autowired
+    public JfrProfiler(@Value("${farafina.jfr.dir:./data/jfr}") Path directory,
+                       @Value("${farafina.jfr.default-duration:PT1M}") Duration defaultDuration,
+                       @Value("${farafina.jfr.max-duration:PT10M}") Duration maxDuration,
+                       @Value("${farafina.jfr.keep:5}") int keep) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+        this.keep = Math.max(1, keep);
+    }
+
+    // profile is a JFR configuration name: "default" (~1% overhead) or "profile" (more samples, ~2%)
+    public Map<String, Object> start(String profile, Duration duration) throws IOException {
+        lock.lock();
+        try {
+            finishIfStopped();
+            if (current != null) {
+                throw new IllegalStateException("Recording " + currentId + " is still running");
+            }
+            String profileName = profile != null && !profile.isBlank() ? profile : "default";
+            Duration length = duration != null ? duration : defaultDuration;
+            if (length.isNegative() || length.isZero() || length.compareTo(maxDuration) > 0) {
+                throw new IllegalArgumentException("duration must be between 1s and " + maxDuration);
+            }
+
+            Configuration configuration;
+            try {
+                configuration = Configuration.getConfiguration(profileName);
+            } catch (IOException | ParseException e) {
+                List<String> names = Configuration.getConfigurations().stream().map(Configuration::getName).toList();
+                throw new IllegalArgumentException("profile must be one of " + names);
+            }
+
+            String id = LocalDateTime.now().format(ID_FORMAT);
+            Recording recording = new Recording(configuration);
+            recording.setName("farafina-" + id);
+            recording.setDuration(length);
+            recording.setDestination(file(id));
+            recording.start();
+
+            current = recording;
+            currentId = id;
+            currentProfile = profileName;
+            currentStartedAt = Instant.now();
+            log.info("JFR recording {} started ({}, {})", id, profileName, length);
+            return describeCurrent();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stops the running recording early; returns its id, or null when nothing was running
+    public String stop() {
+        lock.lock();
+        try {
+            finishIfStopped();
+            if (current == null) {
+                return null;
+            }
+            String id = currentId;
+            current.stop();
+            finishIfStopped();
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> status() throws IOException {
+        lock.lock();
+        try {
+            finishIfStopped();
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("running", current != null ? describeCurrent() : null);
+
+            List<Map<String, Object>> recordings = new ArrayList<>();
+            for (String id : recordingIds()) {
+                Map<String, Object> recording = new LinkedHashMap<>();
+                recording.put("id", id);
+                recording.put("bytes", Files.size(file(id)));
+                recording.put("summary", "/actuator/jfr/" + id);
+                recording.put("download", "/actuator/jfr/" + id + "/download");
+                recordings.add(recording);
+            }
+            status.put("recordings", recordings);
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Null when there is no finished recording with this id
+    public Map<String, Object> summary(String id) throws IOException {
+        Path file = finishedFile(id);
+        if (file == null) {
+            return null;
+        }
+        Map<String, Object> summary = summaries.get(id);
+        if (summary == null) {
+            summary = new LinkedHashMap<>();
+            summary.put("id", id);
+            summary.put("bytes", Files.size(file));
+            summary.putAll(JfrSummary.summarize(file, APPLICATION_PACKAGE));
+            summaries.put(id, summary);
+        }
+        return summary;
+    }
+
+    public Path finishedFile(String id) {
+        lock.lock();
+        try {
+            finishIfStopped();
+            if (!isValidId(id) || id.equals(currentId)) {
+                return null;
+            }
+            Path file = file(id);
+            return Files.isRegularFile(file) ? file : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finishIfStopped() {
+        if (current == null || current.getState() == RecordingState.RUNNING
+                || current.getState() == RecordingState.DELAYED || current.getState() == RecordingState.NEW) {
+            return;
+        }
+        current.close();
+        log.info("JFR recording {} written to {}", currentId, file(currentId));
+        current = null;
+        currentId = null;
+        prune();
+    }
+
+    private Map<String, Object> describeCurrent() {
+        Map<String, Object> running = new LinkedHashMap<>();
+        running.put("id", currentId);
+        running.put("profile", currentProfile);
+        running.put("startedAt", currentStartedAt.toString());
+        running.put("durationSeconds", current.getDuration().toSeconds());
+        return running;
+    }
+
+    private void prune() {
+        List<String> ids = recordingIds();
+        for (String id : ids.subList(Math.min(keep, ids.size()), ids.size())) {
+            try {
+                Files.deleteIfExists(file(id));
+                summaries.remove(id);
+            } catch (IOException e) {
+                log.warn("Could not delete JFR recording {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    // Newest first; ids are timestamps, so name order is age order
+    private List<String> recordingIds() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".jfr"))
+                    .map(name -> name.substring(0, name.length() - ".jfr".length()))
+                    .filter(id -> isValidId(id) && !id.equals(currentId))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private static boolean isValidId(String id) {
+        return id != null && id.matches("\\d{8}-\\d{6}-\\d{3}");
+    }
+
+    private Path file(String id) {
+        return directory.resolve(id + ".jfr");
+    }
+}
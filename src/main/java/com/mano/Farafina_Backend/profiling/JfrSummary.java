@@ -0,0 +1,220 @@
+package com.mano.Farafina_Backend.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads a .jfr file once and reduces it to the hot paths: CPU samples, sampled allocations, lock waits and
+// GC pauses. Lock waits are monitor contention plus parks on a lock; other parks (idle pool workers on a
+// queue's Condition, latches, virtual threads waiting for I/O) are waiting for work, not for a lock.
+// Each sample is attributed to the innermost frame in the application package, so time spent in
+// Hibernate, Jackson or the JDK lands on the service or repository method that called it; the most common
+// innermost frame under it is reported alongside.
+public final class JfrSummary {
+
+    private static final int TOP = 20;
+    private static final String NO_APPLICATION_FRAME = "(no application frame)";
+    private static final List<String> INSTRUMENTATION_PACKAGES = List.of(".tracing.", ".metrics.", ".profiling.");
+    private static final List<String> LOCK_CLASSES = List.of("java.util.concurrent.locks.ReentrantLock$",
+            "java.util.concurrent.locks.ReentrantReadWriteLock$", "java.util.concurrent.locks.StampedLock");
+
+    private JfrSummary() {}
+
+    public static Map<String, Object> summarize(Path file, String applicationPackage) throws IOException {
+        Tally cpu = new Tally();
+        Tally allocation = new Tally();
+        Tally locks = new Tally();
+        Map<String, long[]> collectors = new LinkedHashMap<>();
+        List<RecordedEvent> longestPauses = new ArrayList<>();
+        long collections = 0;
+        long pauseNanos = 0;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> cpu.add(site(event, applicationPackage), leaf(event), 1);
+                    case "jdk.ObjectAllocationSample" -> allocation.add(site(event, applicationPackage),
+                            className(event.getClass("objectClass")), event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter" -> locks.add(site(event, applicationPackage),
+                            "monitor " + className(event.getClass("monitorClass")), event.getDuration().toNanos());
+                    case "jdk.ThreadPark" -> {
+                        String parkedClass = className(event.getClass("parkedClass"));
+                        if (isLock(parkedClass)) {
+                            locks.add(site(event, applicationPackage), "park " + parkedClass,
+                                    event.getDuration().toNanos());
+                        }
+                    }
+                    case "jdk.GarbageCollection" -> {
+                        long pause = event.getDuration("sumOfPauses").toNanos();
+                        collections++;
+                        pauseNanos += pause;
+                        long[] collector = collectors.computeIfAbsent(event.getString("name"), ignored -> new long[2]);
+                        collector[0]++;
+                        collector[1] += pause;
+                        longestPauses.add(event);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("applicationPackage", applicationPackage);
+
+        Map<String, Object> cpuSummary = new LinkedHashMap<>();
+        cpuSummary.put("samples", cpu.getTotal());
+        cpuSummary.put("applicationSamples", cpu.getTotal() - cpu.amountOf(NO_APPLICATION_FRAME));
+        cpuSummary.put("topFrames", cpu.top("samples", "hottestLeaf", 1));
+        summary.put("cpu", cpuSummary);
+
+        Map<String, Object> allocationSummary = new LinkedHashMap<>();
+        allocationSummary.put("sampledBytes", allocation.getTotal());
+        allocationSummary.put("topSites", allocation.top("bytes", "topClass", 1));
+        summary.put("allocation", allocationSummary);
+
+        Map<String, Object> lockSummary = new LinkedHashMap<>();
+        lockSummary.put("events", locks.getEvents());
+        lockSummary.put("totalMillis", locks.getTotal() / 1_000_000);
+        lockSummary.put("topSites", locks.top("millis", "topLock", 1_000_000));
+        summary.put("locks", lockSummary);
+
+        Map<String, Object> gcSummary = new LinkedHashMap<>();
+        gcSummary.put("collections", collections);
+        gcSummary.put("totalPauseMillis", Duration.ofNanos(pauseNanos).toMillis());
+        Map<String, Object> byCollector = new LinkedHashMap<>();
+        collectors.forEach((name, totals) -> byCollector.put(name, Map.of(
+                "collections", totals[0],
+                "pauseMillis", Duration.ofNanos(totals[1]).toMillis())));
+        gcSummary.put("byCollector", byCollector);
+        longestPauses.sort(Comparator.comparing((RecordedEvent event) -> event.getDuration("longestPause")).reversed());
+        List<Map<String, Object>> longest = new ArrayList<>();
+        for (RecordedEvent event : longestPauses.subList(0, Math.min(5, longestPauses.size()))) {
+            Map<String, Object> pause = new LinkedHashMap<>();
+            pause.put("at", event.getStartTime().toString());
+            pause.put("collector", event.getString("name"));
+            pause.put("cause", event.getString("cause"));
+            pause.put("longestPauseMillis", event.getDuration("longestPause").toNanos() / 1_000_000.0);
+            longest.add(pause);
+        }
+        gcSummary.put("longestPauses", longest);
+        summary.put("gc", gcSummary);
+        return summary;
+    }
+
+    // Innermost application frame. Spring proxies ($$SpringCGLIB$$) and our own instrumentation (span
+    // interceptors, JDBC listener) are skipped so the method that made the call shows up
+    private static String site(RecordedEvent event, String applicationPackage) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (type.startsWith(applicationPackage) && !type.contains("$$")
+                        && !isInstrumentation(type, applicationPackage)) {
+                    return describe(frame);
+                }
+            }
+        }
+        return NO_APPLICATION_FRAME;
+    }
+
+    private static boolean isInstrumentation(String type, String applicationPackage) {
+        for (String pkg : INSTRUMENTATION_PACKAGES) {
+            if (type.startsWith(applicationPackage + pkg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLock(String parkedClass) {
+        for (String lockClass : LOCK_CLASSES) {
+            if (parkedClass.startsWith(lockClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String leaf(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "?";
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    private static String className(RecordedClass type) {
+        return type != null ? type.getName() : "?";
+    }
+
+    // Amount and event count per site, plus a breakdown by detail (leaf frame, allocated class, lock class)
+    private static final class Tally {
+
+        private final Map<String, long[]> sites = new HashMap<>();
+        private final Map<String, Map<String, Long>> details = new HashMap<>();
+        private long total;
+        private long events;
+
+        void add(String site, String detail, long amount) {
+            long[] totals = sites.computeIfAbsent(site, ignored -> new long[2]);
+            totals[0] += amount;
+            totals[1]++;
+            details.computeIfAbsent(site, ignored -> new HashMap<>()).merge(detail, amount, Long::sum);
+            total += amount;
+            events++;
+        }
+
+        long amountOf(String site) {
+            long[] totals = sites.get(site);
+            return totals != null ? totals[0] : 0;
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        long getEvents() {
+            return events;
+        }
+
+        // Amounts are divided by unit, e.g. nanoseconds to milliseconds
+        List<Map<String, Object>> top(String amountName, String detailName, long unit) {
+            List<Map<String, Object>> top = new ArrayList<>();
+            sites.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                    .limit(TOP)
+                    .forEach(entry -> {
+                        Map<String, Object> site = new LinkedHashMap<>();
+                        site.put("frame", entry.getKey());
+                        site.put(amountName, entry.getValue()[0] / unit);
+                        site.put("events", entry.getValue()[1]);
+                        site.put("percent", total > 0 ? Math.round(entry.getValue()[0] * 1000.0 / total) / 10.0 : 0.0);
+                        site.put(detailName, details.get(entry.getKey()).entrySet().stream()
+                                .max(Map.Entry.comparingByValue())
+                                .map(Map.Entry::getKey)
+                                .orElse(null));
+                        top.add(site);
+                    });
+            return top;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.entity.MediaObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaObjectRepository extends JpaRepository<MediaObject, String> {
+}
@@ -0,0 +1,116 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Bulk-import writes: one multi-row INSERT for a batch of products (ids come back as generated keys, in
+// row order) and one per IMAGE_ROWS_PER_STATEMENT product_images rows. The JPA path pays a statement
+// and an IDENTITY round trip per product and per image; this pays two statements per batch.
+@Repository
+public class ProductImportRepository {
+
+    // 15,000 placeholders, under MySQL's 65,535; a default batch (500 rows of at most 10 images) fits in one
+    private static final int IMAGE_ROWS_PER_STATEMENT = 5000;
+
+    private static final String INSERT_PRODUCTS = "INSERT INTO products (user_id, product_name, description, " +
+            "category, product_condition, price, currency, country, city, shop_name, contact_phone, quantity, " +
+            "shipping_available, local_pickup, video_url, likes_count, comments_count, created_at, updated_at) VALUES ";
+    private static final String PRODUCT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?)";
+    private static final int[] PRODUCT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.DECIMAL, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.BOOLEAN, Types.BOOLEAN, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private static final String INSERT_IMAGES = "INSERT INTO product_images (product_id, image_order, image_url) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Sets id, createdAt and updatedAt on each product. Call inside a transaction: the products and
+    // their images are two statements.
+    public void insert(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        insertProducts(products);
+        insertImages(products);
+    }
+
+    private void insertProducts(List<Product> products) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        List<Object> args = new ArrayList<>(products.size() * PRODUCT_TYPES.length);
+        int[] types = new int[products.size() * PRODUCT_TYPES.length];
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            Collections.addAll(args, product.getUserId(), product.getProductName(), product.getDescription(),
+                    product.getCategory(), product.getCondition(), product.getPrice(), product.getCurrency(),
+                    product.getCountry(), product.getCity(), product.getShopName(), product.getContactPhone(),
+                    product.getQuantity(), product.getShippingAvailable(), product.getLocalPickup(),
+                    product.getVideoUrl(), timestamp, timestamp);
+            System.arraycopy(PRODUCT_TYPES, 0, types, i * PRODUCT_TYPES.length, PRODUCT_TYPES.length);
+        }
+
+        String sql = INSERT_PRODUCTS + String.join(", ", Collections.nCopies(products.size(), PRODUCT_ROW));
+        PreparedStatementCreatorFactory factory = new PreparedStatementCreatorFactory(sql, types);
+        factory.setGeneratedKeysColumnNames("id");
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(factory.newPreparedStatementCreator(args), keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != products.size()) {
+            throw new IncorrectResultSizeDataAccessException("Generated keys for product batch",
+                    products.size(), generated.size());
+        }
+        for (int i = 0; i < products.size(); i++) {
+            // MySQL labels the key GENERATED_KEY, H2 ID; each row holds just the one value
+            Number id = (Number) generated.get(i).values().iterator().next();
+            Product product = products.get(i);
+            product.setId(id.longValue());
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+        }
+    }
+
+    private void insertImages(List<Product> products) {
+        List<Object> args = new ArrayList<>();
+        int rows = 0;
+        for (Product product : products) {
+            List<String> images = product.getImages();
+            for (int order = 0; order < images.size(); order++) {
+                Collections.addAll(args, product.getId(), order, images.get(order));
+                if (++rows == IMAGE_ROWS_PER_STATEMENT) {
+                    insertImageRows(args, rows);
+                    args.clear();
+                    rows = 0;
+                }
+            }
+        }
+        if (rows > 0) {
+            insertImageRows(args, rows);
+        }
+    }
+
+    private void insertImageRows(List<Object> args, int rows) {
+        String sql = INSERT_IMAGES + String.join(", ", Collections.nCopies(rows, "(?, ?, ?)"));
+        jdbcTemplate.update(sql, args.toArray());
+    }
+}
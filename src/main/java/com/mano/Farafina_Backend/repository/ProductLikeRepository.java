@@ -0,0 +1,106 @@
+package com.mano.Farafina_Backend.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// product_likes is not a JPA entity; all access goes through these single-statement queries
+@Repository
+public class ProductLikeRepository implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLikeRepository.class);
+
+    static final String UNIQUE_KEY = "uk_product_likes_product_user";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProductLikeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ---------------- LIKE / UNLIKE ----------------
+    // Idempotent: the unique (product_id, user_id) key turns a repeated like into a no-op,
+    // so concurrent double-taps cannot create duplicates. True only for the call that inserted.
+    // Unlike INSERT IGNORE, any other error (missing column value, bad data) still fails the statement.
+    // The update count cannot tell the two apart (Connector/J reports found rows, 1 either way); only an
+    // insert generates a key.
+    public boolean insertIfAbsent(Long productId, Long userId) {
+        String sql = "INSERT INTO product_likes (product_id, user_id, liked_at) VALUES (?, ?, NOW()) " +
+                "ON DUPLICATE KEY UPDATE id = id";
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
+            ps.setObject(1, productId);
+            ps.setObject(2, userId);
+            return ps;
+        }, keyHolder);
+        return !keyHolder.getKeyList().isEmpty();
+    }
+
+    public boolean delete(Long productId, Long userId) {
+        String sql = "DELETE FROM product_likes WHERE product_id = ? AND user_id = ?";
+        return jdbcTemplate.update(sql, productId, userId) > 0;
+    }
+
+    // ---------------- BULK CHECK ----------------
+    // Which of the given products the user has liked, in one query
+    public List<Long> findLikedProductIds(Long userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        String sql = "SELECT product_id FROM product_likes WHERE user_id = ? AND product_id IN (" + placeholders + ")";
+
+        List<Object> args = new ArrayList<>(productIds.size() + 1);
+        args.add(userId);
+        args.addAll(productIds);
+        return jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+    }
+
+    // ---------------- SCHEMA ----------------
+    // The key is added by db/migration/V1__product_likes_unique_key.sql, run once by hand; startup only
+    // checks for it, since without it repeated likes insert duplicates
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            if (!hasUniqueKey()) {
+                log.warn("product_likes has no {}: run db/migration/V1__product_likes_unique_key.sql", UNIQUE_KEY);
+            }
+        } catch (Exception e) {
+            log.warn("Could not check for {}: {}", UNIQUE_KEY, e.getMessage());
+        }
+    }
+
+    boolean hasUniqueKey() {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : List.of("product_likes", "PRODUCT_LIKES")) {
+                try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, table, true, true)) {
+                    while (rs.next()) {
+                        String name = rs.getString("INDEX_NAME");
+                        if (name != null && name.toLowerCase().startsWith(UNIQUE_KEY)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,18 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Criteria queries that Spring Data's derived/fluent methods cannot express (mixed into ProductRepository)
+public interface ProductQueryRepository {
+
+    // Ids of every product matching the specification, without loading the entities
+    List<Long> findIds(Specification<Product> specification);
+
+    // Listing rows: one projection query plus one batched first-image query for the whole page
+    List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, int limit);
+}
@@ -0,0 +1,94 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductQueryRepositoryImpl implements ProductQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIds(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<Product> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductSummary.class,
+                root.get("id"),
+                root.get("productName"),
+                root.get("price"),
+                root.get("currency"),
+                root.get("city"),
+                root.get("likesCount"),
+                root.get("commentsCount"),
+                root.get("createdAt")));
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<ProductSummary> summaries = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        attachFirstImages(summaries);
+        return summaries;
+    }
+
+    private void attachFirstImages(List<ProductSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (ProductSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+            ids.add(summary.getId());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT product_id, image_url FROM product_images " +
+                                "WHERE image_order = 0 AND product_id IN (:ids)")
+                .setParameter("ids", ids)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            ProductSummary summary = byId.get(((Number) row[0]).longValue());
+            if (summary != null) {
+                summary.setImage((String) row[1]);
+            }
+        }
+    }
+}
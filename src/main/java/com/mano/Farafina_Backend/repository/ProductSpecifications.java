@@ -0,0 +1,105 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.dto.ProductCursor;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class ProductSpecifications {
+
+    // Listing order shared by every paginated endpoint; must match the keyset predicate below
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private ProductSpecifications() {
+    }
+
+    // ---------------- SIMPLE FILTERS ----------------
+    public static Specification<Product> hasUserId(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Product> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Product> hasCountry(String country) {
+        return (root, query, cb) -> cb.equal(root.get("country"), country);
+    }
+
+    public static Specification<Product> hasCity(String city) {
+        return (root, query, cb) -> cb.equal(root.get("city"), city);
+    }
+
+    public static Specification<Product> hasCondition(String condition) {
+        return (root, query, cb) -> cb.equal(root.get("condition"), condition);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    // ---------------- COMBINED FILTER ----------------
+    // ANDs every attribute set on the filter into one WHERE clause. Equality columns come first so
+    // MySQL can seek the composite (..., created_at, id) indexes declared on Product.
+    public static Specification<Product> matching(ProductFilter filter) {
+        List<Specification<Product>> conditions = new ArrayList<>();
+        if (filter.getCategory() != null) {
+            conditions.add(hasCategory(filter.getCategory()));
+        }
+        if (filter.getCountry() != null) {
+            conditions.add(hasCountry(filter.getCountry()));
+        }
+        if (filter.getCity() != null) {
+            conditions.add(hasCity(filter.getCity()));
+        }
+        if (filter.getCondition() != null) {
+            conditions.add(hasCondition(filter.getCondition()));
+        }
+        if (filter.getMinPrice() != null) {
+            conditions.add(priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            conditions.add(priceAtMost(filter.getMaxPrice()));
+        }
+        return Specification.allOf(conditions);
+    }
+
+    // ---------------- KEYWORD ----------------
+    public static Specification<Product> matchesKeyword(String keyword) {
+        return (root, query, cb) -> {
+            String pattern = "%" + keyword.toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("productName")), pattern),
+                    cb.like(cb.lower(root.get("description")), pattern),
+                    cb.like(cb.lower(root.get("category")), pattern),
+                    cb.like(cb.lower(root.get("shopName")), pattern)
+            );
+        };
+    }
+
+    // ---------------- KEYSET ----------------
+    // Rows strictly after the cursor in NEWEST_FIRST order
+    public static Specification<Product> after(ProductCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                cb.and(
+                        cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId())
+                )
+        );
+    }
+}
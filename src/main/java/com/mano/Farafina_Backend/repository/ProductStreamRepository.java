@@ -0,0 +1,92 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Forward-only, fetch-size bounded reads for the streaming listing. Rows are handed to the consumer
+// as they arrive so memory stays constant regardless of how many products match.
+@Repository
+public class ProductStreamRepository {
+
+    // Connector/J streams a forward-only, read-only result row by row only for this fetch size
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    @Autowired
+    public ProductStreamRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${farafina.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    public void streamSummaries(ProductFilter filter, Consumer<ProductSummary> consumer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.id, p.product_name, p.price, p.currency, p.city, p.likes_count, p.comments_count, " +
+                        "p.created_at, pi.image_url " +
+                        "FROM products p " +
+                        "LEFT JOIN product_images pi ON pi.product_id = p.id AND pi.image_order = 0 " +
+                        "WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        appendEquals(sql, args, "p.category", filter.getCategory());
+        appendEquals(sql, args, "p.country", filter.getCountry());
+        appendEquals(sql, args, "p.city", filter.getCity());
+        appendEquals(sql, args, "p.product_condition", filter.getCondition());
+        if (filter.getMinPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            args.add(filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            args.add(filter.getMaxPrice());
+        }
+        sql.append(" ORDER BY p.created_at DESC, p.id DESC");
+
+        String query = sql.toString();
+        jdbcTemplate.query(con -> prepareStreaming(con, query, args.toArray()), rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            ProductSummary summary = new ProductSummary(
+                    rs.getLong("id"),
+                    rs.getString("product_name"),
+                    rs.getBigDecimal("price"),
+                    rs.getString("currency"),
+                    rs.getString("city"),
+                    rs.getInt("likes_count"),
+                    rs.getInt("comments_count"),
+                    createdAt != null ? createdAt.toLocalDateTime() : null);
+            summary.setImage(rs.getString("image_url"));
+            consumer.accept(summary);
+        });
+    }
+
+    // Only this statement streams; the rest of the pool keeps MySQL's default fully buffered results
+    private PreparedStatement prepareStreaming(Connection con, String sql, Object[] args) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        ps.setFetchSize(mysql ? MYSQL_STREAMING_FETCH_SIZE : fetchSize);
+        new ArgumentPreparedStatementSetter(args).setValues(ps);
+        return ps;
+    }
+
+    private static void appendEquals(StringBuilder sql, List<Object> args, String column, String value) {
+        if (value != null) {
+            sql.append(" AND ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+}
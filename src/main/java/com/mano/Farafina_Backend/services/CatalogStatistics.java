@@ -0,0 +1,240 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Catalog counts for /api/products/stats. Loaded with one GROUP BY pass, then adjusted in memory on
+// every product write; readers get a prebuilt immutable snapshot.
+@Component
+public class CatalogStatistics {
+
+    private static final int TOP_N = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long total;
+    private final Map<String, Long> byCondition = new HashMap<>();
+    private final Map<String, Long> byCategory = new HashMap<>();
+    private final Map<String, Long> byCountry = new HashMap<>();
+    private final Map<String, Long> byCity = new HashMap<>();
+
+    private volatile Map<String, Object> snapshot = Collections.emptyMap();
+
+    // Adjustments made while reload() runs its GROUP BY, replayed onto the loaded counts so a write the
+    // query missed is not lost. A write committed just before the query started can be counted twice;
+    // the next reload corrects it. Null when no reload is running; guarded by lock.
+    private List<Map.Entry<Facets, Long>> adjustedDuringReload;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    @Autowired
+    public CatalogStatistics(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ---------------- LOAD ----------------
+    // Also re-run periodically to absorb writes made outside this instance
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${farafina.stats.refresh-interval:PT10M}",
+            fixedDelayString = "${farafina.stats.refresh-interval:PT10M}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            lock.lock();
+            try {
+                adjustedDuringReload = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            load();
+        } finally {
+            lock.lock();
+            try {
+                adjustedDuringReload = null;
+            } finally {
+                lock.unlock();
+            }
+            reloadLock.unlock();
+        }
+    }
+
+    private void load() {
+        Map<String, Long> conditions = new HashMap<>();
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> countries = new HashMap<>();
+        Map<String, Long> cities = new HashMap<>();
+        long[] count = {0};
+
+        String sql = "SELECT category, product_condition, country, city, COUNT(*) AS total " +
+                "FROM products GROUP BY category, product_condition, country, city";
+        jdbcTemplate.query(sql, rs -> {
+            long rows = rs.getLong("total");
+            count[0] += rows;
+            increment(conditions, rs.getString("product_condition"), rows);
+            increment(categories, rs.getString("category"), rows);
+            increment(countries, rs.getString("country"), rows);
+            increment(cities, rs.getString("city"), rows);
+        });
+
+        lock.lock();
+        try {
+            total = count[0];
+            replace(byCondition, conditions);
+            replace(byCategory, categories);
+            replace(byCountry, countries);
+            replace(byCity, cities);
+            List<Map.Entry<Facets, Long>> adjusted = adjustedDuringReload;
+            adjustedDuringReload = null;
+            for (Map.Entry<Facets, Long> adjustment : adjusted) {
+                adjust(adjustment.getKey(), adjustment.getValue());
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---------------- READ ----------------
+    public Map<String, Object> snapshot() {
+        return snapshot;
+    }
+
+    // ---------------- INCREMENTAL UPDATES ----------------
+    public void onCreated(Product product) {
+        apply(Facets.of(product), 1);
+    }
+
+    // Bulk imports: one snapshot rebuild per batch instead of per product
+    public void onCreated(Collection<Product> products) {
+        lock.lock();
+        try {
+            for (Product product : products) {
+                adjust(Facets.of(product), 1);
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onUpdated(Facets before, Product after) {
+        Facets now = Facets.of(after);
+        if (!now.equals(before)) {
+            lock.lock();
+            try {
+                adjust(before, -1);
+                adjust(now, 1);
+                publish();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public void onDeleted(Product product) {
+        apply(Facets.of(product), -1);
+    }
+
+    private void apply(Facets facets, long delta) {
+        lock.lock();
+        try {
+            adjust(facets, delta);
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(Facets facets, long delta) {
+        if (adjustedDuringReload != null) {
+            adjustedDuringReload.add(Map.entry(facets, delta));
+        }
+        total += delta;
+        increment(byCondition, facets.condition, delta);
+        increment(byCategory, facets.category, delta);
+        increment(byCountry, facets.country, delta);
+        increment(byCity, facets.city, delta);
+    }
+
+    // Builds the response map once per write so reads are a volatile load
+    private void publish() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", total);
+        stats.put("newProducts", byCondition.getOrDefault("New", 0L));
+        stats.put("usedProducts", byCondition.getOrDefault("Second Hand", 0L));
+        stats.put("byCondition", Map.copyOf(byCondition));
+        stats.put("byCategory", Map.copyOf(byCategory));
+        stats.put("topCountries", top(byCountry));
+        stats.put("topCities", top(byCity));
+        snapshot = Collections.unmodifiableMap(stats);
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(TOP_N, entries.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(top);
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long delta) {
+        if (key == null) {
+            return;
+        }
+        // Drop keys that reach zero so the maps only list values still in the catalog
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static void replace(Map<String, Long> target, Map<String, Long> source) {
+        target.clear();
+        target.putAll(source);
+    }
+
+    // The product attributes the statistics are grouped by
+    public static final class Facets {
+
+        private final String category;
+        private final String condition;
+        private final String country;
+        private final String city;
+
+        private Facets(String category, String condition, String country, String city) {
+            this.category = category;
+            this.condition = condition;
+            this.country = country;
+            this.city = city;
+        }
+
+        public static Facets of(Product product) {
+            return new Facets(product.getCategory(), product.getCondition(), product.getCountry(), product.getCity());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Facets other)) {
+                return false;
+            }
+            return Objects.equals(category, other.category) && Objects.equals(condition, other.condition)
+                    && Objects.equals(country, other.country) && Objects.equals(city, other.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, condition, country, city);
+        }
+    }
+}
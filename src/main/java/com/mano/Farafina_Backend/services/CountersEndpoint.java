@@ -0,0 +1,34 @@
+package com.mano.Farafina_Backend.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Admin-only (see SecurityConfig):
+//   POST /actuator/counters     recount likes_count / comments_count for every product
+@Component
+@WebEndpoint(id = "counters")
+public class CountersEndpoint {
+
+    private final InteractionCounters interactionCounters;
+
+    @Autowired
+    public CountersEndpoint(InteractionCounters interactionCounters) {
+        this.interactionCounters = interactionCounters;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reconcile() {
+        long start = System.currentTimeMillis();
+        int products = interactionCounters.reconcile();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("products", products);
+        response.put("millis", System.currentTimeMillis() - start);
+        return response;
+    }
+}
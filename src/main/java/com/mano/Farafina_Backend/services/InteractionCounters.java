@@ -0,0 +1,191 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.config.CacheConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind likes_count / comments_count. Clicks only bump a striped in-memory delta; a scheduled
+// flush recounts every product with pending deltas in one batched UPDATE per interval. The UPDATE sets
+// the columns from product_likes / product_comments rather than adding the deltas, so a flush that
+// fails after its commit (or is retried for any reason) cannot count the same clicks twice.
+@Component
+public class InteractionCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(InteractionCounters.class);
+
+    private static final String FLUSH_SQL = "UPDATE products SET " +
+            "likes_count = (SELECT COUNT(*) FROM product_likes pl WHERE pl.product_id = products.id), " +
+            "comments_count = (SELECT COUNT(*) FROM product_comments pc WHERE pc.product_id = products.id) " +
+            "WHERE id = ?";
+
+    private static final String RECONCILE_SQL = "UPDATE products SET " +
+            "likes_count = (SELECT COUNT(*) FROM product_likes pl WHERE pl.product_id = products.id), " +
+            "comments_count = (SELECT COUNT(*) FROM product_comments pc WHERE pc.product_id = products.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    // Only products with clicks since the last flush have an entry; the flush removes adders that are back
+    // to zero, so the maps and the flush scan grow with recent activity, not with catalog history
+    private final Map<Long, LongAdder> likeDeltas = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> commentDeltas = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public InteractionCounters(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    // ---------------- RECORD ----------------
+    public void recordLike(Long productId, int delta) {
+        record(likeDeltas, productId, delta);
+    }
+
+    public void recordComment(Long productId, int delta) {
+        record(commentDeltas, productId, delta);
+    }
+
+    // Not yet flushed; add to the stored column to get the live count. Clicks that land while a flush
+    // runs can be counted both here and in the column until the next flush.
+    public long pendingLikes(Long productId) {
+        LongAdder adder = likeDeltas.get(productId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public long pendingComments(Long productId) {
+        LongAdder adder = commentDeltas.get(productId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    // ---------------- FLUSH ----------------
+    @Scheduled(fixedDelayString = "${farafina.counters.flush-interval:PT5S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Set<Long> productIds = new HashSet<>();
+            collectPending(likeDeltas, productIds);
+            collectPending(commentDeltas, productIds);
+            if (productIds.isEmpty()) {
+                return;
+            }
+
+            // Read the deltas before the recount so every click they include is already in the source tables
+            List<Long> ids = new ArrayList<>(productIds);
+            List<Object[]> batch = new ArrayList<>(ids.size());
+            long[] likes = new long[ids.size()];
+            long[] comments = new long[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                likes[i] = pendingLikes(ids.get(i));
+                comments[i] = pendingComments(ids.get(i));
+                batch.add(new Object[]{ids.get(i)});
+            }
+
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+
+            // Subtract exactly what was read; clicks recorded since stay pending
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+            for (int i = 0; i < ids.size(); i++) {
+                subtract(likeDeltas, ids.get(i), likes[i]);
+                subtract(commentDeltas, ids.get(i), comments[i]);
+                if (cache != null) {
+                    cache.evict(ids.get(i));
+                }
+            }
+        } catch (Exception e) {
+            // Deltas were not subtracted, so the next flush recounts these products again
+            log.warn("Interaction counter flush failed, retrying next interval", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ---------------- RECONCILE ----------------
+    // Recomputes both columns for every product, for products whose counts drifted without a click to
+    // trigger a flush (a crash before their flush, writes that bypassed this service). It rewrites the
+    // whole table, so it runs only on demand through POST /actuator/counters. Returns the rows updated.
+    public int reconcile() {
+        flushLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            int rows = jdbcTemplate.update(RECONCILE_SQL);
+            log.info("Interaction counters reconciled for {} products in {} ms", rows,
+                    System.currentTimeMillis() - start);
+            Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+            if (cache != null) {
+                cache.clear();
+            }
+            return rows;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // A writer may add to an adder just as the flush removes it. Whichever side sees the removal moves
+    // what is left to the live adder; sumThenReset hands each added unit to exactly one of them.
+    private static void record(Map<Long, LongAdder> deltas, Long productId, long delta) {
+        LongAdder adder = deltas.computeIfAbsent(productId, id -> new LongAdder());
+        adder.add(delta);
+        if (deltas.get(productId) != adder) {
+            moveLeftover(deltas, productId, adder);
+        }
+    }
+
+    private static void moveLeftover(Map<Long, LongAdder> deltas, Long productId, LongAdder removed) {
+        long leftover = removed.sumThenReset();
+        if (leftover != 0) {
+            record(deltas, productId, leftover);
+        }
+    }
+
+    private static void removeIfSettled(Map<Long, LongAdder> deltas, Long productId, LongAdder adder) {
+        if (adder.sum() == 0 && deltas.remove(productId, adder)) {
+            moveLeftover(deltas, productId, adder);
+        }
+    }
+
+    // Entries that cancelled out (a like then an unlike) are dropped here rather than flushed
+    private static void collectPending(Map<Long, LongAdder> deltas, Set<Long> productIds) {
+        deltas.forEach((productId, adder) -> {
+            if (adder.sum() != 0) {
+                productIds.add(productId);
+            } else {
+                removeIfSettled(deltas, productId, adder);
+            }
+        });
+    }
+
+    // Only the flush removes entries, and it holds flushLock, so a collected product still has its adder
+    private static void subtract(Map<Long, LongAdder> deltas, Long productId, long flushed) {
+        LongAdder adder = deltas.get(productId);
+        if (adder == null) {
+            return;
+        }
+        if (flushed != 0) {
+            adder.add(-flushed);
+        }
+        removeIfSettled(deltas, productId, adder);
+    }
+}
@@ -1,27 +1,65 @@
 package com.mano.Farafina_Backend.services;
 
+import com.mano.Farafina_Backend.config.CacheConfig;
+import com.mano.Farafina_Backend.dto.CursorPage;
+import com.mano.Farafina_Backend.dto.ProductCursor;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.dto.SearchCursor;
 import com.mano.Farafina_Backend.entity.Product;
+import com.mano.Farafina_Backend.repository.ProductLikeRepository;
 import com.mano.Farafina_Backend.repository.ProductRepository;
+import com.mano.Farafina_Backend.repository.ProductStreamRepository;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import com.mano.Farafina_Backend.services.search.SearchHit;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+
+import static com.mano.Farafina_Backend.repository.ProductSpecifications.*;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogStatistics catalogStatistics;
+    private final InteractionCounters interactionCounters;
+    private final ProductLikeRepository productLikeRepository;
+    private final ProductStreamRepository productStreamRepository;
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Value("${farafina.pagination.default-limit:20}")
+    private int defaultPageSize;
+
+    @Value("${farafina.pagination.max-limit:100}")
+    private int maxPageSize;
+
+    @Value("${farafina.search.max-candidates:1000}")
+    private int maxSearchCandidates;
+
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex searchIndex,
+                          CatalogStatistics catalogStatistics, InteractionCounters interactionCounters,
+                          ProductLikeRepository productLikeRepository,
+                          ProductStreamRepository productStreamRepository) {
         this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.catalogStatistics = catalogStatistics;
+        this.interactionCounters = interactionCounters;
+        this.productLikeRepository = productLikeRepository;
+        this.productStreamRepository = productStreamRepository;
     }
 
     // ---------------- CREATE PRODUCT ----------------
@@ -31,72 +69,165 @@ public class ProductService {
         product.setCreatedAt(now);
         product.setUpdatedAt(now);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        searchIndex.index(saved);
+        catalogStatistics.onCreated(saved);
+        return saved;
     }
 
     // ---------------- GET ALL PRODUCTS ----------------
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public CursorPage<ProductSummary> getAllProducts(String cursor, Integer limit) {
+        return findPage(null, cursor, limit);
     }
 
     // ---------------- GET PRODUCT BY ID ----------------
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
     // ---------------- GET PRODUCTS BY USER ----------------
-    public List<Product> getProductsByUserId(Long userId) {
-        return productRepository.findByUserId(userId);
+    public CursorPage<ProductSummary> getProductsByUserId(Long userId, String cursor, Integer limit) {
+        return findPage(hasUserId(userId), cursor, limit);
     }
 
     // ---------------- GET PRODUCTS BY CATEGORY ----------------
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    public CursorPage<ProductSummary> getProductsByCategory(String category, String cursor, Integer limit) {
+        return findPage(hasCategory(category), cursor, limit);
     }
 
     // ---------------- GET PRODUCTS BY CONDITION ----------------
-    public List<Product> getProductsByCondition(String condition) {
-        return productRepository.findByCondition(condition);
+    public CursorPage<ProductSummary> getProductsByCondition(String condition, String cursor, Integer limit) {
+        return findPage(hasCondition(condition), cursor, limit);
     }
 
     // ---------------- SEARCH PRODUCTS ----------------
-    public List<Product> searchProducts(String category, String country, String city,
-                                        String condition, String search) {
-        if (search != null && !search.trim().isEmpty()) {
-            return productRepository.searchByKeyword(search);
+    // Any combination of filters becomes one query; a keyword is ranked by the in-memory index
+    // and then narrowed by the remaining filters in a single id lookup
+    public CursorPage<ProductSummary> searchProducts(ProductFilter filter, String cursor, Integer limit) {
+        if (filter.hasKeyword() && searchIndex.isReady()) {
+            return searchRanked(filter, cursor, limit);
         }
 
-        if (category != null && country != null && city != null) {
-            return productRepository.findByCategoryAndCountryAndCity(category, country, city);
+        Specification<Product> specification = matching(filter);
+        if (filter.hasKeyword()) {
+            // Index still building: fall back to the LIKE scan
+            specification = specification.and(matchesKeyword(filter.getKeyword().trim()));
         }
+        return findPage(specification, cursor, limit);
+    }
 
-        if (category != null && country != null) {
-            return productRepository.findByCategoryAndCountry(category, country);
+    private CursorPage<ProductSummary> searchRanked(ProductFilter filter, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+
+        List<SearchHit> hits;
+        SearchHit resumeAfter = null;
+        if (filter.hasAttributeFilters()) {
+            // Rank a bounded candidate set, then keep only the ids that also pass the filters. One hit past the
+            // window is fetched only to learn whether the index has more.
+            List<SearchHit> ranked = searchIndex.search(filter.getKeyword(), after, maxSearchCandidates + 1);
+            boolean moreRanked = ranked.size() > maxSearchCandidates;
+            List<SearchHit> candidates = moreRanked ? ranked.subList(0, maxSearchCandidates) : ranked;
+            List<Long> candidateIds = new ArrayList<>();
+            for (SearchHit hit : candidates) {
+                candidateIds.add(hit.getProductId());
+            }
+            Set<Long> allowed = candidateIds.isEmpty()
+                    ? Collections.emptySet()
+                    : new HashSet<>(productRepository.findIds(matching(filter).and(idIn(candidateIds))));
+
+            hits = new ArrayList<>();
+            for (SearchHit hit : candidates) {
+                if (allowed.contains(hit.getProductId())) {
+                    hits.add(hit);
+                    if (hits.size() > pageSize) {
+                        break;
+                    }
+                }
+            }
+            // Candidate window exhausted before the page filled, with hits left after it: continue from its
+            // last hit next time
+            if (hits.size() <= pageSize && moreRanked) {
+                resumeAfter = candidates.get(candidates.size() - 1);
+            }
+        } else {
+            hits = searchIndex.search(filter.getKeyword(), after, pageSize + 1);
         }
 
-        if (category != null) {
-            return productRepository.findByCategory(category);
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            resumeAfter = hits.get(pageSize - 1);
         }
 
-        if (country != null && city != null) {
-            return productRepository.findByCountryAndCity(country, city);
+        List<Long> ids = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            ids.add(hit.getProductId());
+        }
+        Map<Long, ProductSummary> productsById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (ProductSummary product : productRepository.findSummaries(idIn(ids), NEWEST_FIRST, ids.size())) {
+                productsById.put(product.getId(), product);
+            }
         }
 
-        if (country != null) {
-            return productRepository.findByCountry(country);
+        // Keep the ranking order, not the query order
+        List<ProductSummary> products = new ArrayList<>();
+        for (Long id : ids) {
+            ProductSummary product = productsById.get(id);
+            if (product != null) {
+                products.add(product);
+            }
         }
 
-        if (condition != null) {
-            return productRepository.findByCondition(condition);
+        String nextCursor = resumeAfter != null
+                ? new SearchCursor(resumeAfter.getScore(), resumeAfter.getProductId()).encode()
+                : null;
+        return new CursorPage<>(products, nextCursor);
+    }
+
+    // ---------------- STREAM PRODUCTS ----------------
+    public void streamProducts(ProductFilter filter, Consumer<ProductSummary> consumer) {
+        productStreamRepository.streamSummaries(filter, consumer);
+    }
+
+    // ---------------- KEYSET PAGINATION ----------------
+    // Seeks past the cursor on (created_at, id) instead of using OFFSET, so deep pages cost the same as the first
+    private CursorPage<ProductSummary> findPage(Specification<Product> filter, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+
+        List<Specification<Product>> conditions = new ArrayList<>();
+        if (filter != null) {
+            conditions.add(filter);
         }
+        if (cursor != null && !cursor.isBlank()) {
+            conditions.add(after(ProductCursor.decode(cursor)));
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<ProductSummary> rows = productRepository.findSummaries(Specification.allOf(conditions),
+                NEWEST_FIRST, pageSize + 1);
 
-        return productRepository.findAll();
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ProductSummary> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new CursorPage<>(page, ProductCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
     }
 
     // ---------------- UPDATE PRODUCT ----------------
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        CatalogStatistics.Facets before = CatalogStatistics.Facets.of(product);
 
         // Update only non-null fields
         if (productDetails.getProductName() != null) {
@@ -142,62 +273,35 @@ public class ProductService {
         // ✅ CRITICAL: Always update the updatedAt timestamp
         product.setUpdatedAt(LocalDateTime.now());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        searchIndex.index(saved);
+        catalogStatistics.onUpdated(before, saved);
+        return saved;
     }
 
     // ---------------- DELETE PRODUCT ----------------
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            searchIndex.remove(id);
+            catalogStatistics.onDeleted(product);
+        });
     }
 
     // ---------------- GET STATISTICS ----------------
     public Map<String, Object> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        // Total products
-        long totalProducts = productRepository.count();
-        stats.put("totalProducts", totalProducts);
-
-        // Count by condition
-        long newProducts = productRepository.countByCondition("New");
-        long usedProducts = productRepository.countByCondition("Second Hand");
-        stats.put("newProducts", newProducts);
-        stats.put("usedProducts", usedProducts);
-
-        // Count by category
-        Map<String, Long> categoryStats = new HashMap<>();
-        List<String> categories = Arrays.asList(
-                "Electronics", "Clothing", "Shoes", "Agriculture/Elevage/Peche",
-                "Sports", "Books", "Toys", "Automobile/Accessoires",
-                "Moto/Accessoire", "Home & Garden", "Foods", "Beverages",
-                "Quincaillerie", "House/Flats/Lands", "School Fournitures", "Jewelleries"
-        );
-
-        for (String category : categories) {
-            long count = productRepository.countByCategory(category);
-            if (count > 0) {
-                categoryStats.put(category, count);
-            }
-        }
-        stats.put("byCategory", categoryStats);
-
-        // Top countries
-        // Note: This would require a custom query, simplified version
-        stats.put("topCountries", new HashMap<>());
-
-        return stats;
+        return catalogStatistics.snapshot();
     }
 
     // ---------------- GET LATEST PRODUCTS ----------------
-    public List<Product> getLatestProducts(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return productRepository.findLatestProducts(pageable);
+    public List<ProductSummary> getLatestProducts(int limit) {
+        return productRepository.findSummaries(null, NEWEST_FIRST, resolvePageSize(limit));
     }
 
     // ---------------- GET RECENTLY UPDATED PRODUCTS ----------------
-    public List<Product> getRecentlyUpdatedProducts(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return productRepository.findRecentlyUpdated(pageable);
+    public List<ProductSummary> getRecentlyUpdatedProducts(int limit) {
+        return productRepository.findSummaries(null, Sort.by(Sort.Order.desc("updatedAt")), resolvePageSize(limit));
     }
 
     // ============ LIKES & COMMENTS METHODS ============
@@ -227,45 +331,44 @@ public class ProductService {
     }
 
     // Add a like to a product
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
     public boolean likeProduct(Long productId, Long userId) {
-        try {
-            // Check if like already exists
-            String checkSql = "SELECT COUNT(*) FROM product_likes WHERE product_id = ? AND user_id = ?";
-            Integer count = jdbcTemplate.queryForObject(checkSql, Integer.class, productId, userId);
-
-            if (count != null && count > 0) {
-                return false; // Already liked
-            }
-
-            // Add like
-            String sql = "INSERT INTO product_likes (product_id, user_id, liked_at) VALUES (?, ?, NOW())";
-            jdbcTemplate.update(sql, productId, userId);
-
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+        // Single idempotent insert; false only when the user already liked the product
+        boolean inserted = productLikeRepository.insertIfAbsent(productId, userId);
+        if (inserted) {
+            interactionCounters.recordLike(productId, 1);
         }
+        return inserted;
     }
 
     // Remove a like from a product
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
     public boolean unlikeProduct(Long productId, Long userId) {
-        try {
-            String sql = "DELETE FROM product_likes WHERE product_id = ? AND user_id = ?";
-            int rows = jdbcTemplate.update(sql, productId, userId);
-            return rows > 0;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
+        boolean removed = productLikeRepository.delete(productId, userId);
+        if (removed) {
+            interactionCounters.recordLike(productId, -1);
         }
+        return removed;
+    }
+
+    // Which of the given products a user has liked (feed heart state)
+    public Map<Long, Boolean> getLikedByUser(Long userId, List<Long> productIds) {
+        Set<Long> liked = new HashSet<>(productLikeRepository.findLikedProductIds(userId, productIds));
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, liked.contains(productId));
+        }
+        return result;
     }
 
     // Add a comment to a product
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
     public Map<String, Object> addComment(Long productId, Long userId, String comment) {
         try {
             String sql = "INSERT INTO product_comments (product_id, user_id, comment, commented_at) " +
                     "VALUES (?, ?, ?, NOW())";
             jdbcTemplate.update(sql, productId, userId, comment);
+            interactionCounters.recordComment(productId, 1);
 
             // Get the inserted comment
             String selectSql = "SELECT pc.id, pc.product_id, pc.user_id, pc.comment, " +
@@ -283,10 +386,12 @@ public class ProductService {
     }
 
     // Delete a comment
-    public boolean deleteComment(Long commentId) {
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#productId")
+    public boolean deleteComment(Long productId, Long commentId) {
         try {
-            String sql = "DELETE FROM product_comments WHERE id = ?";
-            int rows = jdbcTemplate.update(sql, commentId);
+            String sql = "DELETE FROM product_comments WHERE id = ? AND product_id = ?";
+            int rows = jdbcTemplate.update(sql, commentId, productId);
+            interactionCounters.recordComment(productId, -rows);
             return rows > 0;
         } catch (Exception e) {
             e.printStackTrace();
@@ -296,33 +401,68 @@ public class ProductService {
 
     // Get interaction statistics for a product
     public Map<String, Object> getProductInteractionStats(Long productId) {
-        Map<String, Object> stats = new HashMap<>();
+        return getProductInteractionStats(List.of(productId)).get(productId);
+    }
 
-        try {
-            // Count likes
-            String likesSql = "SELECT COUNT(*) FROM product_likes WHERE product_id = ?";
-            Integer likesCount = jdbcTemplate.queryForObject(likesSql, Integer.class, productId);
-            stats.put("likesCount", likesCount != null ? likesCount : 0);
-
-            // Count comments
-            String commentsSql = "SELECT COUNT(*) FROM product_comments WHERE product_id = ?";
-            Integer commentsCount = jdbcTemplate.queryForObject(commentsSql, Integer.class, productId);
-            stats.put("commentsCount", commentsCount != null ? commentsCount : 0);
-
-            // Get recent interactions
-            String recentSql = "SELECT 'like' as type, liked_at as timestamp FROM product_likes WHERE product_id = ? " +
-                    "UNION ALL " +
-                    "SELECT 'comment' as type, commented_at as timestamp FROM product_comments WHERE product_id = ? " +
-                    "ORDER BY timestamp DESC LIMIT 5";
-            List<Map<String, Object>> recentActivity = jdbcTemplate.queryForList(recentSql, productId, productId);
-            stats.put("recentActivity", recentActivity);
-        } catch (Exception e) {
-            e.printStackTrace();
-            stats.put("likesCount", 0);
-            stats.put("commentsCount", 0);
-            stats.put("recentActivity", new ArrayList<>());
+    // Get interaction statistics for many products (feed cards) with two queries in total
+    public Map<Long, Map<String, Object>> getProductInteractionStats(List<Long> productIds) {
+        Map<Long, Map<String, Object>> statsById = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("likesCount", 0L);
+            stats.put("commentsCount", 0L);
+            stats.put("recentActivity", new ArrayList<Map<String, Object>>());
+            statsById.put(productId, stats);
+        }
+        if (productIds.isEmpty()) {
+            return statsById;
         }
 
-        return stats;
+        String in = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        Object[] ids = productIds.toArray();
+
+        // Stored counters plus whatever has not been flushed yet
+        String countsSql = "SELECT id, likes_count, comments_count FROM products WHERE id IN (" + in + ")";
+        Map<Long, long[]> stored = new HashMap<>();
+        jdbcTemplate.query(countsSql, rs -> {
+            stored.put(rs.getLong("id"), new long[]{rs.getLong("likes_count"), rs.getLong("comments_count")});
+        }, ids);
+        for (Map.Entry<Long, Map<String, Object>> entry : statsById.entrySet()) {
+            Long productId = entry.getKey();
+            long[] counts = stored.getOrDefault(productId, new long[2]);
+            long likesCount = counts[0] + interactionCounters.pendingLikes(productId);
+            long commentsCount = counts[1] + interactionCounters.pendingComments(productId);
+            entry.getValue().put("likesCount", Math.max(likesCount, 0));
+            entry.getValue().put("commentsCount", Math.max(commentsCount, 0));
+        }
+
+        // Latest 5 likes/comments per product, ranked in SQL
+        String recentSql = "SELECT product_id, type, timestamp FROM (" +
+                "SELECT product_id, type, timestamp, " +
+                "ROW_NUMBER() OVER (PARTITION BY product_id ORDER BY timestamp DESC) AS activity_rank FROM (" +
+                "SELECT product_id, 'like' as type, liked_at as timestamp FROM product_likes WHERE product_id IN (" + in + ") " +
+                "UNION ALL " +
+                "SELECT product_id, 'comment' as type, commented_at as timestamp FROM product_comments WHERE product_id IN (" + in + ")" +
+                ") activity) ranked WHERE activity_rank <= 5 ORDER BY product_id, timestamp DESC";
+        Object[] args = new Object[ids.length * 2];
+        System.arraycopy(ids, 0, args, 0, ids.length);
+        System.arraycopy(ids, 0, args, ids.length, ids.length);
+        for (Map<String, Object> row : jdbcTemplate.queryForList(recentSql, args)) {
+            Map<String, Object> stats = statsById.get(toLong(row.get("product_id")));
+            if (stats != null) {
+                Map<String, Object> activity = new LinkedHashMap<>();
+                activity.put("type", row.get("type"));
+                activity.put("timestamp", row.get("timestamp"));
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> recentActivity = (List<Map<String, Object>>) stats.get("recentActivity");
+                recentActivity.add(activity);
+            }
+        }
+
+        return statsById;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.services.storage.UploadTooLargeException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Streams an InputStream into S3 as a multipart upload. Parts are read sequentially and uploaded
+// concurrently; at most `parallelism` parts per upload are in flight, so memory per upload is bounded
+// by (parallelism + 1) * partSize no matter how large the object is. Bytes are counted as parts are
+// read and the upload is aborted as soon as the caller's cap is crossed.
+@Component
+@ConditionalOnProperty(name = "farafina.storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3MultipartUploader {
+
+    private static final Logger log = LoggerFactory.getLogger(S3MultipartUploader.class);
+
+    // S3 rejects non-final parts smaller than 5 MB and uploads of more than 10,000 parts
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+    // Parts are byte[] buffers
+    private static final long MAX_PART_SIZE = Integer.MAX_VALUE - 8;
+    // Copied parts are ranges S3 copies itself, so they can be much larger than buffered ones
+    private static final long COPY_PART_SIZE = 512L * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final int partSize;
+    private final int parallelism;
+    private final ExecutorService partExecutor;
+    // Caps part uploads across all uploads (S3 connections in use); with platform threads the pool
+    // size already does this, with virtual threads this is the only bound
+    private final Semaphore partPermits;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Autowired
+    public S3MultipartUploader(S3Client s3Client,
+                               @Value("${aws.s3.multipart.part-size:8MB}") DataSize partSize,
+                               @Value("${aws.s3.multipart.parallelism:4}") int parallelism,
+                               @Value("${aws.s3.multipart.max-concurrent-parts:16}") int maxConcurrentParts,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.s3Client = s3Client;
+        this.partSize = (int) Math.max(partSize.toBytes(), MIN_PART_SIZE);
+        this.parallelism = Math.max(parallelism, 1);
+        this.partPermits = new Semaphore(Math.max(maxConcurrentParts, 1));
+
+        // Shared by all uploads; the per-upload semaphore is what bounds buffers. Part uploads just
+        // block on the network, so in virtual-thread mode each one gets its own virtual thread.
+        if (virtualThreads) {
+            this.partExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-part-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.partExecutor = Executors.newFixedThreadPool(Math.max(maxConcurrentParts, 1), runnable -> {
+                Thread thread = new Thread(runnable, "s3-part-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    // Returns the number of bytes uploaded. More than maxBytes aborts the upload with UploadTooLargeException.
+    public long upload(String key, String contentType, InputStream input, long maxBytes) throws IOException {
+        int uploadPartSize = partSizeFor(maxBytes);
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        long totalBytes = 0;
+        try {
+            for (int partNumber = 1; ; partNumber++) {
+                inFlight.acquire();
+                if (anyFailed(parts)) {
+                    inFlight.release();
+                    break;
+                }
+
+                byte[] buffer = input.readNBytes(uploadPartSize);
+                if (buffer.length == 0 && partNumber > 1) {
+                    inFlight.release();
+                    break;
+                }
+                totalBytes += buffer.length;
+                if (totalBytes > maxBytes) {
+                    inFlight.release();
+                    throw new UploadTooLargeException(maxBytes);
+                }
+                if (partNumber > MAX_PARTS) {
+                    inFlight.release();
+                    throw new IOException("Multipart upload has more than " + MAX_PARTS + " parts: " + key);
+                }
+
+                int number = partNumber;
+                parts.add(CompletableFuture
+                        .supplyAsync(() -> uploadPart(key, uploadId, number, buffer), partExecutor)
+                        .whenComplete((part, error) -> inFlight.release()));
+
+                if (buffer.length < uploadPartSize) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+            return totalBytes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortAfter(parts, key, uploadId);
+            throw new IOException("Multipart upload interrupted: " + key, e);
+        } catch (CompletionException e) {
+            abortAfter(parts, key, uploadId);
+            throw new IOException("Multipart upload failed: " + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abortAfter(parts, key, uploadId);
+            throw e;
+        }
+    }
+
+    // Server-side multipart copy, for objects past the 5 GB a single CopyObject accepts. Nothing passes
+    // through us; each part is a byte range of the source, copied under the shared part permits.
+    public void copy(String sourceKey, String key, String contentType, long size) throws IOException {
+        long copyPartSize = Math.max(COPY_PART_SIZE, Math.ceilDiv(size, MAX_PARTS));
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build()).uploadId();
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        // Set on failure so parts still queued for a permit skip their copy
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            int partNumber = 1;
+            for (long start = 0; start < size; start += copyPartSize, partNumber++) {
+                int number = partNumber;
+                String range = "bytes=" + start + "-" + (Math.min(start + copyPartSize, size) - 1);
+                parts.add(CompletableFuture.supplyAsync(
+                        () -> copyPart(sourceKey, key, uploadId, number, range, failed), partExecutor));
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+        } catch (CompletionException e) {
+            failed.set(true);
+            abortAfter(parts, key, uploadId);
+            throw new IOException("Multipart copy failed: " + sourceKey + " -> " + key, e.getCause());
+        } catch (RuntimeException e) {
+            failed.set(true);
+            abortAfter(parts, key, uploadId);
+            throw e;
+        }
+    }
+
+    private CompletedPart copyPart(String sourceKey, String key, String uploadId, int partNumber, String range,
+                                   AtomicBoolean failed) {
+        partPermits.acquireUninterruptibly();
+        try {
+            if (failed.get()) {
+                throw new CancellationException("Multipart copy already failed: " + key);
+            }
+            UploadPartCopyResponse response = s3Client.uploadPartCopy(UploadPartCopyRequest.builder()
+                    .sourceBucket(bucketName)
+                    .sourceKey(sourceKey)
+                    .copySourceRange(range)
+                    .destinationBucket(bucketName)
+                    .destinationKey(key)
+                    .uploadId(uploadId)
+                    .partNumber(partNumber)
+                    .build());
+            return CompletedPart.builder().partNumber(partNumber).eTag(response.copyPartResult().eTag()).build();
+        } finally {
+            partPermits.release();
+        }
+    }
+
+    // Parts grow past the configured size when maxBytes would not fit in 10,000 of them
+    private int partSizeFor(long maxBytes) {
+        long needed = Math.ceilDiv(maxBytes, MAX_PARTS);
+        if (needed > MAX_PART_SIZE) {
+            throw new IllegalArgumentException("Streamed uploads are limited to " + MAX_PART_SIZE * MAX_PARTS + " bytes");
+        }
+        return (int) Math.max(partSize, needed);
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] buffer) {
+        partPermits.acquireUninterruptibly();
+        try {
+            return doUploadPart(key, uploadId, partNumber, buffer);
+        } finally {
+            partPermits.release();
+        }
+    }
+
+    private CompletedPart doUploadPart(String key, String uploadId, int partNumber, byte[] buffer) {
+        UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) buffer.length)
+                        .build(),
+                // Wrapping a stream avoids the defensive copy fromBytes() makes of every part
+                RequestBody.fromInputStream(new ByteArrayInputStream(buffer), buffer.length));
+        return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+    }
+
+    private static boolean anyFailed(List<CompletableFuture<CompletedPart>> parts) {
+        for (CompletableFuture<CompletedPart> part : parts) {
+            if (part.isCompletedExceptionally()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Abort only frees the parts that are not still uploading, so a part finishing after it would stay
+    // billed. Waits for every part to settle, whatever its outcome, before aborting.
+    private void abortAfter(List<CompletableFuture<CompletedPart>> parts, String key, String uploadId) {
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new)).handle((result, error) -> null).join();
+        abort(key, uploadId);
+    }
+
+    // Uploaded parts are billed until the upload is completed or aborted
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {} of {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdown();
+    }
+}
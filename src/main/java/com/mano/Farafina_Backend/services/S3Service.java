@@ -1,68 +1,340 @@
 package com.mano.Farafina_Backend.services;
 
+import com.mano.Farafina_Backend.dto.DirectUpload;
+import com.mano.Farafina_Backend.dto.UploadedImage;
+import com.mano.Farafina_Backend.entity.MediaObject;
+import com.mano.Farafina_Backend.services.media.ImagePipeline;
+import com.mano.Farafina_Backend.services.media.ImageVariant;
+import com.mano.Farafina_Backend.services.media.MediaIndex;
+import com.mano.Farafina_Backend.services.storage.PresignedUpload;
+import com.mano.Farafina_Backend.services.storage.StorageBackend;
+import com.mano.Farafina_Backend.services.storage.UploadTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.util.UUID;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.regex.Pattern;
 
 @Service
 public class S3Service {
 
-    private final S3Client s3Client;
+    private static final Logger log = LoggerFactory.getLogger(S3Service.class);
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
 
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    // S3 or local disk, depending on farafina.storage.backend
+    private final StorageBackend storage;
+    private final ImagePipeline imagePipeline;
+    private final MediaIndex mediaIndex;
+    private final UploadTokens uploadTokens;
 
-    @Value("${aws.s3.region}")
-    private String region;
+    @Value("${farafina.uploads.direct.ttl:PT15M}")
+    private Duration directUploadTtl;
+
+    @Value("${farafina.uploads.direct.max-size:100MB}")
+    private DataSize maxDirectUploadSize;
+
+    @Value("${farafina.uploads.stream.max-size:1GB}")
+    private DataSize maxStreamUploadSize;
 
     @Autowired
-    public S3Service(S3Client s3Client) {
-        this.s3Client = s3Client;
+    public S3Service(StorageBackend storage, ImagePipeline imagePipeline, MediaIndex mediaIndex,
+                     UploadTokens uploadTokens) {
+        this.storage = storage;
+        this.imagePipeline = imagePipeline;
+        this.mediaIndex = mediaIndex;
+        this.uploadTokens = uploadTokens;
     }
 
-    public String uploadImage(MultipartFile file) throws IOException {
-        String fileName = generateFileName(file, "products");
-        uploadFile(file, fileName);
-        return getFileUrl(fileName);
+    // Original goes to products/<sha256>/orig.<ext>, resized JPEGs next to it as w<width>.jpg.
+    // Bytes seen before return the existing URLs without another storage PUT or resize.
+    public UploadedImage uploadImage(MultipartFile file) throws IOException {
+        byte[] bytes = file.getBytes();
+        String sha256 = HexFormat.of().formatHex(newDigest().digest(bytes));
+        Optional<MediaObject> existing = mediaIndex.find(sha256);
+        if (existing.isPresent()) {
+            mediaIndex.recordDuplicate(bytes.length);
+            return toUploadedImage(existing.get());
+        }
+
+        String folder = "products/" + sha256;
+        String fileName = folder + "/orig" + extension(file.getOriginalFilename(), ".jpg");
+        storage.putBytes(fileName, file.getContentType(), bytes);
+        log.info("File uploaded successfully: {}", fileName);
+
+        MediaObject stored = new MediaObject(sha256, fileName, file.getContentType(), (long) bytes.length,
+                storeVariants(fileName, bytes));
+        // Without variants the hash stays unknown, so the next upload of these bytes tries them again
+        if (stored.getVariantWidths() != null) {
+            mediaIndex.register(stored);
+        }
+        return toUploadedImage(stored);
     }
 
     public String uploadVideo(MultipartFile file) throws IOException {
-        String fileName = generateFileName(file, "videos");
+        // The container already has the whole file, so hash it first and skip the PUT for duplicates
+        String sha256;
+        try (InputStream input = file.getInputStream()) {
+            sha256 = sha256(input);
+        }
+        Optional<MediaObject> existing = mediaIndex.find(sha256);
+        if (existing.isPresent()) {
+            mediaIndex.recordDuplicate(file.getSize());
+            return getFileUrl(existing.get().getStorageKey());
+        }
+
+        String fileName = "videos/" + sha256 + extension(file.getOriginalFilename(), ".mp4");
         uploadFile(file, fileName);
+        mediaIndex.register(new MediaObject(sha256, fileName, file.getContentType(), file.getSize(), null));
+        return getFileUrl(fileName);
+    }
+
+    // Video already assembled on local disk (resumable uploads): hashed from disk, so a duplicate
+    // skips the storage PUT entirely. A FileInputStream lets the local backend copy channel-to-channel.
+    public String uploadVideoFile(Path file, String originalFilename, String contentType) throws IOException {
+        String sha256;
+        try (InputStream input = Files.newInputStream(file)) {
+            sha256 = sha256(input);
+        }
+        long size = Files.size(file);
+        Optional<MediaObject> existing = mediaIndex.find(sha256);
+        if (existing.isPresent()) {
+            mediaIndex.recordDuplicate(size);
+            return getFileUrl(existing.get().getStorageKey());
+        }
+
+        String fileName = "videos/" + sha256 + extension(originalFilename, ".mp4");
+        try (InputStream input = new FileInputStream(file.toFile())) {
+            storage.put(fileName, contentType, input, size);
+        }
+        mediaIndex.register(new MediaObject(sha256, fileName, contentType, size, null));
+        log.info("File uploaded successfully: {} ({} bytes)", fileName, size);
         return getFileUrl(fileName);
     }
 
+    // Raw request body straight into storage; nothing is buffered to disk first. The hash is only
+    // known once the last byte is in, so the body lands on a temporary key and is then moved to its
+    // content key, or dropped if that content is already stored.
+    public String uploadVideoStream(InputStream input, String originalFilename, String contentType) throws IOException {
+        String tempName = "tmp/" + UUID.randomUUID() + extension(originalFilename, ".mp4");
+        DigestInputStream digestInput = new DigestInputStream(input, newDigest());
+        long bytes = storage.putStream(tempName, contentType, digestInput, maxStreamUploadSize.toBytes());
+        String sha256 = HexFormat.of().formatHex(digestInput.getMessageDigest().digest());
+
+        Optional<MediaObject> existing = mediaIndex.find(sha256);
+        if (existing.isPresent()) {
+            storage.delete(tempName);
+            mediaIndex.recordDuplicate(bytes);
+            return getFileUrl(existing.get().getStorageKey());
+        }
+
+        String fileName = "videos/" + sha256 + extension(originalFilename, ".mp4");
+        storage.move(tempName, fileName);
+        mediaIndex.register(new MediaObject(sha256, fileName, contentType, bytes, null));
+        log.info("File uploaded successfully: {} ({} bytes)", fileName, bytes);
+        return getFileUrl(fileName);
+    }
+
+    // ---------------- DIRECT UPLOADS ----------------
+    // The client sends the bytes straight to storage (signed S3 POST form, or a signed token URL on the
+    // local backend), then confirms with the completion token. Media never passes through the API
+    // on S3; a known sha256 skips the upload entirely.
+
+    public DirectUpload presignDirectUpload(String type, String originalFilename, String contentType, String sha256) {
+        boolean image = isImageType(type);
+        if (sha256 != null) {
+            sha256 = sha256.toLowerCase(Locale.ROOT);
+            if (!SHA256_HEX.matcher(sha256).matches()) {
+                throw new IllegalArgumentException("sha256 must be 64 hex characters");
+            }
+            Optional<MediaObject> existing = mediaIndex.find(sha256);
+            if (existing.isPresent()) {
+                mediaIndex.recordDuplicate(existing.get().getSize());
+                return DirectUpload.duplicate(toUploadedImage(existing.get()));
+            }
+        }
+
+        // Without a hash the key cannot be content-addressed and the upload is not deduplicated
+        String name = sha256 != null ? sha256 : UUID.randomUUID() + "_" + System.currentTimeMillis();
+        String fileName = image ?
+                "products/" + name + "/orig" + extension(originalFilename, ".jpg") :
+                "videos/" + name + extension(originalFilename, ".mp4");
+        if (contentType == null || contentType.isBlank()) {
+            contentType = image ? "image/jpeg" : "video/mp4";
+        }
+
+        PresignedUpload upload = storage.presignUpload(fileName, contentType, sha256, maxDirectUploadSize.toBytes(),
+                directUploadTtl);
+        String completionToken = uploadTokens.issue(
+                List.of("complete", type, fileName, contentType, sha256 == null ? "" : sha256),
+                upload.getExpiresAt().plus(directUploadTtl));
+        return DirectUpload.pending(upload, completionToken);
+    }
+
+    // Registers a finished direct upload; images get their variants generated here
+    public UploadedImage completeDirectUpload(String completionToken) throws IOException {
+        List<String> fields = uploadTokens.verify(completionToken);
+        if (!fields.get(0).equals("complete")) {
+            throw new IllegalArgumentException("Invalid upload token");
+        }
+        boolean image = isImageType(fields.get(1));
+        String fileName = fields.get(2);
+        String contentType = fields.get(3);
+        String sha256 = fields.get(4).isEmpty() ? null : fields.get(4);
+
+        if (sha256 != null) {
+            Optional<MediaObject> existing = mediaIndex.find(sha256);
+            if (existing.isPresent()) {
+                // Completed twice, or the same content finished first through another upload
+                return toUploadedImage(existing.get());
+            }
+        }
+
+        long size = storage.stat(fileName)
+                .orElseThrow(() -> new IllegalArgumentException("Nothing was uploaded for this token"))
+                .getSize();
+        if (size > maxDirectUploadSize.toBytes()) {
+            storage.delete(fileName);
+            throw new IllegalArgumentException("Upload exceeds " + maxDirectUploadSize);
+        }
+
+        String variantWidths = null;
+        if (image) {
+            byte[] bytes;
+            try (InputStream input = storage.open(fileName)) {
+                bytes = input.readAllBytes();
+            }
+            variantWidths = storeVariants(fileName, bytes);
+        }
+
+        MediaObject stored = new MediaObject(sha256, fileName, contentType, size, variantWidths);
+        if (sha256 != null && (!image || variantWidths != null)) {
+            mediaIndex.register(stored);
+        }
+        log.info("Direct upload completed: {} ({} bytes)", fileName, size);
+        return toUploadedImage(stored);
+    }
+
+    // Local backend: receives the body a signed token URL points at. It lands on a temporary key and
+    // only moves to the signed key once its hash checks out; past the signed size cap it is dropped
+    // with UploadTooLargeException as soon as the cap is crossed.
+    public void receiveDirectUpload(String token, String contentType, InputStream input) throws IOException {
+        List<String> fields = uploadTokens.verify(token);
+        if (!fields.get(0).equals("put")) {
+            throw new IllegalArgumentException("Invalid upload token");
+        }
+        String fileName = fields.get(1);
+        String signedContentType = fields.get(2);
+        String sha256 = fields.get(3).isEmpty() ? null : fields.get(3);
+        long maxBytes = Long.parseLong(fields.get(4));
+        if (contentType == null || !contentType.equalsIgnoreCase(signedContentType)) {
+            throw new IllegalArgumentException("Content-Type must be " + signedContentType);
+        }
+
+        String tempName = "tmp/" + UUID.randomUUID();
+        DigestInputStream digestInput = new DigestInputStream(input, newDigest());
+        storage.putStream(tempName, signedContentType, digestInput, maxBytes);
+        String actual = HexFormat.of().formatHex(digestInput.getMessageDigest().digest());
+
+        if (sha256 != null && !sha256.equals(actual)) {
+            storage.delete(tempName);
+            throw new IllegalArgumentException("Body does not match the declared sha256");
+        }
+        storage.move(tempName, fileName);
+    }
+
+    public long getMaxStreamUploadSize() {
+        return maxStreamUploadSize.toBytes();
+    }
+
+    public long getMaxDirectUploadSize() {
+        return maxDirectUploadSize.toBytes();
+    }
+
+    private static boolean isImageType(String type) {
+        if ("image".equals(type)) {
+            return true;
+        }
+        if ("video".equals(type)) {
+            return false;
+        }
+        throw new IllegalArgumentException("type must be image or video");
+    }
+
+    // Stores the resized JPEGs next to the original; returns the stored widths ("320,640"), or null when
+    // they could not be made. A storage failure part way through propagates.
+    private String storeVariants(String fileName, byte[] bytes) throws IOException {
+        List<ImageVariant> variants;
+        try {
+            variants = imagePipeline.process(bytes);
+        } catch (IOException e) {
+            // The original is still usable; listings fall back to it when variants are missing
+            log.warn("Image variants skipped for {}: {}", fileName, e.getMessage());
+            return null;
+        }
+        String folder = fileName.substring(0, fileName.lastIndexOf('/'));
+        List<String> widths = new ArrayList<>();
+        for (ImageVariant variant : variants) {
+            storage.putBytes(folder + "/w" + variant.getWidth() + ".jpg", "image/jpeg", variant.getBytes());
+            widths.add(String.valueOf(variant.getWidth()));
+        }
+        return widths.isEmpty() ? null : String.join(",", widths);
+    }
+
     private void uploadFile(MultipartFile file, String fileName) throws IOException {
-        // FIXED: Removed ACL setting since your bucket doesn't allow ACLs
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(fileName)
-                .contentType(file.getContentType())
-                // .acl(ObjectCannedACL.PUBLIC_READ)  // REMOVED THIS LINE
-                .build();
+        try (InputStream input = file.getInputStream()) {
+            storage.put(fileName, file.getContentType(), input, file.getSize());
+        }
 
-        s3Client.putObject(putObjectRequest,
-                RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
+        log.info("File uploaded successfully: {}", fileName);
+    }
+
+    private UploadedImage toUploadedImage(MediaObject object) {
+        String key = object.getStorageKey();
+        String folder = key.substring(0, key.lastIndexOf('/'));
+        Map<Integer, String> variants = new LinkedHashMap<>();
+        if (object.getVariantWidths() != null) {
+            for (String width : object.getVariantWidths().split(",")) {
+                variants.put(Integer.valueOf(width), getFileUrl(folder + "/w" + width + ".jpg"));
+            }
+        }
+        return new UploadedImage(getFileUrl(key), variants);
+    }
+
+    private static String extension(String originalFilename, String defaultExtension) {
+        return originalFilename != null && originalFilename.contains(".") ?
+                originalFilename.substring(originalFilename.lastIndexOf(".")) : defaultExtension;
+    }
 
-        System.out.println("File uploaded successfully: " + fileName);
+    private static String sha256(InputStream input) throws IOException {
+        DigestInputStream digestInput = new DigestInputStream(input, newDigest());
+        digestInput.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digestInput.getMessageDigest().digest());
     }
 
-    private String generateFileName(MultipartFile file, String folder) {
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null ?
-                originalFilename.substring(originalFilename.lastIndexOf(".")) : ".jpg";
-        return folder + "/" + UUID.randomUUID() + "_" + System.currentTimeMillis() + extension;
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private String getFileUrl(String fileName) {
-        return String.format("https://%s.s3.%s.amazonaws.com/%s",
-                bucketName, region, fileName);
+        return storage.url(fileName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// RFC 4180 CSV with a header row naming the product fields (productName, price, images, ...). Quoted fields
+// may contain the delimiter, doubled quotes and line breaks. The delimiter is ',' or, for spreadsheets saved
+// with a French locale, ';' when the header has more of those; a UTF-8 byte order mark is ignored.
+// A record longer than maxRecordLength characters is read to its end without being kept, and reported.
+class CsvRowReader implements RowReader {
+
+    private static final int HEADER_PEEK = 8192;
+
+    private final BufferedReader reader;
+    private final int maxRecordLength;
+    private final char delimiter;
+    private final List<String> header;
+
+    private int line = 1;
+    private int rows;
+
+    CsvRowReader(BufferedReader reader, int maxRecordLength) throws IOException {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+        this.delimiter = detectDelimiter(reader);
+
+        List<String> names;
+        try {
+            names = readRecord();
+        } catch (UnreadableRecordException e) {
+            throw new IllegalArgumentException("Unreadable CSV header: " + e.getMessage());
+        }
+        if (names == null) {
+            throw new IllegalArgumentException("CSV is empty: expected a header row");
+        }
+        header = new ArrayList<>(names.size());
+        for (String name : names) {
+            header.add(name.replace("\uFEFF", "").trim());
+        }
+    }
+
+    List<String> getHeader() {
+        return header;
+    }
+
+    // Rows with no values at all (blank lines, the ",,,," spreadsheets leave at the end) are skipped
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            int startLine;
+            List<String> values;
+            try {
+                skipBlankLines();
+                startLine = line;
+                values = readRecord();
+            } catch (UnreadableRecordException e) {
+                return ImportRow.unreadable(++rows, e.startLine, e.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+
+            Map<String, Object> fields = new HashMap<>();
+            for (int i = 0; i < values.size() && i < header.size(); i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) {
+                    fields.put(header.get(i), value);
+                }
+            }
+            // Trailing empty cells past the header are harmless; values there would be silently lost
+            for (int i = header.size(); i < values.size(); i++) {
+                if (!values.get(i).isBlank()) {
+                    return ImportRow.unreadable(++rows, startLine,
+                            "Has " + values.size() + " columns, the header has " + header.size());
+                }
+            }
+            if (!fields.isEmpty()) {
+                return ImportRow.parsed(++rows, startLine, fields);
+            }
+        }
+    }
+
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(HEADER_PEEK);
+        char[] buffer = new char[HEADER_PEEK];
+        int read = reader.read(buffer);
+        reader.reset();
+
+        int commas = 0;
+        int semicolons = 0;
+        for (int i = 0; i < read && buffer[i] != '\n'; i++) {
+            if (buffer[i] == ',') {
+                commas++;
+            } else if (buffer[i] == ';') {
+                semicolons++;
+            }
+        }
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private void skipBlankLines() throws IOException {
+        while (true) {
+            reader.mark(1);
+            int c = read();
+            if (c != '\r' && c != '\n') {
+                reader.reset();
+                return;
+            }
+        }
+    }
+
+    // Null at end of input
+    private List<String> readRecord() throws IOException {
+        int startLine = line;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        // Past the limit the record is still parsed to find where it ends, but nothing more is kept
+        int length = 0;
+        while (true) {
+            boolean keep = ++length <= maxRecordLength;
+            if (quoted) {
+                if (c == -1) {
+                    throw new UnreadableRecordException(startLine, "Quoted field is never closed");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = read();
+                    if (next == '"') {
+                        if (keep) {
+                            value.append('"');
+                        }
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else if (keep) {
+                    value.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == delimiter) {
+                if (keep) {
+                    values.add(value.toString());
+                }
+                value.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                // The line break itself does not count
+                if (length - 1 > maxRecordLength) {
+                    throw new UnreadableRecordException(startLine, "Longer than " + maxRecordLength + " characters");
+                }
+                values.add(value.toString());
+                return values;
+            } else {
+                if (keep) {
+                    value.append((char) c);
+                }
+                fieldStart = false;
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    // Only ever called right after mark(1) and a single read()
+    private void unread(int c) throws IOException {
+        if (c != -1) {
+            reader.reset();
+            if (c == '\n') {
+                line--;
+            }
+        }
+    }
+
+    // A record that cannot be turned into a row; the reader is positioned after it
+    private static class UnreadableRecordException extends IOException {
+
+        private final int startLine;
+
+        UnreadableRecordException(int startLine, String message) {
+            super(message);
+            this.startLine = startLine;
+        }
+    }
+}
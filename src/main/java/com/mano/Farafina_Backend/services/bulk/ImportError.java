@@ -0,0 +1,29 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import java.util.List;
+
+// A row that was not imported and why
+public class ImportError {
+
+    private final int row;
+    private final int line;
+    private final List<String> errors;
+
+    public ImportError(int row, int line, List<String> errors) {
+        this.row = row;
+        this.line = line;
+        this.errors = errors;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
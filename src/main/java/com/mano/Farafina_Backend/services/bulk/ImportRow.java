@@ -0,0 +1,46 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import java.util.Map;
+
+// One record of an import: its position for the error report, and either its fields (name -> String,
+// or List<String> for NDJSON arrays) or the reason it could not be parsed
+public class ImportRow {
+
+    private final int number;
+    private final int line;
+    private final Map<String, Object> fields;
+    private final String error;
+
+    private ImportRow(int number, int line, Map<String, Object> fields, String error) {
+        this.number = number;
+        this.line = line;
+        this.fields = fields;
+        this.error = error;
+    }
+
+    static ImportRow parsed(int number, int line, Map<String, Object> fields) {
+        return new ImportRow(number, line, fields, null);
+    }
+
+    static ImportRow unreadable(int number, int line, String error) {
+        return new ImportRow(number, line, null, error);
+    }
+
+    // 1-based, header excluded
+    public int getNumber() {
+        return number;
+    }
+
+    // Line the record starts on (CSV quoted fields may span lines)
+    public int getLine() {
+        return line;
+    }
+
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,100 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Newline-delimited JSON: one product object per line, with the same field names as POST /api/products.
+// Each line is parsed on its own, so a malformed line is reported and the next one is still read.
+// A line longer than maxLineLength characters is skipped without being kept, and reported.
+class NdjsonRowReader implements RowReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final int maxLineLength;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int line;
+    private int rows;
+    // Set by readLine when the line it just skipped was past maxLineLength
+    private boolean lineTooLong;
+
+    NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper, int maxLineLength) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank() && !lineTooLong);
+        rows++;
+
+        if (lineTooLong) {
+            return ImportRow.unreadable(rows, line, "Longer than " + maxLineLength + " characters");
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            return ImportRow.unreadable(rows, line, "Not valid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ImportRow.unreadable(rows, line, "Expected a JSON object");
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, JsonNode> entry : node.properties()) {
+            JsonNode value = entry.getValue();
+            if (value.isArray()) {
+                List<String> values = new ArrayList<>(value.size());
+                value.forEach(item -> values.add(item.asText()));
+                fields.put(entry.getKey(), values);
+            } else if (value.isObject()) {
+                fields.put(entry.getKey(), value.toString());
+            } else if (!value.isNull() && !value.asText().isBlank()) {
+                fields.put(entry.getKey(), value.asText().trim());
+            }
+        }
+        return ImportRow.parsed(rows, line, fields);
+    }
+
+    // BufferedReader.readLine without the unbounded buffer: \n, \r\n or \r end a line
+    private String readLine() throws IOException {
+        buffer.setLength(0);
+        lineTooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n' && c != '\r') {
+            if (buffer.length() < maxLineLength) {
+                buffer.append((char) c);
+            } else {
+                lineTooLong = true;
+            }
+        }
+        if (c == '\r') {
+            reader.mark(1);
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+        if (c == -1 && buffer.isEmpty() && !lineTooLong) {
+            return null;
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of one import. Only the first maxReportedErrors failures are listed; failed counts them all.
+public class ProductImportReport {
+
+    private final int maxReportedErrors;
+    private final List<ImportError> errors = new ArrayList<>();
+
+    private int rows;
+    private int imported;
+    private int failed;
+    private boolean rowLimitReached;
+
+    ProductImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void failed(ImportRow row, List<String> reasons) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ImportError(row.getNumber(), row.getLine(), reasons));
+        }
+    }
+
+    void rowLimitReached() {
+        rowLimitReached = true;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    // The input had more rows than farafina.import.max-rows; the rest were not read
+    public boolean isRowLimitReached() {
+        return rowLimitReached;
+    }
+}
@@ -0,0 +1,163 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.entity.Product;
+import com.mano.Farafina_Backend.repository.ProductImportRepository;
+import com.mano.Farafina_Backend.services.CatalogStatistics;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk listing import. Rows are read and validated one at a time from the request body and written in
+// batches of farafina.import.batch-size, each batch in its own transaction, so memory and lock time stay
+// bounded whatever the file size and a failure costs at most one batch. Committed products go into the
+// search index and catalog statistics right away, as a single POST /api/products would.
+@Service
+public class ProductImportService {
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Failed batches are split in half and retried to isolate the rows the database rejects. Rows are
+    // validated first, so this is for the rare row that still fails; past this many retried writes per
+    // import, the rows left in a failing batch are reported failed without further splitting.
+    static final int MAX_RETRY_WRITES = 64;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("productName", "category", "condition", "price",
+            "currency", "country");
+
+    private final ProductImportRepository importRepository;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogStatistics catalogStatistics;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${farafina.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${farafina.import.max-rows:20000}")
+    private int maxRows;
+
+    @Value("${farafina.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${farafina.import.max-record-length:131072}")
+    private int maxRecordLength;
+
+    @Autowired
+    public ProductImportService(ProductImportRepository importRepository, ProductSearchIndex searchIndex,
+                                CatalogStatistics catalogStatistics, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper) {
+        this.importRepository = importRepository;
+        this.searchIndex = searchIndex;
+        this.catalogStatistics = catalogStatistics;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // userId applies to rows that do not name their own. Throws IllegalArgumentException when the input
+    // cannot be imported at all (unsupported type, CSV header without the required columns).
+    public ProductImportReport importProducts(BufferedReader body, String contentType, Long userId)
+            throws IOException {
+        RowReader rows = open(body, contentType);
+        ProductImportReport report = new ProductImportReport(maxReportedErrors);
+
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<ImportRow> batchRows = new ArrayList<>(batchSize);
+        int[] retryWrites = {MAX_RETRY_WRITES};
+        ImportRow row;
+        while ((row = rows.next()) != null) {
+            if (report.getRows() == maxRows) {
+                report.rowLimitReached();
+                break;
+            }
+            report.rowRead();
+
+            List<String> errors = new ArrayList<>();
+            Product product = null;
+            if (row.getError() != null) {
+                errors.add(row.getError());
+            } else {
+                product = ProductRowMapper.toProduct(row.getFields(), userId, errors);
+            }
+            if (product == null) {
+                report.failed(row, errors);
+                continue;
+            }
+
+            batch.add(product);
+            batchRows.add(row);
+            if (batch.size() == batchSize) {
+                write(batch, batchRows, report, retryWrites);
+                batch.clear();
+                batchRows.clear();
+            }
+        }
+        write(batch, batchRows, report, retryWrites);
+        return report;
+    }
+
+    private RowReader open(BufferedReader body, String contentType) throws IOException {
+        String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase() : "";
+        switch (type) {
+            case CSV:
+                CsvRowReader csv = new CsvRowReader(body, maxRecordLength);
+                checkHeader(csv.getHeader());
+                return csv;
+            case NDJSON, "application/jsonl", "application/jsonlines":
+                return new NdjsonRowReader(body, objectMapper, maxRecordLength);
+            default:
+                throw new IllegalArgumentException("Content-Type must be " + CSV + " or " + NDJSON);
+        }
+    }
+
+    // A wrong header would fail every row; reject the file before reading any
+    private static void checkHeader(List<String> header) {
+        List<String> unknown = header.stream().filter(name -> !ProductRowMapper.FIELDS.contains(name)).toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown CSV columns " + unknown + "; expected names from "
+                    + ProductRowMapper.FIELDS);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(name -> !header.contains(name)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing required columns " + missing);
+        }
+    }
+
+    // retryWrites is what is left of MAX_RETRY_WRITES for this import
+    private void write(List<Product> batch, List<ImportRow> rows, ProductImportReport report, int[] retryWrites) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> importRepository.insert(batch));
+        } catch (DataAccessException e) {
+            batch.forEach(product -> product.setId(null));
+            if (batch.size() == 1 || retryWrites[0] < 2) {
+                List<String> reason = List.of("Not saved: " + e.getMostSpecificCause().getMessage());
+                rows.forEach(row -> report.failed(row, reason));
+                return;
+            }
+            // One bad row fails the whole statement; bisect so k bad rows cost O(k log n) writes, not n
+            retryWrites[0] -= 2;
+            int half = batch.size() / 2;
+            write(batch.subList(0, half), rows.subList(0, half), report, retryWrites);
+            write(batch.subList(half, batch.size()), rows.subList(half, rows.size()), report, retryWrites);
+            return;
+        }
+
+        for (Product product : batch) {
+            searchIndex.index(product);
+        }
+        catalogStatistics.onCreated(batch);
+        report.imported(batch.size());
+    }
+}
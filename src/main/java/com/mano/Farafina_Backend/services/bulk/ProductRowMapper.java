@@ -0,0 +1,174 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.mano.Farafina_Backend.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Builds a Product from an import row under the constraints of the products columns (required, lengths,
+// DECIMAL(10,2)), collecting every problem in the row so the report lists them all at once
+final class ProductRowMapper {
+
+    static final Set<String> FIELDS = Set.of("userId", "productName", "description", "category", "condition",
+            "price", "currency", "country", "city", "shopName", "contactPhone", "quantity", "shippingAvailable",
+            "localPickup", "images", "videoUrl");
+
+    // CSV cells hold several image URLs separated by |
+    private static final String IMAGE_SEPARATOR = "\\|";
+    private static final int MAX_PRICE_INTEGER_DIGITS = 8;
+    // Keeps a default batch's images in a single INSERT (ProductImportRepository.IMAGE_ROWS_PER_STATEMENT)
+    static final int MAX_IMAGES = 10;
+
+    private ProductRowMapper() {}
+
+    // Null when the row has errors; they are added to errors
+    static Product toProduct(Map<String, Object> fields, Long defaultUserId, List<String> errors) {
+        for (String name : fields.keySet()) {
+            if (!FIELDS.contains(name)) {
+                errors.add("Unknown field " + name);
+            }
+        }
+
+        Product product = new Product();
+        Long userId = longValue(fields, "userId", errors);
+        product.setUserId(userId != null ? userId : defaultUserId);
+        if (product.getUserId() == null) {
+            errors.add("userId is required (in the row or as the userId parameter)");
+        }
+        product.setProductName(text(fields, "productName", 255, true, errors));
+        product.setDescription(text(fields, "description", 65535, false, errors));
+        product.setCategory(text(fields, "category", 100, true, errors));
+        product.setCondition(text(fields, "condition", 50, true, errors));
+        product.setPrice(price(fields, errors));
+        product.setCurrency(text(fields, "currency", 10, true, errors));
+        product.setCountry(text(fields, "country", 100, true, errors));
+        product.setCity(text(fields, "city", 100, false, errors));
+        product.setShopName(text(fields, "shopName", 255, false, errors));
+        product.setContactPhone(text(fields, "contactPhone", 50, false, errors));
+        product.setVideoUrl(text(fields, "videoUrl", 500, false, errors));
+
+        Long quantity = longValue(fields, "quantity", errors);
+        if (quantity != null && (quantity < 0 || quantity > Integer.MAX_VALUE)) {
+            errors.add("quantity must be 0 or more");
+        } else if (quantity != null) {
+            product.setQuantity(quantity.intValue());
+        }
+        Boolean shippingAvailable = bool(fields, "shippingAvailable", errors);
+        if (shippingAvailable != null) {
+            product.setShippingAvailable(shippingAvailable);
+        }
+        Boolean localPickup = bool(fields, "localPickup", errors);
+        if (localPickup != null) {
+            product.setLocalPickup(localPickup);
+        }
+        product.setImages(images(fields, errors));
+
+        return errors.isEmpty() ? product : null;
+    }
+
+    private static String text(Map<String, Object> fields, String name, int maxLength, boolean required,
+                               List<String> errors) {
+        Object value = fields.get(name);
+        if (value == null) {
+            if (required) {
+                errors.add(name + " is required");
+            }
+            return null;
+        }
+        if (!(value instanceof String text)) {
+            errors.add(name + " must be text");
+            return null;
+        }
+        if (text.length() > maxLength) {
+            errors.add(name + " is longer than " + maxLength + " characters");
+            return null;
+        }
+        return text;
+    }
+
+    private static Long longValue(Map<String, Object> fields, String name, List<String> errors) {
+        Object value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            errors.add(name + " must be a whole number");
+            return null;
+        }
+    }
+
+    private static BigDecimal price(Map<String, Object> fields, List<String> errors) {
+        Object value = fields.get("price");
+        if (value == null) {
+            errors.add("price is required");
+            return null;
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            errors.add("price must be a number");
+            return null;
+        }
+        if (price.signum() < 0) {
+            errors.add("price must be 0 or more");
+            return null;
+        }
+        BigDecimal stripped = price.stripTrailingZeros();
+        if (stripped.scale() > 2) {
+            errors.add("price has more than 2 decimals");
+            return null;
+        }
+        if (stripped.precision() - stripped.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            errors.add("price is too large");
+            return null;
+        }
+        return price;
+    }
+
+    private static Boolean bool(Map<String, Object> fields, String name, List<String> errors) {
+        Object value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        switch (value.toString().toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "oui", "1":
+                return true;
+            case "false", "no", "non", "0":
+                return false;
+            default:
+                errors.add(name + " must be true or false");
+                return null;
+        }
+    }
+
+    private static List<String> images(Map<String, Object> fields, List<String> errors) {
+        Object value = fields.get("images");
+        List<String> urls = new ArrayList<>();
+        if (value == null) {
+            return urls;
+        }
+        List<?> items = value instanceof List<?> list ? list : List.of(value.toString().split(IMAGE_SEPARATOR));
+        for (Object item : items) {
+            String url = item.toString().trim();
+            if (url.isEmpty()) {
+                continue;
+            }
+            if (url.length() > 500) {
+                errors.add("image URL is longer than 500 characters: " + url.substring(0, 40) + "...");
+            } else {
+                urls.add(url);
+            }
+        }
+        if (urls.size() > MAX_IMAGES) {
+            errors.add("more than " + MAX_IMAGES + " images");
+        }
+        return urls;
+    }
+}
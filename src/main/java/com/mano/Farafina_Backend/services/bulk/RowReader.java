@@ -0,0 +1,10 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import java.io.IOException;
+
+// Pulls import rows off the request body one at a time, so memory does not grow with the file
+interface RowReader {
+
+    // Null at the end of the input
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,96 @@
+package com.mano.Farafina_Backend.services.media;
+
+// Reads the EXIF Orientation tag (0x0112) from a JPEG's APP1 segment. Phones store portrait photos as
+// landscape pixels plus this tag; ImageIO ignores it, so without it thumbnails come out sideways.
+// 1 = as stored, 2 = mirrored, 3 = 180°, 4 = flipped, 5 = transposed, 6 = 90° clockwise,
+// 7 = transversed, 8 = 90° counter-clockwise. Anything unreadable counts as 1.
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final int SHORT_TYPE = 3;
+
+    private ExifOrientation() {
+    }
+
+    static int read(byte[] image) {
+        if (image.length < 4 || (image[0] & 0xFF) != 0xFF || (image[1] & 0xFF) != 0xD8) {
+            return NORMAL;
+        }
+        int position = 2;
+        while (position + 4 <= image.length && (image[position] & 0xFF) == 0xFF) {
+            int marker = image[position + 1] & 0xFF;
+            // Start of scan or end of image: no metadata after this
+            if (marker == 0xDA || marker == 0xD9) {
+                return NORMAL;
+            }
+            int length = ((image[position + 2] & 0xFF) << 8) | (image[position + 3] & 0xFF);
+            int start = position + 4;
+            int end = position + 2 + length;
+            if (length < 2 || end > image.length) {
+                return NORMAL;
+            }
+            if (marker == 0xE1 && end - start >= 6 && isExifHeader(image, start)) {
+                return fromTiff(image, start + 6, end);
+            }
+            position = end;
+        }
+        return NORMAL;
+    }
+
+    private static boolean isExifHeader(byte[] image, int start) {
+        return image[start] == 'E' && image[start + 1] == 'x' && image[start + 2] == 'i' && image[start + 3] == 'f'
+                && image[start + 4] == 0 && image[start + 5] == 0;
+    }
+
+    private static int fromTiff(byte[] image, int tiff, int end) {
+        if (end - tiff < 8) {
+            return NORMAL;
+        }
+        boolean littleEndian;
+        if (image[tiff] == 'I' && image[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (image[tiff] == 'M' && image[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return NORMAL;
+        }
+        long ifd = tiff + unsignedInt(image, tiff + 4, littleEndian);
+        if (ifd + 2 > end) {
+            return NORMAL;
+        }
+        int entries = unsignedShort(image, (int) ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return NORMAL;
+            }
+            if (unsignedShort(image, entry, littleEndian) == ORIENTATION_TAG) {
+                if (unsignedShort(image, entry + 2, littleEndian) != SHORT_TYPE) {
+                    return NORMAL;
+                }
+                int orientation = unsignedShort(image, entry + 8, littleEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    // 5 to 8 turn the image a quarter, so width and height trade places
+    static boolean swapsDimensions(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    private static int unsignedShort(byte[] bytes, int offset, boolean littleEndian) {
+        int first = bytes[offset] & 0xFF;
+        int second = bytes[offset + 1] & 0xFF;
+        return littleEndian ? (second << 8) | first : (first << 8) | second;
+    }
+
+    private static long unsignedInt(byte[] bytes, int offset, boolean littleEndian) {
+        long high = unsignedShort(bytes, littleEndian ? offset + 2 : offset, littleEndian);
+        long low = unsignedShort(bytes, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,254 @@
+package com.mano.Farafina_Backend.services.media;
+
+import com.mano.Farafina_Backend.dto.VariantUrls;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decodes an uploaded image once and re-encodes it as JPEG at each configured width on a bounded
+// worker pool, upright according to its EXIF orientation. Variants are stored next to the original as
+// <folder>/w<width>.jpg (see VariantUrls).
+@Component
+public class ImagePipeline {
+
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    // Refuse decompression bombs before allocating the raster
+    private final long maxPixels;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor workers;
+
+    // One decoded original per worker at most: an upload takes a permit before its decode is queued and
+    // returns it once every variant is encoded. Past queueCapacity waiting uploads, process() refuses.
+    private final Semaphore inFlight;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @Autowired
+    public ImagePipeline(@Value("${farafina.images.variant-widths:320,640,1280}") List<Integer> widths,
+                         @Value("${farafina.images.jpeg-quality:0.8}") float jpegQuality,
+                         @Value("${farafina.images.workers:0}") int workers,
+                         @Value("${farafina.images.queue-capacity:64}") int queueCapacity,
+                         @Value("${farafina.images.max-pixels:24000000}") long maxPixels) {
+        TreeSet<Integer> sorted = new TreeSet<>(widths);
+        sorted.add(VariantUrls.THUMBNAIL_WIDTH);
+        this.widths = List.copyOf(sorted);
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.queueCapacity = queueCapacity;
+
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.inFlight = new Semaphore(threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Decoding and resizing both run here, never on the request thread, so concurrent uploads cannot
+        // hold more decoded rasters than there are workers. The queue needs no bound of its own: the
+        // permits cap it at one decode plus one task per width for each worker. Stays on platform threads
+        // even with spring.threads.virtual.enabled: the work is CPU-bound, virtual threads would not add
+        // capacity.
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    // One variant per configured width, smallest first. Images are never upscaled: a variant wider
+    // than the original is just the original re-encoded, so every width key always exists.
+    public List<ImageVariant> process(byte[] original) throws IOException {
+        acquire();
+        try {
+            Source source = await(workers.submit(() -> decode(original)));
+
+            List<Future<ImageVariant>> futures = new ArrayList<>(widths.size());
+            for (int width : widths) {
+                futures.add(workers.submit(() -> render(source, width)));
+            }
+            List<ImageVariant> variants = new ArrayList<>(widths.size());
+            for (Future<ImageVariant> future : futures) {
+                variants.add(await(future));
+            }
+            return variants;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void acquire() throws IOException {
+        if (inFlight.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            throw new IOException("Image pipeline is busy");
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Image processing interrupted", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Image processing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Image processing failed", e.getCause());
+        }
+    }
+
+    private Source decode(byte[] original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image too large: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                return new Source(reader.read(0), ExifOrientation.read(original));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Widths are of the upright image. The stored pixels are scaled first and turned after, which is
+    // the same picture and turns far fewer pixels.
+    private ImageVariant render(Source source, int targetWidth) throws IOException {
+        BufferedImage image = source.image;
+        boolean swap = ExifOrientation.swapsDimensions(source.orientation);
+        int uprightWidth = swap ? image.getHeight() : image.getWidth();
+        int uprightHeight = swap ? image.getWidth() : image.getHeight();
+        int width = Math.min(targetWidth, uprightWidth);
+        int height = Math.max(1, (int) Math.round((double) uprightHeight * width / uprightWidth));
+
+        BufferedImage scaled = swap ? scale(image, height, width) : scale(image, width, height);
+        return new ImageVariant(targetWidth, height, encodeJpeg(orient(scaled, source.orientation)));
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation == ExifOrientation.NORMAL) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // Maps stored coordinates to upright ones
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean swap = ExifOrientation.swapsDimensions(orientation);
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Halves repeatedly before the final bilinear step; a single large bilinear step aliases badly
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = drawRgb(current, currentWidth, currentHeight);
+        }
+        return drawRgb(current, width, height);
+    }
+
+    // JPEG has no alpha: draw onto an opaque white RGB canvas
+    private static BufferedImage drawRgb(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // A decoded original and how to turn it upright
+    private static final class Source {
+
+        private final BufferedImage image;
+        private final int orientation;
+
+        private Source(BufferedImage image, int orientation) {
+            this.image = image;
+            this.orientation = orientation;
+        }
+    }
+}
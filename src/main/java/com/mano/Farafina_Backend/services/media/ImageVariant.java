@@ -0,0 +1,27 @@
+package com.mano.Farafina_Backend.services.media;
+
+// width is the requested variant width (the storage key); height is the actual rendered height
+public class ImageVariant {
+
+    private final int width;
+    private final int height;
+    private final byte[] bytes;
+
+    public ImageVariant(int width, int height, byte[] bytes) {
+        this.width = width;
+        this.height = height;
+        this.bytes = bytes;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.mano.Farafina_Backend.services.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mano.Farafina_Backend.entity.MediaObject;
+import com.mano.Farafina_Backend.repository.MediaObjectRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Known content hashes -> stored objects. Hits are served from memory; misses fall through to the
+// media_objects table, so a hash stored by another instance (or before a restart) is still found.
+// The in-memory part keeps at most farafina.media.index.max-entries hashes; evicted ones are reloaded.
+@Component
+public class MediaIndex {
+
+    private final MediaObjectRepository mediaObjectRepository;
+    private final Cache<String, MediaObject> known;
+
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter bytesSaved;
+
+    @Autowired
+    public MediaIndex(MediaObjectRepository mediaObjectRepository, MeterRegistry meterRegistry,
+                      @Value("${farafina.media.index.max-entries:100000}") long maxEntries) {
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.known = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.stored = Counter.builder("farafina.media.uploads")
+                .tag("result", "stored")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("farafina.media.uploads")
+                .tag("result", "deduplicated")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("farafina.media.dedup.bytes.saved")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        // Share of uploads since startup that were answered with an existing object
+        Gauge.builder("farafina.media.dedup.ratio", this, MediaIndex::dedupRatio)
+                .register(meterRegistry);
+    }
+
+    public Optional<MediaObject> find(String sha256) {
+        MediaObject cached = known.getIfPresent(sha256);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<MediaObject> persisted = mediaObjectRepository.findById(sha256);
+        persisted.ifPresent(object -> known.put(sha256, object));
+        return persisted;
+    }
+
+    // Inserts the row; counted as stored only if this call inserted it. When the same content was
+    // registered concurrently elsewhere, the first row wins and this upload counts as a duplicate.
+    public void register(MediaObject object) {
+        try {
+            mediaObjectRepository.save(object);
+        } catch (DataIntegrityViolationException e) {
+            MediaObject winner = mediaObjectRepository.findById(object.getSha256()).orElseThrow(() -> e);
+            known.put(winner.getSha256(), winner);
+            recordDuplicate(object.getSize());
+            return;
+        }
+        known.put(object.getSha256(), object);
+        stored.increment();
+    }
+
+    public void recordDuplicate(long size) {
+        deduplicated.increment();
+        bytesSaved.increment(size);
+    }
+
+    public double dedupRatio() {
+        double total = stored.count() + deduplicated.count();
+        return total == 0 ? 0 : deduplicated.count() / total;
+    }
+}
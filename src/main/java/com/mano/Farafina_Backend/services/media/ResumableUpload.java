@@ -0,0 +1,74 @@
+package com.mano.Farafina_Backend.services.media;
+
+// State of one resumable upload, kept as <id>.json next to the <id>.part data file. The received
+// offset is deliberately not stored: it is the size of the .part file, which stays correct across
+// dropped connections and restarts.
+public class ResumableUpload {
+
+    private String id;
+    private long length;
+    private String filename;
+    private String contentType;
+    private long createdAt;
+
+    // Set once all bytes arrived and the file was stored; a retried PATCH then just gets it back
+    private String url;
+
+    public ResumableUpload() {}
+
+    public ResumableUpload(String id, long length, String filename, String contentType, long createdAt) {
+        this.id = id;
+        this.length = length;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
@@ -0,0 +1,247 @@
+package com.mano.Farafina_Backend.services.media;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.services.S3Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// Chunked, resumable video uploads (tus-style create / HEAD offset / PATCH at offset). Chunks are
+// appended to a staging file on local disk, so nothing is held in memory and a dropped PATCH keeps
+// every byte that arrived. Once complete, the file is hashed and stored like any other video.
+@Service
+public class ResumableUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private final S3Service s3Service;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long maxSize;
+    private final Duration expireAfter;
+
+    // One lock per upload so a retried PATCH cannot interleave with one that is still draining, and
+    // DELETE or cleanup cannot remove the files under it. An entry is only removed by the thread holding
+    // it, after the upload's files are gone; see tryLock.
+    private final ConcurrentMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResumableUploadService(S3Service s3Service, ObjectMapper objectMapper,
+                                  @Value("${farafina.uploads.resumable.dir:./data/resumable}") Path directory,
+                                  @Value("${farafina.uploads.resumable.max-size:1GB}") DataSize maxSize,
+                                  @Value("${farafina.uploads.resumable.expire-after:PT24H}") Duration expireAfter) throws IOException {
+        this.s3Service = s3Service;
+        this.objectMapper = objectMapper;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxSize = maxSize.toBytes();
+        this.expireAfter = expireAfter;
+        Files.createDirectories(this.directory);
+    }
+
+    public ResumableUpload create(long length, String filename, String contentType) throws IOException {
+        if (length <= 0 || length > maxSize) {
+            throw new IllegalArgumentException("Upload-Length must be between 1 and " + maxSize);
+        }
+        ResumableUpload upload = new ResumableUpload(UUID.randomUUID().toString().replace("-", ""), length,
+                filename, contentType != null ? contentType : "video/mp4", System.currentTimeMillis());
+        Files.createFile(partFile(upload.getId()));
+        writeState(upload);
+        return upload;
+    }
+
+    // null when the id is unknown (never created, finished and expired, or terminated)
+    public ResumableUpload find(String id) throws IOException {
+        if (id == null || !UPLOAD_ID.matcher(id).matches()) {
+            return null;
+        }
+        Path state = stateFile(id);
+        if (!Files.exists(state)) {
+            return null;
+        }
+        return objectMapper.readValue(state.toFile(), ResumableUpload.class);
+    }
+
+    public long offset(ResumableUpload upload) throws IOException {
+        if (upload.getUrl() != null) {
+            return upload.getLength();
+        }
+        Path part = partFile(upload.getId());
+        return Files.exists(part) ? Files.size(part) : 0;
+    }
+
+    public Instant expiresAt(ResumableUpload upload) {
+        return Instant.ofEpochMilli(upload.getCreatedAt()).plus(expireAfter);
+    }
+
+    // Appends the body at `offset` (which must equal the bytes received so far). Bytes past the
+    // declared length are not read. Returns the upload, with its url set once the last byte is in.
+    // Throws IllegalStateException on an offset mismatch or a concurrent PATCH.
+    public ResumableUpload append(String id, long offset, InputStream input) throws IOException {
+        if (find(id) == null) {
+            return null;
+        }
+        ReentrantLock lock = tryLock(id);
+        if (lock == null) {
+            throw new IllegalStateException("Another chunk of this upload is still being received");
+        }
+        boolean removed = false;
+        try {
+            ResumableUpload upload = find(id);
+            if (upload == null) {
+                // Removed after the check above
+                removed = true;
+                return null;
+            }
+            long current = offset(upload);
+            if (offset != current) {
+                throw new IllegalStateException("Upload-Offset " + offset + " does not match " + current);
+            }
+            if (upload.getUrl() != null) {
+                return upload;
+            }
+
+            long position = current;
+            try (ReadableByteChannel source = Channels.newChannel(input);
+                 FileChannel channel = FileChannel.open(partFile(id), StandardOpenOption.WRITE)) {
+                // A blocking source only transfers 0 bytes at end of stream. If the connection drops
+                // midway, whatever was written stays and becomes the new offset.
+                long transferred;
+                while (position < upload.getLength() &&
+                        (transferred = channel.transferFrom(source, position, upload.getLength() - position)) > 0) {
+                    position += transferred;
+                }
+            }
+
+            if (position == upload.getLength()) {
+                complete(upload);
+            }
+            return upload;
+        } finally {
+            release(id, lock, removed);
+        }
+    }
+
+    // Throws IllegalStateException while a PATCH of this upload is still being received
+    public boolean terminate(String id) throws IOException {
+        if (find(id) == null) {
+            return false;
+        }
+        ReentrantLock lock = tryLock(id);
+        if (lock == null) {
+            throw new IllegalStateException("A chunk of this upload is still being received");
+        }
+        try {
+            Files.deleteIfExists(partFile(id));
+            return Files.deleteIfExists(stateFile(id));
+        } finally {
+            release(id, lock, true);
+        }
+    }
+
+    // The upload's lock, now held by this thread, or null if another thread holds it. Between
+    // computeIfAbsent and tryLock the entry can be removed by a thread that deleted the upload; locking
+    // that stale lock would not exclude anyone who maps the id afterwards, so look again.
+    private ReentrantLock tryLock(String id) {
+        while (true) {
+            ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+            if (!lock.tryLock()) {
+                return null;
+            }
+            if (locks.get(id) == lock) {
+                return lock;
+            }
+            lock.unlock();
+        }
+    }
+
+    // removed: the upload's files are gone, so drop its entry while still holding the lock
+    private void release(String id, ReentrantLock lock, boolean removed) {
+        if (removed) {
+            locks.remove(id, lock);
+        }
+        lock.unlock();
+    }
+
+    private void complete(ResumableUpload upload) throws IOException {
+        Path part = partFile(upload.getId());
+        String url = s3Service.uploadVideoFile(part, upload.getFilename(), upload.getContentType());
+        upload.setUrl(url);
+        writeState(upload);
+        Files.delete(part);
+    }
+
+    // ---------------- CLEANUP ----------------
+    // Unfinished uploads are dropped after expire-after; finished ones keep their state file until
+    // then so a client that lost the final response can still HEAD/PATCH and get the URL.
+    @Scheduled(fixedDelayString = "${farafina.uploads.resumable.cleanup-interval:PT1H}")
+    public void removeExpired() {
+        Instant now = Instant.now();
+        int removed = 0;
+        try (DirectoryStream<Path> states = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path state : states) {
+                String id = state.getFileName().toString().replace(".json", "");
+                try {
+                    ResumableUpload upload = find(id);
+                    if (upload != null && expiresAt(upload).isBefore(now)) {
+                        // Busy uploads are left for the next run
+                        ReentrantLock lock = tryLock(id);
+                        if (lock != null) {
+                            try {
+                                Files.deleteIfExists(partFile(id));
+                                Files.deleteIfExists(state);
+                                removed++;
+                            } finally {
+                                release(id, lock, true);
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not check resumable upload {}: {}", id, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not list resumable uploads in {}", directory, e);
+        }
+        if (removed > 0) {
+            log.info("Removed {} expired resumable uploads", removed);
+        }
+    }
+
+    private void writeState(ResumableUpload upload) throws IOException {
+        // Write-then-rename so a crash never leaves a truncated state file
+        Path temp = directory.resolve(upload.getId() + ".json.tmp");
+        objectMapper.writeValue(temp.toFile(), upload);
+        Files.move(temp, stateFile(upload.getId()), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path partFile(String id) {
+        return directory.resolve(id + ".part");
+    }
+
+    private Path stateFile(String id) {
+        return directory.resolve(id + ".json");
+    }
+}
@@ -0,0 +1,280 @@
+package com.mano.Farafina_Backend.services.search;
+
+import com.mano.Farafina_Backend.dto.SearchCursor;
+import com.mano.Farafina_Backend.entity.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over product text, ranked with BM25.
+// Built once from the products table at startup and kept current by ProductService writes.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // BM25 tuning (standard defaults)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field boosts: a term in the name counts more than the same term in the description
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float SHOP_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // The last query term also matches longer terms ("tele" -> "television") at a discount
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final double PREFIX_DISCOUNT = 0.5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // term -> (productId -> weighted term frequency); sorted so prefix lookups are a range scan
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // productId -> its weighted terms, kept so a product can be removed without re-reading it
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final Map<Long, Double> documentLengths = new HashMap<>();
+    private double totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Products indexed or removed while rebuild() reads the table, by id, with their latest terms (null
+    // once removed). The SELECT may have missed them, so they are applied again on top of what it
+    // loaded. Null when no rebuild is running; guarded by the write lock.
+    private Map<Long, Map<String, Float>> changedDuringRebuild;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Autowired
+    public ProductSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ---------------- BUILD ----------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            Map<Long, Map<String, Float>> loaded = new HashMap<>();
+
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                jdbcTemplate.query("SELECT id, product_name, description, category, shop_name FROM products", rs -> {
+                    loaded.put(rs.getLong("id"), analyze(
+                            rs.getString("product_name"),
+                            rs.getString("description"),
+                            rs.getString("category"),
+                            rs.getString("shop_name")));
+                });
+            } catch (RuntimeException e) {
+                // The live index already has every change; keep it
+                lock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            int terms;
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documents.clear();
+                documentLengths.clear();
+                totalLength = 0;
+                loaded.forEach(this::addDocument);
+                changedDuringRebuild.forEach((productId, latest) -> {
+                    removeDocument(productId);
+                    if (latest != null) {
+                        addDocument(productId, latest);
+                    }
+                });
+                changedDuringRebuild = null;
+                ready = true;
+                terms = postings.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Search index built: {} products, {} terms in {} ms", loaded.size(), terms,
+                    System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---------------- UPDATE ----------------
+    public void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        Map<String, Float> terms = analyze(product.getProductName(), product.getDescription(),
+                product.getCategory(), product.getShopName());
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product.getId(), terms);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(product.getId(), terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(productId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------- SEARCH ----------------
+    // Returns up to limit hits after the cursor, ordered by (score DESC, productId DESC)
+    public List<SearchHit> search(String query, SearchCursor after, int limit) {
+        List<String> queryTerms = SearchTextAnalyzer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = totalLength / documentCount;
+
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                accumulate(term, 1.0, documentCount, averageLength, scores);
+
+                boolean lastTerm = i == queryTerms.size() - 1;
+                if (lastTerm && term.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        accumulate(candidate, PREFIX_DISCOUNT, documentCount, averageLength, scores);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Bounded heap of the best hits past the cursor; the head is the worst hit kept so far
+        Comparator<SearchHit> ranking = Comparator.comparingDouble(SearchHit::getScore)
+                .thenComparing(SearchHit::getProductId);
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            SearchHit hit = new SearchHit(entry.getKey(), entry.getValue());
+            if (after != null && !isAfter(hit, after)) {
+                continue;
+            }
+            best.offer(hit);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    private void accumulate(String term, double boost, int documentCount, double averageLength,
+                            Map<Long, Double> scores) {
+        Map<Long, Float> matches = postings.get(term);
+        if (matches == null) {
+            return;
+        }
+        double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+        for (Map.Entry<Long, Float> match : matches.entrySet()) {
+            double tf = match.getValue();
+            double length = documentLengths.getOrDefault(match.getKey(), 0.0);
+            double norm = tf + K1 * (1 - B + B * length / averageLength);
+            scores.merge(match.getKey(), boost * idf * tf * (K1 + 1) / norm, Double::sum);
+        }
+    }
+
+    private boolean isAfter(SearchHit hit, SearchCursor cursor) {
+        return hit.getScore() < cursor.getScore()
+                || (hit.getScore() == cursor.getScore() && hit.getProductId() < cursor.getId());
+    }
+
+    // ---------------- INTERNALS (callers hold the write lock) ----------------
+    private void addDocument(Long productId, Map<String, Float> terms) {
+        documents.put(productId, terms);
+        double length = 0;
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(productId, term.getValue());
+            length += term.getValue();
+        }
+        documentLengths.put(productId, length);
+        totalLength += length;
+    }
+
+    private void removeDocument(Long productId) {
+        Map<String, Float> terms = documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(productId);
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            Map<Long, Float> matches = postings.get(term.getKey());
+            if (matches != null) {
+                matches.remove(productId);
+                if (matches.isEmpty()) {
+                    postings.remove(term.getKey());
+                }
+            }
+        }
+    }
+
+    private Map<String, Float> analyze(String name, String description, String category, String shopName) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, name, NAME_WEIGHT);
+        addField(terms, description, DESCRIPTION_WEIGHT);
+        addField(terms, category, CATEGORY_WEIGHT);
+        addField(terms, shopName, SHOP_WEIGHT);
+        return terms;
+    }
+
+    private void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : SearchTextAnalyzer.tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.mano.Farafina_Backend.services.search;
+
+public class SearchHit {
+
+    private final Long productId;
+    private final double score;
+
+    public SearchHit(Long productId, double score) {
+        this.productId = productId;
+        this.score = score;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
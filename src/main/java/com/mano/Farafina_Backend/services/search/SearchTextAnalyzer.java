@@ -0,0 +1,55 @@
+package com.mano.Farafina_Backend.services.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Turns product text into index terms: lowercase, accent folding (French and Bambara), stopword removal
+public final class SearchTextAnalyzer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // French
+            "le", "la", "les", "de", "des", "du", "un", "une", "et", "en", "au", "aux",
+            "pour", "par", "sur", "avec", "dans", "ou", "est", "ce", "ces", "se", "sa", "son",
+            // English
+            "the", "an", "of", "and", "for", "in", "on", "to", "with", "is", "or"
+    );
+
+    private SearchTextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : NON_ALPHANUMERIC.split(fold(text))) {
+            if (token.length() >= MIN_TOKEN_LENGTH && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // "Télévision", "television" and "TELEVISION" all fold to "television"
+    public static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT)
+                // Bambara letters that have no Unicode decomposition
+                .replace("ɛ", "e")
+                .replace("ɔ", "o")
+                .replace("ɲ", "ny")
+                .replace("ŋ", "ng")
+                // French ligatures
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+}
@@ -0,0 +1,169 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Objects are plain files under farafina.storage.local.root, served back by MediaController.
+// Writes go through FileChannel.transferFrom into a temp file that is renamed into place, so a
+// reader never sees a half-written object. For disk-backed inputs (multipart temp files) the
+// transfer is channel-to-channel and never copies through a Java heap buffer.
+@Component
+@ConditionalOnProperty(name = "farafina.storage.backend", havingValue = "local")
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    // Direct uploads are PUT to this endpoint (DirectUploadController) with a signed token
+    private static final String DIRECT_UPLOAD_PATH = "/api/uploads/direct/";
+
+    private final Path root;
+    private final String publicUrl;
+    private final UploadTokens uploadTokens;
+    private final StorageMetrics storageMetrics;
+
+    @Autowired
+    public LocalStorageBackend(@Value("${farafina.storage.local.root:./data/media}") Path root,
+                               @Value("${farafina.storage.local.public-url:/media}") String publicUrl,
+                               UploadTokens uploadTokens,
+                               StorageMetrics storageMetrics) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.replaceAll("/+$", "");
+        this.uploadTokens = uploadTokens;
+        this.storageMetrics = storageMetrics;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream input, long size) throws IOException {
+        timedWrite(key, input, size, "single");
+    }
+
+    @Override
+    public long putStream(String key, String contentType, InputStream input, long maxBytes) throws IOException {
+        return timedWrite(key, input, maxBytes, "stream");
+    }
+
+    private long timedWrite(String key, InputStream input, long maxBytes, String method) throws IOException {
+        Timer.Sample sample = storageMetrics.start();
+        long written = -1;
+        try {
+            written = write(key, input, maxBytes);
+            return written;
+        } finally {
+            storageMetrics.uploaded(sample, "local", method, written, written >= 0);
+        }
+    }
+
+    @Override
+    public void move(String fromKey, String toKey) throws IOException {
+        Path target = resolve(toKey);
+        Files.createDirectories(target.getParent());
+        Files.move(resolve(fromKey), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream openRange(String key, long start, long endInclusive) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(start);
+        return new BoundedInputStream(Channels.newInputStream(channel), endInclusive - start + 1);
+    }
+
+    // Objects are never rewritten in place (writes rename a new file over the old one), so size
+    // plus modification time identifies the content
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Instant lastModified = attributes.lastModifiedTime().toInstant();
+        String etag = "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+        String contentType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .map(MediaType::toString)
+                .orElse(null);
+        return Optional.of(new StoredObject(key, attributes.size(), etag, lastModified, contentType));
+    }
+
+    // The token carries key, content type, expected hash and size cap; the receiving endpoint checks all four
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType, String sha256, long maxBytes, Duration ttl) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        String token = uploadTokens.issue(List.of("put", key, contentType, sha256 == null ? "" : sha256,
+                String.valueOf(maxBytes)), expiresAt);
+        return new PresignedUpload(DIRECT_UPLOAD_PATH + token, Map.of("Content-Type", contentType), expiresAt);
+    }
+
+    @Override
+    public String url(String key) {
+        return publicUrl + "/" + key;
+    }
+
+    // Keys are relative paths; anything escaping the root ("../") is rejected
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private long write(String key, InputStream input, long maxBytes) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long written = 0;
+            try (ReadableByteChannel source = input instanceof FileInputStream file ?
+                         file.getChannel() : Channels.newChannel(input);
+                 FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                // A blocking source only transfers 0 bytes at end of stream. Each chunk asks for at most
+                // one byte past the cap, so an oversized body is cut off as soon as it crosses it.
+                long transferred;
+                while ((transferred = channel.transferFrom(source, written,
+                        Math.min(TRANSFER_CHUNK, maxBytes - written) + 1)) > 0) {
+                    written += transferred;
+                    if (written > maxBytes) {
+                        throw new UploadTooLargeException(maxBytes);
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Everything a client needs to send an object without going through the API: the method and URL,
+// the headers that were signed into it and must be sent unchanged, and for POST the form fields
+// that go before the file in the multipart/form-data body
+public class PresignedUpload {
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers;
+    private final Map<String, String> fields;
+    private final Instant expiresAt;
+
+    public PresignedUpload(String url, Map<String, String> headers, Instant expiresAt) {
+        this("PUT", url, headers, Map.of(), expiresAt);
+    }
+
+    public PresignedUpload(String method, String url, Map<String, String> headers, Map<String, String> fields,
+                           Instant expiresAt) {
+        this.method = method;
+        this.url = url;
+        this.headers = headers;
+        this.fields = fields;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
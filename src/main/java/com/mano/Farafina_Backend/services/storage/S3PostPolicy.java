@@ -0,0 +1,89 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Browser-form (POST Object) upload signed with SigV4. Unlike a presigned PUT, the signed policy can
+// carry a content-length-range, so S3 itself refuses a body over the cap before storing anything.
+final class S3PostPolicy {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper;
+    private final String region;
+
+    S3PostPolicy(ObjectMapper objectMapper, String region) {
+        this.objectMapper = objectMapper;
+        this.region = region;
+    }
+
+    // url is the bucket endpoint. The returned fields go first in the multipart/form-data body, the
+    // file last. With a sha256, S3 also rejects a body with any other checksum.
+    PresignedUpload sign(String url, String bucket, String key, String contentType, String sha256, long maxBytes,
+                         AwsCredentials credentials, Instant now, Duration ttl) {
+        String scope = DATE.format(now) + "/" + region + "/s3/aws4_request";
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("key", key);
+        fields.put("Content-Type", contentType);
+        if (sha256 != null) {
+            fields.put("x-amz-checksum-algorithm", "SHA256");
+            fields.put("x-amz-checksum-sha256", Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256)));
+        }
+        fields.put("x-amz-algorithm", ALGORITHM);
+        fields.put("x-amz-credential", credentials.accessKeyId() + "/" + scope);
+        fields.put("x-amz-date", DATE_TIME.format(now));
+        if (credentials instanceof AwsSessionCredentials session) {
+            fields.put("x-amz-security-token", session.sessionToken());
+        }
+
+        Instant expiresAt = now.plus(ttl);
+        ObjectNode policy = objectMapper.createObjectNode();
+        policy.put("expiration", DateTimeFormatter.ISO_INSTANT.format(expiresAt));
+        ArrayNode conditions = policy.putArray("conditions");
+        conditions.addObject().put("bucket", bucket);
+        fields.forEach((name, value) -> conditions.addObject().put(name, value));
+        conditions.addArray().add("content-length-range").add(1).add(maxBytes);
+
+        String encodedPolicy = Base64.getEncoder().encodeToString(policy.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signingKey = signingKey(credentials.secretAccessKey(), DATE.format(now), region, "s3");
+        fields.put("policy", encodedPolicy);
+        fields.put("x-amz-signature", HexFormat.of().formatHex(hmac(signingKey, encodedPolicy)));
+        return new PresignedUpload("POST", url, Map.of(), fields, expiresAt);
+    }
+
+    static byte[] signingKey(String secretKey, String date, String region, String service) {
+        byte[] dateKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        byte[] regionKey = hmac(dateKey, region);
+        byte[] serviceKey = hmac(regionKey, service);
+        return hmac(serviceKey, "aws4_request");
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
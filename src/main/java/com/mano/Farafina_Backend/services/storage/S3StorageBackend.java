@@ -0,0 +1,173 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.services.S3MultipartUploader;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "farafina.storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3StorageBackend implements StorageBackend {
+
+    // A single CopyObject accepts sources up to 5 GB
+    private static final long MAX_SINGLE_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final ObjectMapper objectMapper;
+    private final S3MultipartUploader multipartUploader;
+    private final StorageMetrics storageMetrics;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${aws.s3.region}")
+    private String region;
+
+    // CDN or S3-compatible endpoint in front of the bucket; empty = the bucket's amazonaws.com URL
+    @Value("${aws.s3.public-url:}")
+    private String publicUrl;
+
+    @Autowired
+    public S3StorageBackend(S3Client s3Client, AwsCredentialsProvider credentialsProvider,
+                            S3MultipartUploader multipartUploader, StorageMetrics storageMetrics,
+                            ObjectMapper objectMapper) {
+        this.s3Client = s3Client;
+        this.credentialsProvider = credentialsProvider;
+        this.objectMapper = objectMapper;
+        this.multipartUploader = multipartUploader;
+        this.storageMetrics = storageMetrics;
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream input, long size) throws IOException {
+        // Large objects go up as parallel parts instead of one long PUT
+        boolean multipart = size > multipartUploader.getPartSize();
+        Timer.Sample sample = storageMetrics.start();
+        boolean success = false;
+        try {
+            if (multipart) {
+                multipartUploader.upload(key, contentType, input, size);
+            } else {
+                // FIXED: Removed ACL setting since your bucket doesn't allow ACLs
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build();
+
+                s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(input, size));
+            }
+            success = true;
+        } finally {
+            storageMetrics.uploaded(sample, "s3", multipart ? "multipart" : "single", size, success);
+        }
+    }
+
+    @Override
+    public long putStream(String key, String contentType, InputStream input, long maxBytes) throws IOException {
+        Timer.Sample sample = storageMetrics.start();
+        long uploaded = -1;
+        try {
+            uploaded = multipartUploader.upload(key, contentType, input, maxBytes);
+            return uploaded;
+        } finally {
+            storageMetrics.uploaded(sample, "s3", "stream", uploaded, uploaded >= 0);
+        }
+    }
+
+    // Server-side copy, no bytes pass through us. Past 5 GB the copy goes part by part (UploadPartCopy).
+    @Override
+    public void move(String fromKey, String toKey) throws IOException {
+        HeadObjectResponse source = s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fromKey)
+                .build());
+        if (source.contentLength() > MAX_SINGLE_COPY_SIZE) {
+            multipartUploader.copy(fromKey, toKey, source.contentType(), source.contentLength());
+        } else {
+            s3Client.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucketName)
+                    .sourceKey(fromKey)
+                    .destinationBucket(bucketName)
+                    .destinationKey(toKey)
+                    .build());
+        }
+        delete(fromKey);
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    @Override
+    public InputStream openRange(String key, long start, long endInclusive) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + start + "-" + endInclusive)
+                .build());
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return Optional.of(new StoredObject(key, head.contentLength(), head.eTag(), head.lastModified(),
+                    head.contentType()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Signed POST form rather than a presigned PUT: the policy carries content-length-range, so S3 refuses
+    // an oversized body itself, and with a sha256 the checksum is signed in too
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType, String sha256, long maxBytes, Duration ttl) {
+        // The bucket endpoint as the client resolves it (virtual-hosted, path-style or overridden)
+        String objectUrl = s3Client.utilities().getUrl(GetUrlRequest.builder()
+                .bucket(bucketName)
+                .key("_")
+                .build()).toString();
+        String bucketUrl = objectUrl.substring(0, objectUrl.length() - 1);
+        return new S3PostPolicy(objectMapper, region).sign(bucketUrl, bucketName, key, contentType, sha256, maxBytes,
+                credentialsProvider.resolveCredentials(), Instant.now(), ttl);
+    }
+
+    @Override
+    public String url(String key) {
+        if (!publicUrl.isBlank()) {
+            return publicUrl.replaceAll("/+$", "") + "/" + key;
+        }
+        return String.format("https://%s.s3.%s.amazonaws.com/%s",
+                bucketName, region, key);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+
+// Where uploaded media ends up. Selected with farafina.storage.backend (s3 | local).
+public interface StorageBackend {
+
+    // Length known up front (multipart form files, generated variants)
+    void put(String key, String contentType, InputStream input, long size) throws IOException;
+
+    // Length unknown (raw request bodies); returns the number of bytes stored. Throws
+    // UploadTooLargeException, storing nothing, once more than maxBytes have arrived.
+    long putStream(String key, String contentType, InputStream input, long maxBytes) throws IOException;
+
+    default void putBytes(String key, String contentType, byte[] bytes) throws IOException {
+        put(key, contentType, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    // Renames an object (streamed uploads land on a temporary key until their hash is known)
+    void move(String fromKey, String toKey) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    // Bytes start..endInclusive, for HTTP Range requests
+    InputStream openRange(String key, long start, long endInclusive) throws IOException;
+
+    // Empty if the object does not exist
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    // Short-lived URL the client sends the bytes to directly. The backend rejects a body over maxBytes
+    // and, when sha256 is given, one that does not match it.
+    PresignedUpload presignUpload(String key, String contentType, String sha256, long maxBytes, Duration ttl);
+
+    // Public URL clients use to fetch the object
+    String url(String key);
+}
@@ -0,0 +1,48 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Upload duration (farafina.storage.upload) and size (farafina.storage.upload.size) per backend and
+// method: single = one PUT / file write, multipart = parallel S3 parts, stream = length not known up front
+@Component
+public class StorageMetrics {
+
+    private static final double MIN_EXPECTED_BYTES = 1024;
+    private static final double MAX_EXPECTED_BYTES = 5L * 1024 * 1024 * 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public StorageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    // bytes < 0 when unknown (failed stream); the size histogram only counts stored objects
+    public void uploaded(Timer.Sample sample, String backend, String method, long bytes, boolean success) {
+        sample.stop(Timer.builder("farafina.storage.upload")
+                .description("Time to store one object")
+                .tag("backend", backend)
+                .tag("method", method)
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry));
+        if (success && bytes >= 0) {
+            DistributionSummary.builder("farafina.storage.upload.size")
+                    .description("Size of stored objects")
+                    .baseUnit("bytes")
+                    .tag("backend", backend)
+                    .tag("method", method)
+                    .minimumExpectedValue(MIN_EXPECTED_BYTES)
+                    .maximumExpectedValue(MAX_EXPECTED_BYTES)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+}
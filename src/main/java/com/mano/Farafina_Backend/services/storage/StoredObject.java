@@ -0,0 +1,43 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import java.time.Instant;
+
+// Metadata of a stored object, enough to answer conditional and Range requests without reading it
+public class StoredObject {
+
+    private final String key;
+    private final long size;
+    private final String etag;
+    private final Instant lastModified;
+    private final String contentType;
+
+    public StoredObject(String key, long size, String etag, Instant lastModified, String contentType) {
+        this.key = key;
+        this.size = size;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // Quoted strong ETag, e.g. "\"5f2c...\""
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    // May be null when the backend does not record it
+    public String getContentType() {
+        return contentType;
+    }
+}
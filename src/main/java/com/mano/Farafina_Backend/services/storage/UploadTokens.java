@@ -0,0 +1,92 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+// Stateless HMAC-SHA256 tokens: "<base64url(field|field|...|expiry)>.<base64url(mac)>".
+// Used for local-backend upload URLs and for completion callbacks, so the server never has to
+// remember what it handed out.
+@Component
+public class UploadTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadTokens.class);
+    private static final String SEPARATOR = "|";
+
+    private final byte[] secret;
+
+    @Autowired
+    public UploadTokens(@Value("${farafina.uploads.token-secret:}") String secret) {
+        if (secret.isBlank()) {
+            // Fine for one instance; several instances must share farafina.uploads.token-secret
+            log.warn("farafina.uploads.token-secret not set, using a random per-process secret");
+            this.secret = new byte[32];
+            new SecureRandom().nextBytes(this.secret);
+        } else {
+            this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public String issue(List<String> fields, Instant expiresAt) {
+        List<String> parts = new ArrayList<>(fields);
+        parts.add(String.valueOf(expiresAt.getEpochSecond()));
+        for (String part : parts) {
+            if (part.contains(SEPARATOR)) {
+                throw new IllegalArgumentException("Token field contains '" + SEPARATOR + "': " + part);
+            }
+        }
+        byte[] payload = String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + "." + encoder.encodeToString(mac(payload));
+    }
+
+    // Returns the fields passed to issue(); throws IllegalArgumentException if forged or expired
+    public List<String> verify(String token) {
+        int dot = token == null ? -1 : token.indexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("Invalid upload token");
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid upload token");
+        }
+        if (!MessageDigest.isEqual(mac(payload), signature)) {
+            throw new IllegalArgumentException("Invalid upload token");
+        }
+
+        List<String> parts = Arrays.asList(new String(payload, StandardCharsets.UTF_8).split("\\|", -1));
+        long expiresAt = Long.parseLong(parts.get(parts.size() - 1));
+        if (Instant.now().getEpochSecond() > expiresAt) {
+            throw new IllegalArgumentException("Upload token expired");
+        }
+        return parts.subList(0, parts.size() - 1);
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import java.io.IOException;
+
+// A streamed body went past its size cap; nothing was stored (S3 uploads are aborted, local temp files deleted)
+public class UploadTooLargeException extends IOException {
+
+    private final long maxBytes;
+
+    public UploadTooLargeException(long maxBytes) {
+        super("Upload exceeds " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
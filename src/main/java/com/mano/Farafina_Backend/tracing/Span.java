@@ -0,0 +1,63 @@
+package com.mano.Farafina_Backend.tracing;
+
+// One timed operation inside a request. Times are microseconds relative to the start of the trace.
+public class Span {
+
+    private final int id;
+    private final int parentId;
+    private final String category;
+    private final String name;
+    private final String detail;
+    private final long startMicros;
+    private long durationMicros;
+    private boolean error;
+
+    Span(int id, int parentId, String category, String name, String detail, long startMicros) {
+        this.id = id;
+        this.parentId = parentId;
+        this.category = category;
+        this.name = name;
+        this.detail = detail;
+        this.startMicros = startMicros;
+    }
+
+    void end(long durationMicros, boolean error) {
+        this.durationMicros = durationMicros;
+        this.error = error;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // 0 for spans directly under the request
+    public int getParentId() {
+        return parentId;
+    }
+
+    // service, repository, jdbc, storage, crypto or serialization
+    public String getCategory() {
+        return category;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Statement text for jdbc spans, null otherwise
+    public String getDetail() {
+        return detail;
+    }
+
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+}
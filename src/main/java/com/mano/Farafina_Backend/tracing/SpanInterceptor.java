@@ -0,0 +1,33 @@
+package com.mano.Farafina_Backend.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+// Wraps each call on a traced bean in a span named <bean>.<method>, e.g. userRepository.findByUsername
+public class SpanInterceptor implements MethodInterceptor {
+
+    private final String category;
+    private final String beanName;
+
+    public SpanInterceptor(String category, String beanName) {
+        this.category = category;
+        this.beanName = beanName;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TraceContext.currentTraceId() == null || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Span span = TraceContext.start(category, beanName + "." + invocation.getMethod().getName());
+        boolean failed = false;
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            failed = true;
+            throw t;
+        } finally {
+            TraceContext.finish(span, failed);
+        }
+    }
+}
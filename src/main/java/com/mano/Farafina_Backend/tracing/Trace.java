@@ -0,0 +1,150 @@
+package com.mano.Farafina_Backend.tracing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Everything recorded for one HTTP request. Only the request thread writes to it while it is open;
+// once TraceRecorder keeps it, it is read-only.
+public class Trace {
+
+    // Time not covered by any span: filters, controller code, waiting for the client
+    public static final String REQUEST_CATEGORY = "request";
+
+    private final String traceId;
+    private final String method;
+    private final String path;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+
+    private final List<Span> spans = new ArrayList<>();
+    private final Deque<Span> open = new ArrayDeque<>();
+    private int droppedSpans;
+
+    private String uri;
+    private int status;
+    private long durationMicros;
+    private String keptBecause;
+
+    Trace(String traceId, String method, String path, int maxSpans) {
+        this.traceId = traceId;
+        this.method = method;
+        this.path = path;
+        this.maxSpans = maxSpans;
+    }
+
+    // Null once maxSpans is reached; the rest are only counted
+    Span open(String category, String name, String detail) {
+        Span span = add(category, name, detail, System.nanoTime());
+        if (span != null) {
+            open.push(span);
+        }
+        return span;
+    }
+
+    void close(Span span, boolean error) {
+        span.end(micros(System.nanoTime()) - span.getStartMicros(), error);
+        // Spans close in reverse order of opening, even when a call throws
+        while (!open.isEmpty() && open.pop() != span) {
+            // unbalanced inner span; drop it from the stack
+        }
+    }
+
+    // A finished operation timed by the caller, nested under whatever span is open
+    void record(String category, String name, String detail, long startNanos, long elapsedNanos, boolean error) {
+        Span span = add(category, name, detail, startNanos);
+        if (span != null) {
+            span.end(elapsedNanos / 1000, error);
+        }
+    }
+
+    private Span add(String category, String name, String detail, long startNanos) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return null;
+        }
+        Span parent = open.peek();
+        Span span = new Span(spans.size() + 1, parent != null ? parent.getId() : 0, category, name, detail,
+                micros(startNanos));
+        spans.add(span);
+        return span;
+    }
+
+    void finish(String uri, int status) {
+        this.uri = uri;
+        this.status = status;
+        this.durationMicros = micros(System.nanoTime());
+    }
+
+    void keep(String reason) {
+        this.keptBecause = reason;
+    }
+
+    private long micros(long nanos) {
+        return (nanos - startNanos) / 1000;
+    }
+
+    // Exclusive time per category: a span's duration minus its children's, so nothing is counted twice.
+    // "request" is whatever the top-level spans leave of the total.
+    public Map<String, Long> exclusiveMicrosByCategory() {
+        Map<Integer, Long> childTime = new LinkedHashMap<>();
+        for (Span span : spans) {
+            childTime.merge(span.getParentId(), span.getDurationMicros(), Long::sum);
+        }
+        Map<String, Long> byCategory = new LinkedHashMap<>();
+        byCategory.put(REQUEST_CATEGORY, Math.max(0, durationMicros - childTime.getOrDefault(0, 0L)));
+        for (Span span : spans) {
+            long exclusive = span.getDurationMicros() - childTime.getOrDefault(span.getId(), 0L);
+            byCategory.merge(span.getCategory(), Math.max(0, exclusive), Long::sum);
+        }
+        return byCategory;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // Route template, e.g. /api/products/{id}
+    public String getUri() {
+        return uri;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    // slow, error or sampled
+    public String getKeptBecause() {
+        return keptBecause;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mano.Farafina_Backend.tracing;
+
+// The trace of the request running on this thread, set by TracingFilter. Outside a request (startup,
+// scheduled jobs, streaming response threads) there is none and every call here is a no-op.
+public final class TraceContext {
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {}
+
+    static Trace begin(String traceId, String method, String path, int maxSpans) {
+        Trace trace = new Trace(traceId, method, path, maxSpans);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static String currentTraceId() {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.getTraceId() : null;
+    }
+
+    // Opens a span nested under the innermost open one; pass the result to finish() in a finally block
+    public static Span start(String category, String name) {
+        Trace trace = CURRENT.get();
+        return trace != null ? trace.open(category, name, null) : null;
+    }
+
+    public static void finish(Span span, boolean error) {
+        Trace trace = CURRENT.get();
+        if (trace != null && span != null) {
+            trace.close(span, error);
+        }
+    }
+
+    // For work the caller already timed, such as a JDBC statement seen by the datasource listener
+    public static void record(String category, String name, String detail, long startNanos, long elapsedNanos,
+                              boolean error) {
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.record(category, name, detail, startNanos, elapsedNanos, error);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mano.Farafina_Backend.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Tail sampling: the keep/drop decision is made once the request has finished, so every slow or failed
+// request is kept in full, plus a small random share of normal ones for comparison. Kept traces go into
+// a fixed-size ring buffer (newest replaces oldest) read by TracesEndpoint; nothing leaves the process.
+// The ring is lock-free: request threads claim a slot with one atomic increment and never block.
+@Component
+public class TraceRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private final boolean enabled;
+    private final Duration slowThreshold;
+    private final double sampleRate;
+    private final int bufferSize;
+    private final int maxSpans;
+
+    private final AtomicReferenceArray<Trace> kept;
+    // Traces ever kept; the next one goes to slot written % bufferSize
+    private final AtomicLong written = new AtomicLong();
+
+    @Autowired
+    public TraceRecorder(@Value("${farafina.tracing.enabled:true}") boolean enabled,
+                         @Value("${farafina.tracing.slow-threshold:PT0.5S}") Duration slowThreshold,
+                         @Value("${farafina.tracing.sample-rate:0.01}") double sampleRate,
+                         @Value("${farafina.tracing.buffer-size:200}") int bufferSize,
+                         @Value("${farafina.tracing.max-spans:1000}") int maxSpans) {
+        this.enabled = enabled;
+        this.slowThreshold = slowThreshold;
+        this.sampleRate = sampleRate;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSpans = Math.max(1, maxSpans);
+        this.kept = new AtomicReferenceArray<>(this.bufferSize);
+    }
+
+    public void completed(Trace trace, boolean failed) {
+        String reason;
+        if (trace.getDurationMicros() >= slowThreshold.toNanos() / 1000) {
+            reason = "slow";
+        } else if (failed || trace.getStatus() >= 500) {
+            reason = "error";
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            reason = "sampled";
+        } else {
+            return;
+        }
+        trace.keep(reason);
+
+        kept.set((int) (written.getAndIncrement() % bufferSize), trace);
+        if (!"sampled".equals(reason) && log.isDebugEnabled()) {
+            log.debug("Traced {} request {} {} status={} {}ms trace={} exclusiveMicros={}", reason, trace.getMethod(),
+                    trace.getPath(), trace.getStatus(), trace.getDurationMicros() / 1000, trace.getTraceId(),
+                    trace.exclusiveMicrosByCategory());
+        }
+    }
+
+    // Newest first. Slots written while this runs may show up out of order or be skipped; it is a
+    // debugging view, not a log.
+    public List<Trace> getTraces() {
+        long end = written.get();
+        int count = (int) Math.min(end, bufferSize);
+        List<Trace> traces = new ArrayList<>(count);
+        for (long i = end - 1; i >= end - count; i--) {
+            Trace trace = kept.get((int) (i % bufferSize));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public Trace getTrace(String traceId) {
+        for (int i = 0; i < bufferSize; i++) {
+            Trace trace = kept.get(i);
+            if (trace != null && trace.getTraceId().equals(traceId)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+
+    public Map<String, Object> getSettings() {
+        return Map.of(
+                "slowThresholdMs", slowThreshold.toMillis(),
+                "sampleRate", sampleRate,
+                "bufferSize", bufferSize,
+                "maxSpans", maxSpans
+        );
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxSpans() {
+        return maxSpans;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mano.Farafina_Backend.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// /actuator/traces lists the kept traces, newest first, with time per span category;
+// /actuator/traces/{traceId} (the X-Trace-Id response header) returns one with all its spans.
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final TraceRecorder recorder;
+
+    @Autowired
+    public TracesEndpoint(TraceRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces() {
+        List<Map<String, Object>> traces = new ArrayList<>();
+        for (Trace trace : recorder.getTraces()) {
+            traces.add(summary(trace));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("settings", recorder.getSettings());
+        response.put("traces", traces);
+        return response;
+    }
+
+    // Null answers 404
+    @ReadOperation
+    public Map<String, Object> trace(@Selector String traceId) {
+        Trace trace = recorder.getTrace(traceId);
+        if (trace == null) {
+            return null;
+        }
+        Map<String, Object> response = summary(trace);
+        response.put("spans", trace.getSpans());
+        return response;
+    }
+
+    private static Map<String, Object> summary(Trace trace) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("traceId", trace.getTraceId());
+        summary.put("startedAt", trace.getStartedAt().toString());
+        summary.put("method", trace.getMethod());
+        summary.put("uri", trace.getUri());
+        summary.put("path", trace.getPath());
+        summary.put("status", trace.getStatus());
+        summary.put("durationMicros", trace.getDurationMicros());
+        summary.put("keptBecause", trace.getKeptBecause());
+        summary.put("spanCount", trace.getSpans().size());
+        summary.put("droppedSpans", trace.getDroppedSpans());
+        summary.put("exclusiveMicros", trace.exclusiveMicrosByCategory());
+        return summary;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mano.Farafina_Backend.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Boot's JSON converter with serialization spans. Writing streams straight into the response, so a
+// "serialization" span also includes the time the client takes to accept the bytes.
+public class TracingJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TracingJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        Span span = TraceContext.start("serialization", "read " + name(type));
+        boolean failed = false;
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            TraceContext.finish(span, failed);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Span span = TraceContext.start("serialization", "write " + object.getClass().getSimpleName());
+        boolean failed = false;
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        } finally {
+            TraceContext.finish(span, failed);
+        }
+    }
+
+    private static String name(Type type) {
+        return type instanceof Class<?> c ? c.getSimpleName() : type.getTypeName();
+    }
+}
@@ -0,0 +1,9 @@
+-- One-off migration for databases created before uk_product_likes_product_user. Run it once by hand,
+-- before deploying the build that likes through INSERT ... ON DUPLICATE KEY UPDATE:
+--   mysql farafina_database < V1__product_likes_unique_key.sql
+-- The DELETE keeps the oldest like of each (product_id, user_id) pair. Afterwards, POST /actuator/counters
+-- so likes_count matches the rows left.
+DELETE FROM product_likes WHERE id NOT IN (
+    SELECT keep_id FROM (SELECT MIN(id) AS keep_id FROM product_likes GROUP BY product_id, user_id) keep_rows);
+
+ALTER TABLE product_likes ADD CONSTRAINT uk_product_likes_product_user UNIQUE (product_id, user_id);
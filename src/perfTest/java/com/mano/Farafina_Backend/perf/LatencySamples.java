@@ -0,0 +1,64 @@
+package com.mano.Farafina_Backend.perf;
+
+import java.util.Arrays;
+
+// Every successful response time of one operation (nanoseconds) plus the failure count.
+// Kept raw rather than bucketed so percentiles are exact; one instance per worker, merged after the run.
+public class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted;
+
+    public void record(long nanos) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[count++] = nanos;
+        sorted = false;
+    }
+
+    public void error() {
+        errors++;
+    }
+
+    public void addAll(LatencySamples other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.values[i]);
+        }
+        errors += other.errors;
+    }
+
+    // Nearest-rank percentile, p in (0, 100]
+    public long percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return values[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    public long mean() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += values[i];
+        }
+        return total / count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mano.Farafina_Backend.perf;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Endpoints in the scripted mix; weights are the share of requests out of 100, roughly the production ratio
+public enum Operation {
+
+    BROWSE("browse", 30),   // GET /api/products, following nextCursor now and then
+    SEARCH("search", 20),   // GET /api/products?search=...&category=...
+    DETAIL("detail", 25),   // GET /api/products/{id}
+    LIKE("like", 10),       // POST /api/products/{id}/like
+    COMMENT("comment", 6),  // POST /api/products/{id}/comment
+    LOGIN("login", 7),      // POST /login
+    SIGNUP("signup", 2);    // POST /signup
+
+    private static final int TOTAL_WEIGHT = 100;
+
+    private final String key;
+    private final int weight;
+
+    Operation(String key, int weight) {
+        this.key = key;
+        this.weight = weight;
+    }
+
+    public static Operation pick(ThreadLocalRandom random) {
+        int value = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : values()) {
+            value -= operation.weight;
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return BROWSE;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
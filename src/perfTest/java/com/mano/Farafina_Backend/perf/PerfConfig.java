@@ -0,0 +1,91 @@
+package com.mano.Farafina_Backend.perf;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Load test settings, read from -Dperf.* system properties (Gradle forwards -Pperf.* project properties)
+public class PerfConfig {
+
+    // Defaults sized for a laptop run in a few minutes; pass -Pperf.products=1000000 for the full-size catalog
+    private static final int DEFAULT_PRODUCTS = 100_000;
+    private static final int DEFAULT_USERS = 10_000;
+    private static final int DEFAULT_CONCURRENCY = 32;
+    private static final int DEFAULT_WARMUP_SECONDS = 20;
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+
+    private int products;
+    private int users;
+    private int concurrency;
+    private Duration warmup;
+    private Duration duration;
+    private boolean virtualThreads;
+    private Path reportDir;
+    private String thresholds;
+    private Path baselineDir;
+    private boolean updateBaseline;
+
+    public static PerfConfig fromSystemProperties() {
+        PerfConfig config = new PerfConfig();
+        config.products = Integer.getInteger("perf.products", DEFAULT_PRODUCTS);
+        config.users = Integer.getInteger("perf.users", DEFAULT_USERS);
+        config.concurrency = Integer.getInteger("perf.concurrency", DEFAULT_CONCURRENCY);
+        config.warmup = Duration.ofSeconds(Integer.getInteger("perf.warmup", DEFAULT_WARMUP_SECONDS));
+        config.duration = Duration.ofSeconds(Integer.getInteger("perf.duration", DEFAULT_DURATION_SECONDS));
+        config.virtualThreads = Boolean.parseBoolean(System.getProperty("perf.virtualThreads", "false"));
+        config.reportDir = Path.of(System.getProperty("perf.reportDir", "build/reports/perf"));
+        // A file path, or empty for the perf-thresholds.properties bundled with the load test
+        config.thresholds = System.getProperty("perf.thresholds", "");
+        // Reports of a reference run per mode (report-<mode>.json) that latency and throughput are compared with
+        config.baselineDir = Path.of(System.getProperty("perf.baselineDir", "src/perfTest/baseline"));
+        config.updateBaseline = Boolean.parseBoolean(System.getProperty("perf.updateBaseline", "false"));
+
+        if (config.products < 1 || config.users < 1 || config.concurrency < 1) {
+            throw new IllegalArgumentException("perf.products, perf.users and perf.concurrency must be positive");
+        }
+        return config;
+    }
+
+    public String getMode() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Path getReportDir() {
+        return reportDir;
+    }
+
+    public String getThresholds() {
+        return thresholds;
+    }
+
+    public Path getBaseline() {
+        return baselineDir.resolve("report-" + getMode() + ".json");
+    }
+
+    public boolean isUpdateBaseline() {
+        return updateBaseline;
+    }
+}
@@ -0,0 +1,128 @@
+package com.mano.Farafina_Backend.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-endpoint latency and throughput of one measured run, written as report-<mode>.json and report-<mode>.txt
+public class PerfReport {
+
+    private final PerfConfig config;
+    private final Duration elapsed;
+    private final Map<Operation, LatencySamples> samples;
+    private final Instant finishedAt = Instant.now();
+
+    public PerfReport(PerfConfig config, Duration elapsed, Map<Operation, LatencySamples> samples) {
+        this.config = config;
+        this.elapsed = elapsed;
+        this.samples = samples;
+    }
+
+    public LatencySamples get(Operation operation) {
+        return samples.get(operation);
+    }
+
+    public long totalRequests() {
+        long total = 0;
+        for (LatencySamples value : samples.values()) {
+            total += value.getCount() + value.getErrors();
+        }
+        return total;
+    }
+
+    public double throughput() {
+        return totalRequests() / seconds();
+    }
+
+    public double throughput(Operation operation) {
+        LatencySamples value = samples.get(operation);
+        return (value.getCount() + value.getErrors()) / seconds();
+    }
+
+    public double errorRate(Operation operation) {
+        LatencySamples value = samples.get(operation);
+        long requests = value.getCount() + value.getErrors();
+        return requests == 0 ? 0 : (double) value.getErrors() / requests;
+    }
+
+    public void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        writeJson(dir.resolve("report-" + config.getMode() + ".json"));
+        Files.writeString(dir.resolve("report-" + config.getMode() + ".txt"), toText());
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toMap());
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", finishedAt.toString());
+        run.put("mode", config.getMode());
+        run.put("products", config.getProducts());
+        run.put("users", config.getUsers());
+        run.put("concurrency", config.getConcurrency());
+        run.put("durationSeconds", seconds());
+        run.put("javaVersion", System.getProperty("java.version"));
+        run.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            LatencySamples value = samples.get(operation);
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", value.getCount() + value.getErrors());
+            endpoint.put("errors", value.getErrors());
+            endpoint.put("errorRate", errorRate(operation));
+            endpoint.put("throughput", round(throughput(operation)));
+            endpoint.put("meanMs", millis(value.mean()));
+            endpoint.put("p50Ms", millis(value.percentile(50)));
+            endpoint.put("p95Ms", millis(value.percentile(95)));
+            endpoint.put("p99Ms", millis(value.percentile(99)));
+            endpoint.put("maxMs", millis(value.percentile(100)));
+            endpoints.put(operation.getKey(), endpoint);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("run", run);
+        report.put("totalRequests", totalRequests());
+        report.put("throughput", round(throughput()));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Farafina load test, %s threads, %,d products, %,d users, %d clients, %.0fs%n",
+                config.getMode(), config.getProducts(), config.getUsers(), config.getConcurrency(), seconds()));
+        text.append(String.format("%-9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Operation operation : Operation.values()) {
+            LatencySamples value = samples.get(operation);
+            text.append(String.format("%-9s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getKey(), value.getCount() + value.getErrors(), value.getErrors(),
+                    throughput(operation), millis(value.percentile(50)), millis(value.percentile(95)),
+                    millis(value.percentile(99)), millis(value.percentile(100))));
+        }
+        text.append(String.format("%-9s %9d %7s %9.1f%n", "total", totalRequests(), "", throughput()));
+        return text.toString();
+    }
+
+    private double seconds() {
+        return elapsed.toNanos() / 1e9;
+    }
+
+    static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
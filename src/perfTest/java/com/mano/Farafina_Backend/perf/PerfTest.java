@@ -0,0 +1,65 @@
+package com.mano.Farafina_Backend.perf;
+
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Entry point of ./gradlew perfTest: seed, warm up, measure, report, then exit 1 if a threshold is exceeded
+// (compared with the run's baseline report, see Thresholds).
+// Client and server share the JVM and the machine, so compare reports from the same hardware only.
+public class PerfTest {
+
+    public static void main(String[] args) throws Exception {
+        PerfConfig config = PerfConfig.fromSystemProperties();
+
+        System.out.printf("Seeding %,d products and %,d users (%s threads)...%n",
+                config.getProducts(), config.getUsers(), config.getMode());
+        long seedStart = System.nanoTime();
+        ConfigurableApplicationContext context = SeededCatalog.start(config.getProducts(), config.getUsers(),
+                "--spring.threads.virtual.enabled=" + config.isVirtualThreads());
+        System.out.printf("Seeded in %.1fs%n", (System.nanoTime() - seedStart) / 1e9);
+
+        List<String> violations;
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Workload workload = new Workload(config, URI.create("http://localhost:" + port));
+
+            System.out.printf("Warming up for %ds with %d clients...%n", config.getWarmup().toSeconds(), config.getConcurrency());
+            workload.run(config.getWarmup());
+
+            System.out.printf("Measuring for %ds...%n", config.getDuration().toSeconds());
+            long start = System.nanoTime();
+            Map<Operation, LatencySamples> samples = workload.run(config.getDuration());
+            PerfReport report = new PerfReport(config, Duration.ofNanos(System.nanoTime() - start), samples);
+
+            report.write(config.getReportDir());
+            System.out.println();
+            System.out.print(report.toText());
+            System.out.println("Report written to " + config.getReportDir().toAbsolutePath());
+
+            Thresholds thresholds = Thresholds.load(config.getThresholds(), config.getBaseline());
+            if (config.isUpdateBaseline()) {
+                report.writeJson(config.getBaseline());
+                System.out.println("Baseline written to " + config.getBaseline().toAbsolutePath());
+            } else if (!thresholds.hasBaseline()) {
+                System.out.println("No baseline at " + config.getBaseline().toAbsolutePath() + "; only error rates and "
+                        + "absolute limits are checked. Record one with -Pperf.updateBaseline=true");
+            }
+            violations = thresholds.check(report);
+        } finally {
+            context.close();
+        }
+
+        if (!violations.isEmpty()) {
+            System.out.println("Performance thresholds exceeded:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+        System.out.println("All performance thresholds met");
+        System.exit(0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.mano.Farafina_Backend.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Regression limits from perf-thresholds.properties. Latency and throughput are judged against a baseline
+// report recorded on the same machine, since absolute numbers only hold for the hardware they came from:
+//   latency.tolerance              p50 / p95 / p99 may exceed the baseline's by this share (0.5 = 50%)
+//   latency.slack-ms               plus this many milliseconds, so tiny latencies do not fail on jitter
+//   throughput.tolerance           requests per second may fall this share below the baseline's
+//   <endpoint>.error-rate          highest accepted share of failed requests, default.error-rate otherwise
+// Absolute limits still apply when set, for a dedicated release machine:
+//   <endpoint>.p50 / .p95 / .p99   upper bound in milliseconds
+//   throughput.min                 lowest accepted requests per second over the whole mix
+// Without a baseline file only the error rates and absolute limits are checked.
+public class Thresholds {
+
+    private static final String BUNDLED = "perf-thresholds.properties";
+    // A baseline only compares with a run of the same size
+    private static final List<String> RUN_SETTINGS = List.of("mode", "products", "users", "concurrency");
+
+    private final Properties limits;
+    private final JsonNode baseline;
+
+    private Thresholds(Properties limits, JsonNode baseline) {
+        this.limits = limits;
+        this.baseline = baseline;
+    }
+
+    // baseline may be null or a missing file
+    public static Thresholds load(String location, Path baseline) throws IOException {
+        Properties limits = new Properties();
+        if (location == null || location.isBlank()) {
+            try (InputStream in = Thresholds.class.getClassLoader().getResourceAsStream(BUNDLED)) {
+                if (in == null) {
+                    throw new IOException(BUNDLED + " not found on the classpath");
+                }
+                limits.load(in);
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(Path.of(location))) {
+                limits.load(in);
+            }
+        }
+        JsonNode report = baseline != null && Files.isRegularFile(baseline)
+                ? new ObjectMapper().readTree(baseline.toFile())
+                : null;
+        return new Thresholds(limits, report);
+    }
+
+    public boolean hasBaseline() {
+        return baseline != null;
+    }
+
+    // One message per violated limit; empty when the run passes
+    @SuppressWarnings("unchecked")
+    public List<String> check(PerfReport report) {
+        List<String> violations = new ArrayList<>();
+        Map<String, Object> run = (Map<String, Object>) report.toMap().get("run");
+        JsonNode baseRun = baseline != null ? baseline.path("run") : null;
+        if (baseRun != null) {
+            for (String setting : RUN_SETTINGS) {
+                String expected = baseRun.path(setting).asText();
+                String actual = String.valueOf(run.get(setting));
+                if (!expected.equals(actual)) {
+                    violations.add(String.format("baseline was recorded with %s=%s, this run has %s; record a new one "
+                            + "with -Pperf.updateBaseline=true", setting, expected, actual));
+                }
+            }
+            if (!violations.isEmpty()) {
+                return violations;
+            }
+        }
+
+        double latencyTolerance = limitOrZero("latency.tolerance");
+        double slack = limitOrZero("latency.slack-ms");
+        for (Operation operation : Operation.values()) {
+            LatencySamples samples = report.get(operation);
+            JsonNode baseEndpoint = baseline != null ? baseline.path("endpoints").path(operation.getKey()) : null;
+            for (int percentile : new int[]{50, 95, 99}) {
+                String key = operation.getKey() + ".p" + percentile;
+                double actual = PerfReport.millis(samples.percentile(percentile));
+                Double limit = limit(key);
+                if (limit != null && actual > limit) {
+                    violations.add(String.format("%s = %.2f ms, limit %.2f ms", key, actual, limit));
+                }
+                JsonNode base = baseEndpoint != null ? baseEndpoint.get("p" + percentile + "Ms") : null;
+                if (base != null) {
+                    double allowed = base.asDouble() * (1 + latencyTolerance) + slack;
+                    if (actual > allowed) {
+                        violations.add(String.format("%s = %.2f ms, baseline %.2f ms, allowed %.2f ms", key, actual,
+                                base.asDouble(), allowed));
+                    }
+                }
+            }
+
+            String key = operation.getKey() + ".error-rate";
+            Double limit = limit(key);
+            if (limit == null) {
+                limit = limit("default.error-rate");
+            }
+            double actual = report.errorRate(operation);
+            if (limit != null && actual > limit) {
+                violations.add(String.format("%s = %.4f, limit %.4f (%d errors)", key, actual, limit, samples.getErrors()));
+            }
+        }
+
+        Double minThroughput = limit("throughput.min");
+        if (minThroughput != null && report.throughput() < minThroughput) {
+            violations.add(String.format("throughput = %.1f req/s, minimum %.1f req/s", report.throughput(), minThroughput));
+        }
+        if (baseline != null && baseline.has("throughput")) {
+            double base = baseline.get("throughput").asDouble();
+            double allowed = base * (1 - limitOrZero("throughput.tolerance"));
+            if (report.throughput() < allowed) {
+                violations.add(String.format("throughput = %.1f req/s, baseline %.1f req/s, allowed %.1f req/s",
+                        report.throughput(), base, allowed));
+            }
+        }
+        return violations;
+    }
+
+    private Double limit(String key) {
+        String value = limits.getProperty(key);
+        return value == null || value.isBlank() ? null : Double.valueOf(value.trim());
+    }
+
+    private double limitOrZero(String key) {
+        Double value = limit(key);
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,207 @@
+package com.mano.Farafina_Backend.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop workload: perf.concurrency clients, each sending its next request as soon as the previous one returns
+public class Workload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int PAGE_SIZE = 20;
+
+    // Share of browse requests that go on to the next page instead of starting over
+    private static final int FOLLOW_CURSOR_PERCENT = 60;
+
+    // Half of the detail views land on the newest 1% of listings
+    private static final int HOT_DETAIL_PERCENT = 50;
+
+    private static final String[] SEARCH_TERMS = {"samsung", "iphone", "boubou", "riz", "moto", "chaussures", "karité",
+            "télévision", "pagne", "climatiseur", "parfum", "toyota", "matelas", "neuf"};
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Shoes", "Foods", "Home", "Vehicles", "Beauty"};
+    private static final String[] CITIES = {"Bamako", "Dakar", "Abidjan", "Sikasso", "Thiès", "Conakry", "Ouagadougou"};
+    private static final String[] COMMENTS = {"Toujours disponible ?", "Dernier prix svp", "Je prends, appelez-moi"};
+
+    private final PerfConfig config;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Signups need usernames, emails and phones never seen before, also across runs of the same catalog
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong signups = new AtomicLong();
+
+    public Workload(PerfConfig config, URI baseUri) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public Map<Operation, LatencySamples> run(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<Operation, LatencySamples>> perClient = new ArrayList<>();
+        // close() waits for every client to pass the deadline
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getConcurrency(); i++) {
+                Map<Operation, LatencySamples> samples = new EnumMap<>(Operation.class);
+                perClient.add(samples);
+                clients.submit(() -> loop(deadline, samples));
+            }
+        }
+
+        Map<Operation, LatencySamples> merged = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            merged.put(operation, new LatencySamples());
+        }
+        for (Map<Operation, LatencySamples> samples : perClient) {
+            samples.forEach((operation, value) -> merged.get(operation).addAll(value));
+        }
+        return merged;
+    }
+
+    private void loop(long deadline, Map<Operation, LatencySamples> samples) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String cursor = null;
+        while (System.nanoTime() < deadline) {
+            Operation operation = Operation.pick(random);
+            LatencySamples target = samples.computeIfAbsent(operation, key -> new LatencySamples());
+            HttpRequest request = request(operation, random, cursor);
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long elapsed = System.nanoTime() - start;
+                if (!succeeded(operation, response)) {
+                    target.error();
+                    continue;
+                }
+                target.record(elapsed);
+                if (operation == Operation.BROWSE) {
+                    cursor = random.nextInt(100) < FOLLOW_CURSOR_PERCENT ? nextCursor(response.body()) : null;
+                }
+            } catch (IOException e) {
+                target.error();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random, String cursor) {
+        switch (operation) {
+            case BROWSE:
+                return get("/api/products?limit=" + PAGE_SIZE + (cursor != null ? "&cursor=" + encode(cursor) : ""));
+            case SEARCH:
+                return get("/api/products?limit=" + PAGE_SIZE + "&" + searchQuery(random));
+            case DETAIL:
+                return get("/api/products/" + productId(random));
+            case LIKE:
+                return post("/api/products/" + productId(random) + "/like", Map.of("userId", userId(random)));
+            case COMMENT:
+                return post("/api/products/" + productId(random) + "/comment",
+                        Map.of("userId", userId(random), "comment", COMMENTS[random.nextInt(COMMENTS.length)]));
+            case LOGIN:
+                return post("/login", Map.of("username", "user" + userId(random), "password", SeededCatalog.USER_PASSWORD));
+            case SIGNUP:
+                long n = signups.incrementAndGet();
+                String username = "perf" + runId + "x" + n;
+                return post("/signup", Map.of("fullname", "Perf User " + n, "username", username,
+                        "email", username + "@example.com", "phone", "+1" + runId + n,
+                        "password", "perf-signup-password", "country", "Mali"));
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    // Free text alone, text within a category, category plus city, or text under a price cap
+    private String searchQuery(ThreadLocalRandom random) {
+        String term = "search=" + encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+        String category = "category=" + CATEGORIES[random.nextInt(CATEGORIES.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return term;
+            case 1:
+                return term + "&" + category;
+            case 2:
+                return category + "&city=" + encode(CITIES[random.nextInt(CITIES.length)]);
+            default:
+                return term + "&maxPrice=" + (5_000 + random.nextInt(200_000));
+        }
+    }
+
+    private long productId(ThreadLocalRandom random) {
+        int products = config.getProducts();
+        if (random.nextInt(100) < HOT_DETAIL_PERCENT) {
+            int hot = Math.max(1, products / 100);
+            return products - random.nextInt(hot);
+        }
+        return 1 + random.nextInt(products);
+    }
+
+    private long userId(ThreadLocalRandom random) {
+        return 1 + random.nextInt(config.getUsers());
+    }
+
+    // Auth endpoints answer 200 for every outcome; only "success" counts
+    private boolean succeeded(Operation operation, HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            return false;
+        }
+        if (operation == Operation.LOGIN || operation == Operation.SIGNUP) {
+            return response.body().contains("\"status\":\"success\"");
+        }
+        return true;
+    }
+
+    private String nextCursor(String body) {
+        try {
+            JsonNode next = objectMapper.readTree(body).get("nextCursor");
+            return next == null || next.isNull() ? null : next.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
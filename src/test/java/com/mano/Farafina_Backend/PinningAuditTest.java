@@ -0,0 +1,72 @@
+package com.mano.Farafina_Backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// With spring.threads.virtual.enabled a virtual thread blocking inside synchronized pins its carrier.
+// Application code guards shared state with java.util.concurrent locks instead; this keeps it that way.
+class PinningAuditTest {
+
+	private static final Path SOURCES = Path.of("src/main/java");
+
+	// Comments, then text blocks, string and char literals, so prose and messages mentioning the word do not count
+	private static final Pattern NOT_CODE = Pattern.compile(
+			"//[^\\n]*|/\\*.*?\\*/|\"\"\".*?\"\"\"|\"(?:\\\\.|[^\"\\\\\\n])*\"|'(?:\\\\.|[^'\\\\\\n])*'",
+			Pattern.DOTALL);
+	private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+
+	@Test
+	void applicationCodeHasNoSynchronized() throws IOException {
+		assertTrue(Files.isDirectory(SOURCES), "run from the project directory");
+		List<String> found = new ArrayList<>();
+		try (Stream<Path> files = Files.walk(SOURCES)) {
+			for (Path file : files.filter(path -> path.toString().endsWith(".java")).toList()) {
+				for (int line : synchronizedLines(Files.readString(file))) {
+					found.add(SOURCES.relativize(file) + ":" + line);
+				}
+			}
+		}
+
+		assertEquals(List.of(), found, "use a ReentrantLock (or a lock-free structure) instead of synchronized");
+	}
+
+	@Test
+	void reportsTheLineOfEachUseOutsideCommentsAndLiterals() {
+		String source = """
+				/*
+				 * synchronized in a block comment
+				 */
+				class A {
+				    String sql = \"""
+				        synchronized
+				        \""";
+				synchronized void a() {}
+				    // synchronized
+				    void b() { synchronized (this) { String s = "synchronized"; } }
+				}
+				""";
+
+		assertEquals(List.of(8, 10), synchronizedLines(source));
+	}
+
+	// 1-based lines; blanked spans keep their newlines so later lines do not shift
+	private static List<Integer> synchronizedLines(String source) {
+		String code = NOT_CODE.matcher(source).replaceAll(match -> match.group().replaceAll("[^\\n]", " "));
+		List<Integer> lines = new ArrayList<>();
+		Matcher matcher = SYNCHRONIZED.matcher(code);
+		while (matcher.find()) {
+			lines.add((int) code.substring(0, matcher.start()).chars().filter(c -> c == '\n').count() + 1);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,64 @@
+package com.mano.Farafina_Backend.config;
+
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Only the health and info probes are public; every other exposed actuator endpoint needs the admin account
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local",
+		"farafina.admin.username=ops",
+		"farafina.admin.password=secret"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("actuator_security"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"health", "info"})
+	void probesArePublic(String endpoint) throws Exception {
+		mockMvc.perform(get("/actuator/" + endpoint)).andExpect(status().isOk());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"metrics", "caches", "prometheus", "traces", "jfr"})
+	void otherEndpointsNeedTheAdminAccount(String endpoint) throws Exception {
+		mockMvc.perform(get("/actuator/" + endpoint)).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/" + endpoint).with(httpBasic("ops", "wrong"))).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/" + endpoint).with(httpBasic("ops", "secret"))).andExpect(status().isOk());
+	}
+
+	@Test
+	void counterReconcileNeedsTheAdminAccount() throws Exception {
+		mockMvc.perform(post("/actuator/counters")).andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/actuator/counters").with(httpBasic("ops", "secret")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true));
+	}
+}
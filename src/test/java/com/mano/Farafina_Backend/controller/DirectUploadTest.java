@@ -0,0 +1,92 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import com.mano.Farafina_Backend.services.S3Service;
+import com.mano.Farafina_Backend.services.storage.UploadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Local-backend direct uploads stop reading at the size cap signed into the token
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local",
+		"farafina.uploads.direct.max-size=1KB"
+})
+@AutoConfigureMockMvc
+class DirectUploadTest {
+
+	private static Path media;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private S3Service s3Service;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		media = Files.createTempDirectory("direct-upload");
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("direct_upload"));
+		registry.add("farafina.storage.local.root", media::toString);
+	}
+
+	@Test
+	void bodyWithinTheCapIsStored() throws Exception {
+		String url = presign();
+
+		mockMvc.perform(put(url).contentType("video/mp4").content(new byte[1024]))
+				.andExpect(status().isOk());
+		assertTrue(Files.exists(media.resolve("videos")));
+	}
+
+	@Test
+	void declaredLengthOverTheCapIsRefusedUpFront() throws Exception {
+		mockMvc.perform(put(presign()).contentType("video/mp4").content(new byte[1025]))
+				.andExpect(status().isPayloadTooLarge())
+				.andExpect(jsonPath("$.success").value(false));
+	}
+
+	@Test
+	void streamedBodyOverTheCapIsDroppedOnceTheCapIsCrossed() throws Exception {
+		String token = presign().substring("/api/uploads/direct/".length());
+
+		UploadTooLargeException e = assertThrows(UploadTooLargeException.class,
+				() -> s3Service.receiveDirectUpload(token, "video/mp4", new ByteArrayInputStream(new byte[4096])));
+
+		assertEquals(1024, e.getMaxBytes());
+		try (Stream<Path> files = Files.walk(media)) {
+			assertTrue(files.noneMatch(Files::isRegularFile));
+		}
+	}
+
+	private String presign() throws Exception {
+		String body = mockMvc.perform(post("/api/uploads/presign").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"type\":\"video\",\"filename\":\"clip.mp4\",\"contentType\":\"video/mp4\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.upload.method").value("PUT"))
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.upload.url");
+	}
+}
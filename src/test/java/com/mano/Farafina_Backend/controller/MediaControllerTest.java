@@ -0,0 +1,128 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.mano.Farafina_Backend.services.storage.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Range parsing and what /media/** serves, against the local backend
+class MediaControllerTest {
+
+	private static final String SHA = "a".repeat(64);
+	private static final String BODY = "0123456789";
+
+	@TempDir
+	Path root;
+
+	private MediaController controller;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		controller = new MediaController(new LocalStorageBackend(root, "/media", null, null));
+		ReflectionTestUtils.setField(controller, "chunkSize", DataSize.ofBytes(4));
+		store("products/" + SHA + "/orig.jpg");
+		store("products/legacy_1700000000000/orig.jpg");
+		store("tmp/upload.mp4");
+	}
+
+	// ----- parseRange -----
+
+	@Test
+	void closedRange() {
+		assertArrayEquals(new long[]{2, 5}, MediaController.parseRange("bytes=2-5", 10));
+		assertArrayEquals(new long[]{2, 9}, MediaController.parseRange("bytes=2-500", 10));
+	}
+
+	@Test
+	void openEndedRange() {
+		assertArrayEquals(new long[]{4, 9}, MediaController.parseRange("bytes=4-", 10));
+	}
+
+	@Test
+	void suffixRange() {
+		assertArrayEquals(new long[]{7, 9}, MediaController.parseRange("bytes=-3", 10));
+		assertArrayEquals(new long[]{0, 9}, MediaController.parseRange("bytes=-30", 10));
+	}
+
+	@Test
+	void multipleRangesAndMalformedHeadersSendTheWholeObject() {
+		assertNull(MediaController.parseRange("bytes=0-1,4-5", 10));
+		assertNull(MediaController.parseRange("bytes=5-2", 10));
+		assertNull(MediaController.parseRange("bytes=x-", 10));
+		assertNull(MediaController.parseRange("items=0-1", 10));
+	}
+
+	@Test
+	void unsatisfiableRanges() {
+		assertEquals(0, MediaController.parseRange("bytes=10-", 10).length);
+		assertEquals(0, MediaController.parseRange("bytes=-0", 10).length);
+		assertEquals(0, MediaController.parseRange("bytes=-5", 0).length);
+	}
+
+	// ----- serve -----
+
+	@Test
+	void rangeRequestReturnsPartialContent() throws Exception {
+		MockHttpServletResponse response = get("products/" + SHA + "/orig.jpg", "bytes=-3");
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 7-9/10", response.getHeader("Content-Range"));
+		assertEquals("789", response.getContentAsString());
+	}
+
+	@Test
+	void unsatisfiableRangeIs416() throws Exception {
+		MockHttpServletResponse response = get("products/" + SHA + "/orig.jpg", "bytes=20-");
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */10", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	void multiRangeRequestReturnsTheWholeObject() throws Exception {
+		MockHttpServletResponse response = get("products/" + SHA + "/orig.jpg", "bytes=0-1,4-5");
+
+		assertEquals(200, response.getStatus());
+		assertEquals(BODY, response.getContentAsString());
+	}
+
+	@Test
+	void onlyContentAddressedKeysAreImmutable() throws Exception {
+		assertEquals("public, max-age=31536000, immutable",
+				get("products/" + SHA + "/orig.jpg", null).getHeader("Cache-Control"));
+		assertEquals("public, no-cache",
+				get("products/legacy_1700000000000/orig.jpg", null).getHeader("Cache-Control"));
+	}
+
+	@Test
+	void keysOutsideThePublishedPrefixesAreNotFound() throws Exception {
+		assertEquals(404, get("tmp/upload.mp4", null).getStatus());
+		assertEquals(404, get("products/../tmp/upload.mp4", null).getStatus());
+	}
+
+	private MockHttpServletResponse get(String key, String range) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + key);
+		if (range != null) {
+			request.addHeader("Range", range);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.serve(request, response);
+		return response;
+	}
+
+	private void store(String key) throws Exception {
+		Path file = root.resolve(key);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, BODY, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,123 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /api/products/import end to end: valid rows are saved, invalid ones come back with their row and line
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local"
+})
+@AutoConfigureMockMvc
+class ProductImportTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("product_import"));
+		registry.add("farafina.storage.local.root", Files.createTempDirectory("product-import")::toString);
+	}
+
+	@Test
+	void csvWithValidAndInvalidRows() throws Exception {
+		String csv = "productName,category,condition,price,currency,country,city,localPickup,images\n" +
+				"Pagne wax Vlisco,Clothing,New,12500,XOF,Mali,Bamako,yes,/media/a.jpg|/media/b.jpg\n" +
+				"Sans prix,Clothing,New,,XOF,Mali,Bamako,,\n" +
+				"\"Boubou, brodé\",Clothing,Used,30000.50,XOF,Sénégal,Dakar,non,\n" +
+				"Mauvais booléen,Clothing,New,1000,XOF,Mali,Kayes,peut-être,\n" +
+				"\"Calebasse\ngravée\",Crafts,New,4000,XOF,Mali,Ségou,,/media/c.jpg\n";
+
+		mockMvc.perform(post("/api/products/import").param("userId", "7")
+						.contentType("text/csv;charset=UTF-8").content(csv.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.rows").value(5))
+				.andExpect(jsonPath("$.imported").value(3))
+				.andExpect(jsonPath("$.failed").value(2))
+				.andExpect(jsonPath("$.errors[*].row", contains(2, 4)))
+				.andExpect(jsonPath("$.errors[*].line", contains(3, 5)))
+				.andExpect(jsonPath("$.errors[0].errors[0]").value("price is required"))
+				.andExpect(jsonPath("$.errors[1].errors[0]").value("localPickup must be true or false"));
+
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE user_id = 7", Integer.class));
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_images pi " +
+				"JOIN products p ON p.id = pi.product_id WHERE p.user_id = 7", Integer.class));
+		assertEquals("Calebasse\ngravée", jdbcTemplate.queryForObject(
+				"SELECT product_name FROM products WHERE city = 'Ségou'", String.class));
+
+		// Imported rows are searchable right away
+		mockMvc.perform(get("/api/products").param("search", "boubou"))
+				.andExpect(jsonPath("$.products[0].productName").value("Boubou, brodé"));
+	}
+
+	@Test
+	void ndjsonWithValidAndInvalidRows() throws Exception {
+		String ndjson = "{\"userId\":8,\"productName\":\"Tabouret\",\"category\":\"Furniture\",\"condition\":\"Used\"," +
+				"\"price\":8000,\"currency\":\"XOF\",\"country\":\"Mali\",\"images\":[\"/media/t.jpg\"]}\n" +
+				"{\"userId\":8,\"productName\":\"Tabouret\"\n" +
+				"\n" +
+				"{\"userId\":8,\"productName\":\"Natte\",\"category\":\"Furniture\",\"condition\":\"New\"," +
+				"\"price\":-5,\"currency\":\"XOF\",\"country\":\"Mali\"}\n";
+
+		mockMvc.perform(post("/api/products/import").contentType("application/x-ndjson").content(ndjson))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.imported").value(1))
+				.andExpect(jsonPath("$.failed").value(2))
+				.andExpect(jsonPath("$.errors[*].row", contains(2, 3)))
+				.andExpect(jsonPath("$.errors[*].line", contains(2, 4)))
+				.andExpect(jsonPath("$.errors[1].errors[0]").value("price must be 0 or more"));
+
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE user_id = 8", Integer.class));
+	}
+
+	@Test
+	void declaredCharsetIsUsed() throws Exception {
+		String csv = "productName,category,condition,price,currency,country,city\n" +
+				"Théière en étain,Kitchen,Used,6000,XOF,Mali,Ségou\n";
+
+		mockMvc.perform(post("/api/products/import").param("userId", "9")
+						.contentType("text/csv; charset=ISO-8859-1").content(csv.getBytes(StandardCharsets.ISO_8859_1)))
+				.andExpect(jsonPath("$.imported").value(1));
+
+		assertEquals("Théière en étain", jdbcTemplate.queryForObject(
+				"SELECT product_name FROM products WHERE user_id = 9", String.class));
+	}
+
+	@Test
+	void unusableInputIsRejectedBeforeAnyRowIsRead() throws Exception {
+		mockMvc.perform(post("/api/products/import").contentType("text/csv;charset=x-no-such-charset").content("a"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value(containsString("unsupported charset 'x-no-such-charset'")));
+		mockMvc.perform(post("/api/products/import").contentType("text/csv").content("productName,colour\nPagne,red\n"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/products/import").contentType("application/json").content("[]"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,74 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.repository.ProductLikeRepository;
+import com.mano.Farafina_Backend.repository.ProductRepository;
+import com.mano.Farafina_Backend.repository.ProductStreamRepository;
+import com.mano.Farafina_Backend.services.CatalogStatistics;
+import com.mano.Farafina_Backend.services.InteractionCounters;
+import com.mano.Farafina_Backend.services.ProductService;
+import com.mano.Farafina_Backend.services.bulk.ProductImportService;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A database failure is a 500, never a 200 carrying default values
+class ProductInteractionErrorTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final ProductLikeRepository productLikeRepository = mock(ProductLikeRepository.class);
+	private final InteractionCounters interactionCounters = mock(InteractionCounters.class);
+	private final MockMvc mockMvc;
+
+	ProductInteractionErrorTest() {
+		ProductService productService = new ProductService(mock(ProductRepository.class), mock(ProductSearchIndex.class),
+				mock(CatalogStatistics.class), interactionCounters, productLikeRepository,
+				mock(ProductStreamRepository.class));
+		ReflectionTestUtils.setField(productService, "jdbcTemplate", jdbcTemplate);
+		mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService,
+				mock(ProductImportService.class), new ObjectMapper())).build();
+	}
+
+	@Test
+	void statsFailWhenTheCountersCannotBeRead() throws Exception {
+		doThrow(new DataAccessResourceFailureException("connection refused"))
+				.when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+		mockMvc.perform(get("/api/products/7/stats"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.success").value(false));
+		mockMvc.perform(get("/api/products/stats/batch").param("productIds", "7", "8"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.stats").doesNotExist());
+	}
+
+	@Test
+	void failedLikeIsNotReportedAsAlreadyLiked() throws Exception {
+		when(productLikeRepository.insertIfAbsent(7L, 3L))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"));
+		when(productLikeRepository.delete(7L, 3L))
+				.thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+		mockMvc.perform(post("/api/products/7/like").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\": 3}"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.message").doesNotExist());
+		mockMvc.perform(delete("/api/products/7/like/3"))
+				.andExpect(status().isInternalServerError())
+				.andExpect(jsonPath("$.success").value(false));
+		verifyNoInteractions(interactionCounters);
+	}
+}
@@ -0,0 +1,86 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Wire format and chunking of GET /api/products/stream, without a database
+class ProductStreamTest {
+
+	private static final int ROWS = 250;
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void ndjsonIsOneObjectPerLineWithBatchedFlushes() throws Exception {
+		FlushCountingStream out = new FlushCountingStream();
+		body("ndjson").writeTo(out);
+
+		String text = out.toString(StandardCharsets.UTF_8);
+		assertTrue(text.endsWith("\n"), "last line is not terminated");
+		String[] lines = text.split("\n", -1);
+		assertEquals(ROWS + 1, lines.length);
+		assertEquals("", lines[ROWS]);
+		for (int i = 0; i < ROWS; i++) {
+			assertTrue(lines[i].startsWith("{\"id\":" + (i + 1) + ","), "line " + i + ": " + lines[i]);
+			assertTrue(lines[i].endsWith("}"), "line " + i + ": " + lines[i]);
+			assertEquals(i + 1, objectMapper.readTree(lines[i]).get("id").asLong());
+		}
+		// One flush per STREAM_FLUSH_EVERY rows plus the one on close, not one per row
+		assertEquals(ROWS / 100 + 1, out.flushes);
+	}
+
+	@Test
+	void jsonIsOneArray() throws Exception {
+		FlushCountingStream out = new FlushCountingStream();
+		body("json").writeTo(out);
+
+		JsonNode array = objectMapper.readTree(out.toByteArray());
+		assertTrue(array.isArray());
+		assertEquals(ROWS, array.size());
+		assertEquals(ROWS, array.get(ROWS - 1).get("id").asLong());
+		assertEquals(ROWS / 100 + 1, out.flushes);
+	}
+
+	@SuppressWarnings("unchecked")
+	private StreamingResponseBody body(String format) {
+		ProductService productService = mock(ProductService.class);
+		doAnswer(invocation -> {
+			Consumer<ProductSummary> consumer = invocation.getArgument(1);
+			for (long id = 1; id <= ROWS; id++) {
+				consumer.accept(new ProductSummary(id, "Produit " + id, new BigDecimal("1500.00"), "XOF", "Bamako",
+						3, 1, LocalDateTime.of(2024, 1, 1, 12, 0)));
+			}
+			return null;
+		}).when(productService).streamProducts(any(ProductFilter.class), any(Consumer.class));
+
+		ProductController controller = new ProductController(productService, null, objectMapper);
+		return controller.streamProducts(null, null, null, null, null, null, format).getBody();
+	}
+
+	private static class FlushCountingStream extends ByteArrayOutputStream {
+
+		int flushes;
+
+		@Override
+		public void flush() {
+			flushes++;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.mano.Farafina_Backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jayway.jsonpath.JsonPath;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import com.mano.Farafina_Backend.services.media.ResumableUploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The tus-style protocol of /api/upload-video/resumable: offsets, HEAD, DELETE, conflicts and expiry
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local",
+		"farafina.uploads.resumable.max-size=4KB"
+})
+@AutoConfigureMockMvc
+class ResumableUploadTest {
+
+	private static Path directory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ResumableUploadService resumableUploadService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		Path dir = Files.createTempDirectory("resumable-upload");
+		directory = dir.resolve("resumable");
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("resumable_upload"));
+		registry.add("farafina.storage.local.root", () -> dir.resolve("media").toString());
+		registry.add("farafina.uploads.resumable.dir", directory::toString);
+	}
+
+	@Test
+	void createRejectsLengthsOutsideTheCap() throws Exception {
+		mockMvc.perform(post("/api/upload-video/resumable").header("Upload-Length", 0))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/upload-video/resumable").header("Upload-Length", 4097))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void chunksResumeFromTheReportedOffset() throws Exception {
+		String location = create(10);
+		mockMvc.perform(head(location))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Tus-Resumable", "1.0.0"))
+				.andExpect(header().string("Upload-Offset", "0"))
+				.andExpect(header().string("Upload-Length", "10"))
+				.andExpect(header().exists("Upload-Expires"));
+
+		mockMvc.perform(patch(location).header("Upload-Offset", 0).content(bytes(4, (byte) 1)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Upload-Offset", "4"))
+				.andExpect(jsonPath("$.complete").value(false));
+		mockMvc.perform(head(location))
+				.andExpect(header().string("Upload-Offset", "4"));
+
+		// Bytes past Upload-Length are not read
+		mockMvc.perform(patch(location).header("Upload-Offset", 4).content(bytes(8, (byte) 2)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Upload-Offset", "10"))
+				.andExpect(jsonPath("$.complete").value(true))
+				.andExpect(jsonPath("$.url", startsWith("/media/videos/")));
+
+		// A client that lost the last response gets the url again
+		mockMvc.perform(patch(location).header("Upload-Offset", 10).content(new byte[0]))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.complete").value(true));
+	}
+
+	@Test
+	void offsetMismatchIsAConflictThatReportsTheCurrentOffset() throws Exception {
+		String location = create(10);
+		mockMvc.perform(patch(location).header("Upload-Offset", 0).content(bytes(3, (byte) 1)))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(patch(location).header("Upload-Offset", 0).content(bytes(3, (byte) 1)))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.success").value(false))
+				.andExpect(jsonPath("$.uploadOffset").value(3));
+		mockMvc.perform(patch(location).header("Upload-Offset", 5).content(bytes(3, (byte) 1)))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.uploadOffset").value(3));
+		mockMvc.perform(head(location))
+				.andExpect(header().string("Upload-Offset", "3"));
+	}
+
+	@Test
+	void deleteRemovesTheUpload() throws Exception {
+		String location = create(10);
+		String id = id(location);
+		mockMvc.perform(patch(location).header("Upload-Offset", 0).content(bytes(3, (byte) 1)));
+
+		mockMvc.perform(delete(location)).andExpect(status().isNoContent());
+
+		mockMvc.perform(head(location)).andExpect(status().isNotFound());
+		mockMvc.perform(patch(location).header("Upload-Offset", 3).content(bytes(3, (byte) 1)))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete(location)).andExpect(status().isNotFound());
+		assertFalse(Files.exists(directory.resolve(id + ".part")));
+		assertFalse(Files.exists(directory.resolve(id + ".json")));
+	}
+
+	@Test
+	void unknownAndMalformedIdsAreNotFound() throws Exception {
+		mockMvc.perform(head("/api/upload-video/resumable/" + "0".repeat(32))).andExpect(status().isNotFound());
+		mockMvc.perform(head("/api/upload-video/resumable/" + "A".repeat(32))).andExpect(status().isNotFound());
+		mockMvc.perform(delete("/api/upload-video/resumable/not-an-id")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void chunkStillBeingReceivedBlocksDeleteAndOtherChunks() throws Exception {
+		String location = create(10);
+		String id = id(location);
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		InputStream slow = new InputStream() {
+			@Override
+			public int read() {
+				return -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				reading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return -1;
+			}
+		};
+		CompletableFuture<Void> draining = CompletableFuture.runAsync(() -> {
+			try {
+				resumableUploadService.append(id, 0, slow);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+		mockMvc.perform(delete(location)).andExpect(status().isConflict());
+		mockMvc.perform(patch(location).header("Upload-Offset", 0).content(bytes(3, (byte) 1)))
+				.andExpect(status().isConflict());
+		assertTrue(Files.exists(directory.resolve(id + ".json")));
+
+		release.countDown();
+		draining.get(5, TimeUnit.SECONDS);
+		mockMvc.perform(delete(location)).andExpect(status().isNoContent());
+	}
+
+	@Test
+	void expiredUploadsAreRemovedByCleanup() throws Exception {
+		String expired = create(10);
+		String live = create(10);
+		mockMvc.perform(patch(expired).header("Upload-Offset", 0).content(bytes(3, (byte) 1)));
+		Path state = directory.resolve(id(expired) + ".json");
+		ObjectNode json = (ObjectNode) objectMapper.readTree(state.toFile());
+		json.put("createdAt", 0);
+		objectMapper.writeValue(state.toFile(), json);
+
+		resumableUploadService.removeExpired();
+
+		mockMvc.perform(head(expired)).andExpect(status().isNotFound());
+		assertFalse(Files.exists(directory.resolve(id(expired) + ".part")));
+		mockMvc.perform(head(live)).andExpect(status().isOk());
+	}
+
+	private String create(int length) throws Exception {
+		String body = mockMvc.perform(post("/api/upload-video/resumable").header("Upload-Length", length)
+						.param("filename", "clip.mp4"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.location");
+	}
+
+	private static String id(String location) {
+		return location.substring(location.lastIndexOf('/') + 1);
+	}
+
+	private static byte[] bytes(int length, byte value) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, value);
+		return bytes;
+	}
+}
@@ -0,0 +1,25 @@
+package com.mano.Farafina_Backend.dto;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+	@ParameterizedTest
+	@ValueSource(doubles = {0.0, 1.0, 3.141592653589793, 1e-300, 12345.678901234567, Double.MIN_VALUE})
+	void roundTripsTheExactScore(double score) {
+		SearchCursor cursor = SearchCursor.decode(new SearchCursor(score, 987654321L).encode());
+
+		assertEquals(score, cursor.getScore());
+		assertEquals(987654321L, cursor.getId());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "not base64!", "eDEyfDM", "czEuMA"})
+	void rejectsTokensItDidNotMake(String token) {
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token));
+	}
+}
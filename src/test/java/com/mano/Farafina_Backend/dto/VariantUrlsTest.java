@@ -0,0 +1,24 @@
+package com.mano.Farafina_Backend.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VariantUrlsTest {
+
+	@Test
+	void pipelineOriginalsPointAtTheirJpegVariant() {
+		assertEquals("https://cdn.example/products/ab12/w320.jpg",
+				VariantUrls.variantUrl("https://cdn.example/products/ab12/orig.png", 320));
+		assertEquals("/media/products/ab12/w1280.jpg", VariantUrls.variantUrl("/media/products/ab12/orig.jpg", 1280));
+	}
+
+	@Test
+	void urlsFromBeforeThePipelineAreUnchanged() {
+		assertEquals("https://cdn.example/products/1700000000_photo.jpg",
+				VariantUrls.variantUrl("https://cdn.example/products/1700000000_photo.jpg", 320));
+		assertEquals("orig.jpg", VariantUrls.variantUrl("orig.jpg", 320));
+		assertNull(VariantUrls.variantUrl(null, 320));
+	}
+}
@@ -0,0 +1,288 @@
+package com.mano.Farafina_Backend.metrics;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import com.mano.Farafina_Backend.services.CatalogStatistics;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+// Runs every endpoint once against a seeded catalog and fails when a request executes more JDBC statements
+// than its @StatementBudget. Pages and id lists use their maximum size, so an N+1 cannot hide behind small data,
+// and every request must succeed, so a budget is never passed by failing before the queries run.
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetTest {
+
+	private static final int PRODUCTS = 150;
+	private static final int USERS = 40;
+	private static final int MAX_PAGE = 100;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ProductSearchIndex searchIndex;
+
+	@Autowired
+	private CatalogStatistics catalogStatistics;
+
+	@Autowired
+	private StatementBudgetGuard guard;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	@Qualifier("requestMappingHandlerMapping")
+	private RequestMappingHandlerMapping handlerMapping;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		Path dir = Files.createTempDirectory("statement-budget");
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("statement_budget"));
+		registry.add("farafina.storage.local.root", () -> dir.resolve("media").toString());
+		registry.add("farafina.uploads.resumable.dir", () -> dir.resolve("resumable").toString());
+	}
+
+	@BeforeAll
+	void seed() {
+		SeededCatalog.seed(jdbcTemplate, PRODUCTS);
+		SeededCatalog.seedUsers(jdbcTemplate, USERS, passwordEncoder.encode(SeededCatalog.USER_PASSWORD));
+		SeededCatalog.seedInteractions(jdbcTemplate, PRODUCTS, USERS);
+		searchIndex.rebuild();
+		catalogStatistics.reload();
+	}
+
+	@BeforeEach
+	void clearViolations() {
+		guard.clearRecentViolations();
+	}
+
+	@Test
+	void everyEndpointDeclaresABudget() {
+		List<String> missing = handlerMapping.getHandlerMethods().entrySet().stream()
+				.filter(entry -> entry.getValue().getBeanType().getPackageName().startsWith("com.mano.Farafina_Backend"))
+				.filter(entry -> StatementBudgetGuard.budgetOf(entry.getValue()) == StatementBudgetGuard.NO_BUDGET)
+				.map(entry -> entry.getKey().toString())
+				.toList();
+
+		assertTrue(missing.isEmpty(), "Endpoints without @StatementBudget: " + missing);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("requests")
+	void endpointStaysWithinItsBudget(String name, MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = perform(request);
+
+		int status = result.getResponse().getStatus();
+		assertTrue(status >= 200 && status < 300,
+				name + " answered " + status + ": " + result.getResponse().getContentAsString());
+		List<StatementBudgetViolation> violations = guard.getRecentViolations();
+		assertTrue(violations.isEmpty(), () -> violations.stream().map(Object::toString).collect(Collectors.joining("\n")));
+	}
+
+	// The listing query runs on the async thread writing the body; it must still count for the request
+	@Test
+	void streamedStatementsCountForTheirRequest() throws Exception {
+		MvcResult result = perform(get("/api/products/stream"));
+
+		assertTrue(result.getResponse().getContentAsString().lines().count() > 0);
+		DistributionSummary statements = meterRegistry.get("farafina.jdbc.request.statements")
+				.tag("uri", "/api/products/stream").summary();
+		assertTrue(statements.max() >= 1, "stream recorded " + statements.max() + " statements");
+	}
+
+	// Follows async requests (streaming bodies) through to their completion dispatch
+	private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		if (result.getRequest().isAsyncStarted()) {
+			result = mockMvc.perform(asyncDispatch(result)).andReturn();
+		}
+		return result;
+	}
+
+	Stream<Arguments> requests() throws Exception {
+		long commentId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM product_comments WHERE product_id = 2", Long.class);
+		long likedBy = jdbcTemplate.queryForObject("SELECT MIN(user_id) FROM product_likes WHERE product_id = 3", Long.class);
+		String product = "{\"userId\":1,\"productName\":\"Téléphone Tecno Spark\",\"description\":\"Neuf\"," +
+				"\"category\":\"Electronics\",\"condition\":\"New\",\"price\":75000,\"currency\":\"XOF\",\"country\":\"Mali\"," +
+				"\"city\":\"Bamako\",\"contactPhone\":\"+223 70000000\",\"quantity\":1," +
+				"\"images\":[\"/media/a.jpg\",\"/media/b.jpg\",\"/media/c.jpg\"]}";
+
+		return Stream.of(
+				Arguments.of("browse", get("/api/products").param("limit", "" + MAX_PAGE)),
+				Arguments.of("browse next page", get("/api/products").param("limit", "" + MAX_PAGE)
+						.param("cursor", nextCursor())),
+				Arguments.of("filter", get("/api/products").param("limit", "" + MAX_PAGE)
+						.param("category", "Electronics").param("country", "Mali").param("maxPrice", "500000")),
+				Arguments.of("search", get("/api/products").param("limit", "" + MAX_PAGE).param("search", "téléphone")),
+				Arguments.of("detail", get("/api/products/1")),
+				Arguments.of("by user", get("/api/products/user/1").param("limit", "" + MAX_PAGE)),
+				Arguments.of("by category", get("/api/products/category/Electronics").param("limit", "" + MAX_PAGE)),
+				Arguments.of("by condition", get("/api/products/condition/Used").param("limit", "" + MAX_PAGE)),
+				Arguments.of("latest", get("/api/products/latest").param("limit", "" + MAX_PAGE)),
+				Arguments.of("recently updated", get("/api/products/recently-updated").param("limit", "" + MAX_PAGE)),
+				Arguments.of("statistics", get("/api/products/stats")),
+				Arguments.of("likes", get("/api/products/1/likes")),
+				Arguments.of("comments", get("/api/products/1/comments")),
+				Arguments.of("liked by user", get("/api/products/liked").param("userId", "1").param("productIds", ids())),
+				Arguments.of("stats batch", get("/api/products/stats/batch").param("productIds", ids())),
+				Arguments.of("product stats", get("/api/products/1/stats")),
+				Arguments.of("like", post("/api/products/4/like").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":1}")),
+				Arguments.of("unlike", delete("/api/products/3/like/" + likedBy)),
+				Arguments.of("comment", post("/api/products/4/comment").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":1,\"comment\":\"Toujours disponible ?\"}")),
+				Arguments.of("delete comment", delete("/api/products/2/comment/" + commentId)),
+				Arguments.of("create", post("/api/products").contentType(MediaType.APPLICATION_JSON).content(product)),
+				Arguments.of("update", put("/api/products/5").contentType(MediaType.APPLICATION_JSON).content(product)),
+				Arguments.of("bulk import", post("/api/products/import").param("userId", "1").contentType("text/csv")
+						.content(importCsv())),
+				Arguments.of("delete", delete("/api/products/" + PRODUCTS)),
+				Arguments.of("stream", get("/api/products/stream")),
+				Arguments.of("signup", post("/signup").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"fullname\":\"Awa Traoré\",\"username\":\"awa\",\"email\":\"awa@example.com\"," +
+								"\"phone\":\"+223 65000000\",\"password\":\"secret\",\"country\":\"Mali\"}")),
+				Arguments.of("login", post("/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"user1\",\"password\":\"" + SeededCatalog.USER_PASSWORD + "\"}")),
+				Arguments.of("upload image", multipart("/api/upload-image")
+						.file(new MockMultipartFile("image", "photo.png", "image/png", png(400, 300)))),
+				Arguments.of("upload video", multipart("/api/upload-video")
+						.file(new MockMultipartFile("video", "clip.mp4", "video/mp4", new byte[4096]))),
+				Arguments.of("stream video", post("/api/upload-video/stream").param("filename", "clip.mp4")
+						.contentType("video/mp4").content(new byte[8192])),
+				Arguments.of("resumable create", post("/api/upload-video/resumable").header("Upload-Length", 1024)
+						.param("filename", "clip.mp4")),
+				Arguments.of("resumable status", head(resumableUpload(1024))),
+				Arguments.of("resumable append", patch(resumableUpload(1024)).header("Upload-Offset", 0)
+						.contentType("application/offset+octet-stream").content(bytes(1024, 7))),
+				Arguments.of("resumable terminate", delete(resumableUpload(1024))),
+				Arguments.of("presign", post("/api/uploads/presign").contentType(MediaType.APPLICATION_JSON)
+						.content(presignRequest("video", "clip.mp4", "video/mp4"))),
+				Arguments.of("direct receive", put(presign("video", "clip.mp4", "video/mp4").read("$.upload.url", String.class))
+						.contentType("video/mp4").content(bytes(4096, 3))),
+				Arguments.of("direct complete", post("/api/uploads/complete").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"token\":\"" + directImageUpload() + "\"}")),
+				Arguments.of("media", get(storedImageUrl()).header("Range", "bytes=0-99"))
+		);
+	}
+
+	// ----- fixtures for the upload flows: each case gets its own upload, created through the API -----
+
+	private String resumableUpload(int length) throws Exception {
+		String body = mockMvc.perform(post("/api/upload-video/resumable").header("Upload-Length", length)
+				.param("filename", "clip.mp4")).andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.location");
+	}
+
+	private static String presignRequest(String type, String filename, String contentType) {
+		return "{\"type\":\"" + type + "\",\"filename\":\"" + filename + "\",\"contentType\":\"" + contentType + "\"}";
+	}
+
+	private DocumentContext presign(String type, String filename, String contentType) throws Exception {
+		String body = mockMvc.perform(post("/api/uploads/presign").contentType(MediaType.APPLICATION_JSON)
+				.content(presignRequest(type, filename, contentType))).andReturn().getResponse().getContentAsString();
+		return JsonPath.parse(body);
+	}
+
+	// An image already PUT to its upload URL, so completing it stores variants and registers the hash
+	private String directImageUpload() throws Exception {
+		DocumentContext presigned = presign("image", "direct.png", "image/png");
+		mockMvc.perform(put(presigned.read("$.upload.url", String.class)).contentType("image/png").content(png(320, 240)))
+				.andReturn();
+		return presigned.read("$.completionToken");
+	}
+
+	private String storedImageUrl() throws Exception {
+		String body = mockMvc.perform(multipart("/api/upload-image")
+				.file(new MockMultipartFile("image", "stored.png", "image/png", png(200, 100))))
+				.andReturn().getResponse().getContentAsString();
+		return JsonPath.read(body, "$.url");
+	}
+
+	private static byte[] bytes(int length, int seed) {
+		byte[] bytes = new byte[length];
+		new Random(seed).nextBytes(bytes);
+		return bytes;
+	}
+
+	private String nextCursor() throws IOException {
+		try {
+			String body = mockMvc.perform(get("/api/products").param("limit", "" + MAX_PAGE))
+					.andReturn().getResponse().getContentAsString();
+			return body.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String importCsv() {
+		StringBuilder csv = new StringBuilder("productName,category,condition,price,currency,country,city,images\n");
+		for (int i = 0; i < MAX_PAGE * 5; i++) {
+			csv.append("Pagne wax ").append(i).append(",Clothing,New,").append(2500 + i)
+					.append(",XOF,Mali,Bamako,/media/w").append(i).append("a.jpg|/media/w").append(i).append("b.jpg\n");
+		}
+		return csv.toString();
+	}
+
+	private static String ids() {
+		return LongStream.rangeClosed(1, MAX_PAGE).mapToObj(String::valueOf).collect(Collectors.joining(","));
+	}
+
+	private static byte[] png(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+		return out.toByteArray();
+	}
+}
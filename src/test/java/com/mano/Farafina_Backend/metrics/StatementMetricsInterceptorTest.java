@@ -0,0 +1,50 @@
+package com.mano.Farafina_Backend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+// Statements run by an async body are recorded with their request, however the threads interleave
+class StatementMetricsInterceptorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final StatementMetricsInterceptor interceptor =
+			new StatementMetricsInterceptor(meterRegistry, mock(StatementBudgetGuard.class));
+
+	@Test
+	void asyncBodyThatStartsBeforeTheContainerThreadLetsGoIsCounted() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/stream");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/stream");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		Callable<Void> body = () -> null;
+
+		interceptor.preHandle(request, response, this);
+		RequestStatements.current().record("SELECT 1", 1_000);
+
+		// The executor runs the body before afterConcurrentHandlingStarted is called on the container thread
+		CompletableFuture.runAsync(() -> {
+			ServletWebRequest webRequest = new ServletWebRequest(request);
+			interceptor.preProcess(webRequest, body);
+			RequestStatements.current().record("SELECT * FROM products", 1_000);
+			interceptor.postProcess(webRequest, body, null);
+		}).get();
+		interceptor.afterConcurrentHandlingStarted(request, response, this);
+
+		request.setDispatcherType(DispatcherType.ASYNC);
+		interceptor.preHandle(request, response, this);
+		interceptor.afterCompletion(request, response, this, null);
+
+		assertEquals(2.0, meterRegistry.get("farafina.jdbc.request.statements")
+				.tag("uri", "/api/products/stream").summary().totalAmount());
+	}
+}
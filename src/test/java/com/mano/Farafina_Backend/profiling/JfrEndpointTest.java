@@ -0,0 +1,133 @@
+package com.mano.Farafina_Backend.profiling;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Start, stop, summary and download of an on-demand recording through /actuator/jfr
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local",
+		"farafina.admin.username=ops",
+		"farafina.admin.password=secret",
+		"farafina.jfr.max-duration=PT5M",
+		"farafina.jfr.keep=2"
+})
+@AutoConfigureMockMvc
+class JfrEndpointTest {
+
+	private static Path directory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		directory = Files.createTempDirectory("jfr-endpoint");
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("jfr_endpoint"));
+		registry.add("farafina.jfr.dir", directory::toString);
+	}
+
+	@Test
+	void recordingRoundTrip() throws Exception {
+		String started = mockMvc.perform(admin(post("/actuator/jfr"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"profile\": \"default\", \"duration\": \"PT1M\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.recording.profile").value("default"))
+				.andExpect(jsonPath("$.recording.durationSeconds").value(60))
+				.andReturn().getResponse().getContentAsString();
+		String id = JsonPath.read(started, "$.recording.id");
+
+		// One recording at a time, and a running one has no summary or file yet
+		mockMvc.perform(admin(post("/actuator/jfr")).contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.success").value(false));
+		mockMvc.perform(admin(get("/actuator/jfr")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.running.id").value(id));
+		mockMvc.perform(admin(get("/actuator/jfr/" + id))).andExpect(status().isNotFound());
+		mockMvc.perform(admin(get("/actuator/jfr/" + id + "/download"))).andExpect(status().isNotFound());
+
+		mockMvc.perform(admin(delete("/actuator/jfr")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(id))
+				.andExpect(jsonPath("$.applicationPackage").value("com.mano.Farafina_Backend"))
+				.andExpect(jsonPath("$.cpu.samples").isNumber())
+				.andExpect(jsonPath("$.allocation.sampledBytes").isNumber())
+				.andExpect(jsonPath("$.locks.events").isNumber())
+				.andExpect(jsonPath("$.gc.collections").isNumber());
+		mockMvc.perform(admin(delete("/actuator/jfr"))).andExpect(status().isNotFound());
+
+		mockMvc.perform(admin(get("/actuator/jfr")))
+				.andExpect(jsonPath("$.running").isEmpty())
+				.andExpect(jsonPath("$.recordings[0].id").value(id))
+				.andExpect(jsonPath("$.recordings[0].download").value("/actuator/jfr/" + id + "/download"));
+		mockMvc.perform(admin(get("/actuator/jfr/" + id)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(id));
+
+		byte[] downloaded = mockMvc.perform(admin(get("/actuator/jfr/" + id + "/download")))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsByteArray();
+		assertArrayEquals(Files.readAllBytes(directory.resolve(id + ".jfr")), downloaded);
+		// Chunk header magic of a JFR file
+		assertArrayEquals(new byte[]{'F', 'L', 'R', 0}, Arrays.copyOf(downloaded, 4));
+	}
+
+	@Test
+	void invalidRequestsAreRejected() throws Exception {
+		mockMvc.perform(admin(post("/actuator/jfr")).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"profile\": \"everything\"}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(admin(post("/actuator/jfr")).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"duration\": \"PT6M\"}"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(admin(get("/actuator/jfr/not-an-id"))).andExpect(status().isNotFound());
+		mockMvc.perform(admin(get("/actuator/jfr/20000101-000000-000/download"))).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void onlyTheNewestRecordingsAreKept() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(admin(post("/actuator/jfr")).contentType(MediaType.APPLICATION_JSON).content("{}"))
+					.andExpect(status().isOk());
+			mockMvc.perform(admin(delete("/actuator/jfr"))).andExpect(status().isOk());
+		}
+
+		mockMvc.perform(admin(get("/actuator/jfr"))).andExpect(jsonPath("$.recordings", hasSize(2)));
+		try (Stream<Path> files = Files.list(directory)) {
+			List<Path> recordings = files.filter(path -> path.toString().endsWith(".jfr")).toList();
+			assertEquals(2, recordings.size(), recordings.toString());
+		}
+	}
+
+	private static MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+		return request.with(httpBasic("ops", "secret"));
+	}
+}
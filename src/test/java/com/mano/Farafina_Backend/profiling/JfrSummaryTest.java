@@ -0,0 +1,89 @@
+package com.mano.Farafina_Backend.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lock figures count threads blocked on a lock, not threads parked waiting for work
+class JfrSummaryTest {
+
+	private static final String PACKAGE = JfrSummaryTest.class.getPackageName();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void locksCountContentionAndSkipIdleParks() throws Exception {
+		Path file = directory.resolve("locks.jfr");
+		ReentrantLock lock = new ReentrantLock();
+		try (Recording recording = new Recording()) {
+			recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(10)).withStackTrace();
+			recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(10)).withStackTrace();
+			recording.start();
+
+			// Idle: a worker waiting on an empty queue, and a thread waiting on a latch
+			Thread idleQueue = Thread.ofPlatform().start(() -> poll(new LinkedBlockingQueue<>()));
+			CountDownLatch never = new CountDownLatch(1);
+			Thread idleLatch = Thread.ofPlatform().start(() -> await(never));
+
+			// Contended: one thread waits for the lock this one holds
+			lock.lock();
+			Thread contender;
+			try {
+				contender = Thread.ofPlatform().start(() -> lockAndRelease(lock));
+				while (!lock.hasQueuedThread(contender)) {
+					Thread.onSpinWait();
+				}
+				Thread.sleep(100);
+			} finally {
+				lock.unlock();
+			}
+			contender.join();
+			idleQueue.join();
+			idleLatch.join();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		Map<String, Object> locks = (Map<String, Object>) JfrSummary.summarize(file, PACKAGE).get("locks");
+		List<Map<String, Object>> sites = (List<Map<String, Object>>) locks.get("topSites");
+		assertEquals(1, sites.size(), sites.toString());
+		assertTrue(sites.get(0).get("frame").toString().contains("lockAndRelease"), sites.toString());
+		assertTrue(sites.get(0).get("topLock").toString().startsWith("park java.util.concurrent.locks.ReentrantLock$"));
+		assertTrue((Long) sites.get(0).get("millis") >= 50);
+	}
+
+	private static void lockAndRelease(ReentrantLock lock) {
+		lock.lock();
+		lock.unlock();
+	}
+
+	private static void poll(LinkedBlockingQueue<Object> queue) {
+		try {
+			queue.poll(100, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(100, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.mano.Farafina_Backend.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductLikeRepositoryConcurrencyTest {
+
+	private static final long PRODUCT_ID = 1L;
+	private static final int USERS = 500;
+	private static final int TAPS_PER_USER = 8;
+	private static final int THREADS = 32;
+
+	private HikariDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+	private ProductLikeRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:likes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		dataSource.setMaximumPoolSize(THREADS);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE product_likes (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+				"product_id BIGINT NOT NULL, user_id BIGINT NOT NULL, liked_at TIMESTAMP)");
+		repository = new ProductLikeRepository(jdbcTemplate);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+		dataSource.close();
+	}
+
+	@Test
+	void migrationRemovesExistingDuplicatesAndAddsTheKey() {
+		jdbcTemplate.update("INSERT INTO product_likes (product_id, user_id) VALUES (1, 1), (1, 1), (1, 2), (2, 1), (1, 1)");
+		assertFalse(repository.hasUniqueKey());
+
+		migrate();
+
+		assertTrue(repository.hasUniqueKey());
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_likes", Integer.class));
+	}
+
+	@Test
+	void repeatedLikeIsANoOpButOtherErrorsStillFail() {
+		migrate();
+
+		assertTrue(repository.insertIfAbsent(1L, 1L));
+		assertFalse(repository.insertIfAbsent(1L, 1L));
+		assertTrue(repository.delete(1L, 1L));
+		assertTrue(repository.insertIfAbsent(1L, 1L));
+		assertThrows(RuntimeException.class, () -> repository.insertIfAbsent(1L, null));
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_likes", Integer.class));
+	}
+
+	@Test
+	void concurrentLikesInsertExactlyOneRowPerUser() throws Exception {
+		migrate();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int tap = 0; tap < TAPS_PER_USER; tap++) {
+			for (long userId = 1; userId <= USERS; userId++) {
+				long user = userId;
+				results.add(executor.submit(() -> {
+					start.await();
+					return repository.insertIfAbsent(PRODUCT_ID, user);
+				}));
+			}
+		}
+
+		start.countDown();
+		int inserted = 0;
+		for (Future<Boolean> result : results) {
+			if (result.get()) {
+				inserted++;
+			}
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+
+		assertEquals(USERS, inserted);
+		assertEquals(USERS, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM product_likes WHERE product_id = ?", Integer.class, PRODUCT_ID));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM (SELECT user_id FROM product_likes GROUP BY product_id, user_id " +
+						"HAVING COUNT(*) > 1) dup", Integer.class));
+	}
+
+	@Test
+	void findLikedProductIdsChecksManyProductsAtOnce() {
+		migrate();
+		repository.insertIfAbsent(10L, 7L);
+		repository.insertIfAbsent(12L, 7L);
+		repository.insertIfAbsent(11L, 8L);
+
+		List<Long> liked = repository.findLikedProductIds(7L, List.of(10L, 11L, 12L, 13L));
+
+		assertEquals(Set.of(10L, 12L), new HashSet<>(liked));
+	}
+
+	private void migrate() {
+		new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__product_likes_unique_key.sql"))
+				.execute(dataSource);
+	}
+}
@@ -0,0 +1,107 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Counts loaded by the GROUP BY and kept current by product writes, including writes made while it runs
+class CatalogStatisticsTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final CatalogStatistics statistics = new CatalogStatistics(jdbcTemplate);
+
+	@Test
+	void reloadCountsTheGroupedRows() throws Exception {
+		groupBy(statistics, null, row("Clothing", "New", "Mali", "Bamako", 3),
+				row("Crafts", "Second Hand", "Mali", "Ségou", 2));
+
+		statistics.reload();
+
+		Map<String, Object> stats = statistics.snapshot();
+		assertEquals(5L, stats.get("totalProducts"));
+		assertEquals(3L, stats.get("newProducts"));
+		assertEquals(2L, stats.get("usedProducts"));
+		assertEquals(Map.of("Clothing", 3L, "Crafts", 2L), stats.get("byCategory"));
+		assertEquals(Map.of("Mali", 5L), stats.get("topCountries"));
+	}
+
+	@Test
+	void writesDuringAReloadAreKept() throws Exception {
+		Product created = product("Electronics", "New", "Sénégal", "Dakar");
+		Product deleted = product("Clothing", "New", "Mali", "Bamako");
+		// The GROUP BY does not see the product created while it runs, and still sees the deleted one
+		groupBy(statistics, () -> {
+			statistics.onCreated(created);
+			statistics.onDeleted(deleted);
+		}, row("Clothing", "New", "Mali", "Bamako", 3));
+
+		statistics.reload();
+
+		Map<String, Object> stats = statistics.snapshot();
+		assertEquals(3L, stats.get("totalProducts"));
+		assertEquals(Map.of("Clothing", 2L, "Electronics", 1L), stats.get("byCategory"));
+
+		// After the reload, writes apply directly and are not replayed by the next one
+		statistics.onCreated(product("Clothing", "New", "Mali", "Kayes"));
+		assertEquals(4L, statistics.snapshot().get("totalProducts"));
+		groupBy(statistics, null, row("Clothing", "New", "Mali", "Bamako", 3),
+				row("Electronics", "New", "Sénégal", "Dakar", 1));
+		statistics.reload();
+		assertEquals(4L, statistics.snapshot().get("totalProducts"));
+	}
+
+	@Test
+	void facetChangesMoveTheCount() {
+		Product product = product("Clothing", "New", "Mali", "Bamako");
+		statistics.onCreated(product);
+		CatalogStatistics.Facets before = CatalogStatistics.Facets.of(product);
+		product.setCategory("Crafts");
+
+		statistics.onUpdated(before, product);
+
+		assertEquals(Map.of("Crafts", 1L), statistics.snapshot().get("byCategory"));
+	}
+
+	// duringQuery runs after the first row, as a write made while the query streams would
+	private void groupBy(CatalogStatistics statistics, Runnable duringQuery, ResultSet... rows) throws Exception {
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (int i = 0; i < rows.length; i++) {
+				handler.processRow(rows[i]);
+				if (i == 0 && duringQuery != null) {
+					duringQuery.run();
+				}
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+	}
+
+	private static ResultSet row(String category, String condition, String country, String city, long total)
+			throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getString("category")).thenReturn(category);
+		when(rs.getString("product_condition")).thenReturn(condition);
+		when(rs.getString("country")).thenReturn(country);
+		when(rs.getString("city")).thenReturn(city);
+		when(rs.getLong("total")).thenReturn(total);
+		return rs;
+	}
+
+	private static Product product(String category, String condition, String country, String city) {
+		Product product = new Product();
+		product.setCategory(category);
+		product.setCondition(condition);
+		product.setCountry(country);
+		product.setCity(city);
+		return product;
+	}
+}
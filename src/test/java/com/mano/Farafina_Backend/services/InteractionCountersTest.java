@@ -0,0 +1,187 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+// The write-behind flush recounts from the source tables, so repeating it never counts a click twice
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local"
+})
+class InteractionCountersTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("interaction_counters"));
+		registry.add("farafina.storage.local.root", Files.createTempDirectory("interaction-counters")::toString);
+	}
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM product_likes");
+		jdbcTemplate.update("DELETE FROM product_comments");
+		jdbcTemplate.update("DELETE FROM product_images");
+		jdbcTemplate.update("DELETE FROM products");
+		jdbcTemplate.update("DELETE FROM users");
+		SeededCatalog.seed(jdbcTemplate, 2);
+		SeededCatalog.seedUsers(jdbcTemplate, 3, "hash");
+		jdbcTemplate.update("UPDATE products SET likes_count = 40, comments_count = 9");
+	}
+
+	@Test
+	void flushWritesTheCountsOfTheSourceTables() {
+		InteractionCounters counters = new InteractionCounters(jdbcTemplate, cacheManager);
+		like(1, 1, counters);
+		like(1, 2, counters);
+		comment(1, 3, counters);
+
+		counters.flush();
+
+		assertEquals(2, count("likes_count", 1));
+		assertEquals(1, count("comments_count", 1));
+		assertEquals(0, counters.pendingLikes(1L));
+		assertEquals(0, counters.pendingComments(1L));
+		// Products without pending clicks are left alone
+		assertEquals(40, count("likes_count", 2));
+	}
+
+	@Test
+	void flushRetriedAfterAFailedResponseDoesNotCountTwice() {
+		// The UPDATE commits, then the driver reports an error: the deltas stay pending
+		JdbcTemplate failingOnce = spy(jdbcTemplate);
+		doAnswer(invocation -> {
+			invocation.callRealMethod();
+			throw new QueryTimeoutException("response lost after commit");
+		}).doCallRealMethod().when(failingOnce).batchUpdate(anyString(), anyList());
+		InteractionCounters counters = new InteractionCounters(failingOnce, cacheManager);
+		like(1, 1, counters);
+
+		counters.flush();
+		assertEquals(1, count("likes_count", 1));
+		assertEquals(1, counters.pendingLikes(1L));
+
+		like(1, 2, counters);
+		counters.flush();
+		assertEquals(2, count("likes_count", 1));
+		assertEquals(0, counters.pendingLikes(1L));
+	}
+
+	@Test
+	void reconcileRecountsEveryProduct() {
+		jdbcTemplate.update("INSERT INTO product_likes (product_id, user_id, liked_at) VALUES (2, 1, NOW())");
+
+		assertEquals(2, new InteractionCounters(jdbcTemplate, cacheManager).reconcile());
+
+		assertEquals(0, count("likes_count", 1));
+		assertEquals(1, count("likes_count", 2));
+		assertEquals(0, count("comments_count", 2));
+	}
+
+	@Test
+	void flushedAndCancelledOutProductsAreDropped() {
+		InteractionCounters counters = new InteractionCounters(jdbcTemplate, cacheManager);
+		like(1, 1, counters);
+		counters.recordLike(2L, 1);
+		counters.recordLike(2L, -1);
+		comment(2, 3, counters);
+
+		counters.flush();
+
+		assertEquals(0, deltas(counters, "likeDeltas").size());
+		assertEquals(0, deltas(counters, "commentDeltas").size());
+		assertEquals(1, count("likes_count", 1));
+		assertEquals(1, count("comments_count", 2));
+	}
+
+	@Test
+	void clicksRecordedWhileFlushesDropEntriesAreKept() throws Exception {
+		// Every delta a flush reads is subtracted, so flushed + still pending must equal what was recorded
+		InteractionCounters counters = spy(new InteractionCounters(mock(JdbcTemplate.class), cacheManager));
+		LongAdder flushed = new LongAdder();
+		doAnswer(invocation -> {
+			long pending = (long) invocation.callRealMethod();
+			flushed.add(pending);
+			return pending;
+		}).when(counters).pendingLikes(anyLong());
+		int threads = 4;
+		int clicks = 20_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> recorders = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			recorders.add(executor.submit(() -> {
+				for (int i = 0; i < clicks; i++) {
+					counters.recordLike(1L, 1);
+				}
+			}));
+		}
+		while (!recorders.stream().allMatch(Future::isDone)) {
+			counters.flush();
+		}
+		for (Future<?> recorder : recorders) {
+			recorder.get();
+		}
+		executor.shutdown();
+
+		Map<Long, LongAdder> likes = deltas(counters, "likeDeltas");
+		long pending = likes.containsKey(1L) ? likes.get(1L).sum() : 0;
+		assertEquals((long) threads * clicks, flushed.sum() + pending);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Long, LongAdder> deltas(InteractionCounters counters, String field) {
+		return (Map<Long, LongAdder>) ReflectionTestUtils.getField(counters, field);
+	}
+
+	private void like(long productId, long userId, InteractionCounters counters) {
+		jdbcTemplate.update("INSERT INTO product_likes (product_id, user_id, liked_at) VALUES (?, ?, NOW())",
+				productId, userId);
+		counters.recordLike(productId, 1);
+	}
+
+	private void comment(long productId, long userId, InteractionCounters counters) {
+		jdbcTemplate.update("INSERT INTO product_comments (product_id, user_id, comment, commented_at) " +
+				"VALUES (?, ?, 'Bon prix', NOW())", productId, userId);
+		counters.recordComment(productId, 1);
+	}
+
+	private int count(String column, long productId) {
+		return jdbcTemplate.queryForObject("SELECT " + column + " FROM products WHERE id = ?", Integer.class,
+				productId);
+	}
+}
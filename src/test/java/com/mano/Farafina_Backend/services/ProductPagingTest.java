@@ -0,0 +1,110 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.dto.CursorPage;
+import com.mano.Farafina_Backend.dto.ProductFilter;
+import com.mano.Farafina_Backend.dto.ProductSummary;
+import com.mano.Farafina_Backend.entity.Product;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Keyset pages carry a nextCursor only when another row exists, so the last page never costs an empty request
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local",
+		"farafina.search.max-candidates=4"
+})
+class ProductPagingTest {
+
+	@Autowired
+	private ProductService productService;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("product_paging"));
+	}
+
+	@Test
+	void listingThatEndsOnAPageBoundaryHasNoCursor() {
+		for (int i = 0; i < 4; i++) {
+			create(101L, "Chaise en bois " + i, "Furniture");
+		}
+
+		CursorPage<ProductSummary> first = productService.getProductsByUserId(101L, null, 2);
+		assertEquals(2, first.getItems().size());
+		assertNotNull(first.getNextCursor());
+
+		CursorPage<ProductSummary> last = productService.getProductsByUserId(101L, first.getNextCursor(), 2);
+		assertEquals(2, last.getItems().size());
+		assertNull(last.getNextCursor());
+		assertFalse(last.hasMore());
+	}
+
+	@Test
+	void rankedSearchWhoseCandidatesEndWithTheWindowHasNoCursor() {
+		// Exactly max-candidates hits, all passing the filter: one page, nothing after it
+		for (int i = 0; i < 4; i++) {
+			create(102L, "Lampe tempête " + i, "Home");
+		}
+
+		CursorPage<ProductSummary> page = productService.searchProducts(filter("tempête", "Home"), null, 10);
+
+		assertEquals(4, page.getItems().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void rankedSearchResumesAfterTheWindowWhenMoreHitsExist() {
+		// Six hits, only the last two pass the filter: the first window of four yields none of them
+		for (int i = 0; i < 4; i++) {
+			create(103L, "Tambour djembé " + i, "Crafts");
+		}
+		create(103L, "Tambour djembé rare", "Music");
+		create(103L, "Tambour djembé rare et ancien", "Music");
+
+		CursorPage<ProductSummary> first = productService.searchProducts(filter("djembé", "Music"), null, 10);
+		CursorPage<ProductSummary> next = first;
+		int found = first.getItems().size();
+		int pages = 1;
+		while (next.getNextCursor() != null) {
+			next = productService.searchProducts(filter("djembé", "Music"), next.getNextCursor(), 10);
+			found += next.getItems().size();
+			pages++;
+		}
+
+		assertEquals(2, found);
+		assertEquals(2, pages);
+	}
+
+	private void create(long userId, String name, String category) {
+		Product product = new Product();
+		product.setUserId(userId);
+		product.setProductName(name);
+		product.setCategory(category);
+		product.setCondition("New");
+		product.setPrice(new BigDecimal("5000"));
+		product.setCurrency("XOF");
+		product.setCountry("Mali");
+		product.setCity("Bamako");
+		product.setImages(List.of());
+		productService.createProduct(product);
+	}
+
+	private static ProductFilter filter(String keyword, String category) {
+		ProductFilter filter = new ProductFilter();
+		filter.setKeyword(keyword);
+		filter.setCategory(category);
+		return filter;
+	}
+}
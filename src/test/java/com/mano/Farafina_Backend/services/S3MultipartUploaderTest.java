@@ -0,0 +1,182 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.services.storage.UploadTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+// Size cap and part accounting of streamed multipart uploads and copies, against a mocked S3 client
+class S3MultipartUploaderTest {
+
+	private static final int PART = 5 * 1024 * 1024;
+
+	private final S3Client s3Client = mock(S3Client.class);
+	private final List<UploadPartRequest> parts = new CopyOnWriteArrayList<>();
+	private S3MultipartUploader uploader;
+
+	@BeforeEach
+	void setUp() {
+		when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+				.thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+		when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			parts.add(request);
+			return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+		});
+		uploader = new S3MultipartUploader(s3Client, DataSize.ofBytes(PART), 2, 4, false);
+		ReflectionTestUtils.setField(uploader, "bucketName", "bucket");
+	}
+
+	@AfterEach
+	void tearDown() {
+		uploader.shutdown();
+	}
+
+	@Test
+	void uploadWithinTheCapCompletes() throws Exception {
+		long uploaded = uploader.upload("videos/a.mp4", "video/mp4", body(2L * PART + 10), 3L * PART);
+
+		assertEquals(2L * PART + 10, uploaded);
+		assertEquals(3, parts.size());
+		verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+		verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+	}
+
+	@Test
+	void uploadPastTheCapIsAborted() {
+		UploadTooLargeException e = assertThrows(UploadTooLargeException.class,
+				() -> uploader.upload("videos/a.mp4", "video/mp4", body(4L * PART), 2L * PART + 1));
+
+		assertEquals(2L * PART + 1, e.getMaxBytes());
+		// The part that crossed the cap is never sent
+		assertTrue(parts.size() <= 2, "uploaded " + parts.size() + " parts");
+		verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void partsGrowSoTheCapFitsInTenThousandParts() throws Exception {
+		// 100 GB would need 20,000 parts of 5 MB
+		long cap = 100L * 1024 * 1024 * 1024;
+		uploader.upload("videos/a.mp4", "video/mp4", body(12L * 1024 * 1024), cap);
+
+		long expectedPart = Math.ceilDiv(cap, 10_000);
+		assertEquals(2, parts.size());
+		assertEquals(expectedPart, parts.stream().mapToLong(UploadPartRequest::contentLength).max().getAsLong());
+	}
+
+	@Test
+	void copySplitsTheSourceIntoRanges() throws Exception {
+		List<UploadPartCopyRequest> copies = new CopyOnWriteArrayList<>();
+		when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class))).thenAnswer(invocation -> {
+			UploadPartCopyRequest request = invocation.getArgument(0);
+			copies.add(request);
+			return UploadPartCopyResponse.builder()
+					.copyPartResult(CopyPartResult.builder().eTag("etag-" + request.partNumber()).build())
+					.build();
+		});
+		long size = 6L * 1024 * 1024 * 1024 + 1;
+
+		uploader.copy("tmp/a.mp4", "videos/a.mp4", "video/mp4", size);
+
+		long part = 512L * 1024 * 1024;
+		assertEquals(13, copies.size());
+		copies.sort(Comparator.comparing(UploadPartCopyRequest::partNumber));
+		assertEquals("bytes=0-" + (part - 1), copies.get(0).copySourceRange());
+		assertEquals("bytes=" + part + "-" + (2 * part - 1), copies.get(1).copySourceRange());
+		assertEquals("bytes=" + (size - 1) + "-" + (size - 1), copies.get(12).copySourceRange());
+		assertEquals("tmp/a.mp4", copies.get(0).sourceKey());
+		verify(s3Client).completeMultipartUpload(argThat((CompleteMultipartUploadRequest request) ->
+				request.multipartUpload().parts().size() == 13
+						&& request.multipartUpload().parts().get(12).eTag().equals("etag-13")));
+	}
+
+	@Test
+	void failedCopyIsAborted() {
+		when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class))).thenThrow(S3Exception.builder().message("boom").build());
+
+		assertThrows(IOException.class,
+				() -> uploader.copy("tmp/a.mp4", "videos/a.mp4", "video/mp4", 6L * 1024 * 1024 * 1024));
+		verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void uploadPastTheCapAbortsOnlyAfterInFlightPartsFinish() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch aborted = recordAbort(events);
+		// Part 1 is still uploading when part 3 crosses the cap
+		when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			if (request.partNumber() == 1) {
+				aborted.await(500, TimeUnit.MILLISECONDS);
+			}
+			events.add("part-" + request.partNumber());
+			return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+		});
+
+		assertThrows(UploadTooLargeException.class,
+				() -> uploader.upload("videos/a.mp4", "video/mp4", body(4L * PART), 2L * PART + 1));
+
+		assertEquals(List.of("part-2", "part-1", "abort"), events);
+	}
+
+	@Test
+	void failedCopyAbortsOnlyAfterInFlightPartsFinish() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		CountDownLatch aborted = recordAbort(events);
+		when(s3Client.uploadPartCopy(any(UploadPartCopyRequest.class))).thenAnswer(invocation -> {
+			UploadPartCopyRequest request = invocation.getArgument(0);
+			if (request.partNumber() == 1) {
+				throw S3Exception.builder().message("boom").build();
+			}
+			if (request.partNumber() == 2) {
+				aborted.await(500, TimeUnit.MILLISECONDS);
+			}
+			events.add("part-" + request.partNumber());
+			return UploadPartCopyResponse.builder()
+					.copyPartResult(CopyPartResult.builder().eTag("etag-" + request.partNumber()).build())
+					.build();
+		});
+
+		assertThrows(IOException.class,
+				() -> uploader.copy("tmp/a.mp4", "videos/a.mp4", "video/mp4", 6L * 1024 * 1024 * 1024));
+
+		assertTrue(events.contains("part-2"), events.toString());
+		assertEquals("abort", events.get(events.size() - 1));
+		verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	private CountDownLatch recordAbort(List<String> events) {
+		CountDownLatch aborted = new CountDownLatch(1);
+		when(s3Client.abortMultipartUpload(any(AbortMultipartUploadRequest.class))).thenAnswer(invocation -> {
+			events.add("abort");
+			aborted.countDown();
+			return AbortMultipartUploadResponse.builder().build();
+		});
+		return aborted;
+	}
+
+	private static InputStream body(long size) {
+		return new ByteArrayInputStream(new byte[(int) size]);
+	}
+}
@@ -0,0 +1,69 @@
+package com.mano.Farafina_Backend.services;
+
+import com.mano.Farafina_Backend.dto.UploadedImage;
+import com.mano.Farafina_Backend.entity.MediaObject;
+import com.mano.Farafina_Backend.services.media.ImagePipeline;
+import com.mano.Farafina_Backend.services.media.ImageVariant;
+import com.mano.Farafina_Backend.services.media.MediaIndex;
+import com.mano.Farafina_Backend.services.storage.StorageBackend;
+import com.mano.Farafina_Backend.services.storage.UploadTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+// An image hash is only recorded once its variants are stored, so a failed resize is retried on re-upload
+class S3ServiceTest {
+
+	private final StorageBackend storage = mock(StorageBackend.class);
+	private final ImagePipeline imagePipeline = mock(ImagePipeline.class);
+	private final MediaIndex mediaIndex = mock(MediaIndex.class);
+	private final MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+	private S3Service service;
+
+	@BeforeEach
+	void setUp() {
+		when(mediaIndex.find(any())).thenReturn(Optional.empty());
+		when(storage.url(any())).thenAnswer(invocation -> "/media/" + invocation.getArgument(0));
+		service = new S3Service(storage, imagePipeline, mediaIndex, mock(UploadTokens.class));
+	}
+
+	@Test
+	void storedVariantsRegisterTheHash() throws Exception {
+		when(imagePipeline.process(any())).thenReturn(List.of(new ImageVariant(320, 160, new byte[]{4})));
+
+		UploadedImage uploaded = service.uploadImage(file);
+
+		assertEquals(1, uploaded.getVariants().size());
+		verify(mediaIndex).register(argThat((MediaObject object) -> "320".equals(object.getVariantWidths())));
+	}
+
+	@Test
+	void failedVariantsLeaveTheHashUnknown() throws Exception {
+		when(imagePipeline.process(any())).thenThrow(new IOException("Image pipeline is busy"));
+
+		UploadedImage uploaded = service.uploadImage(file);
+
+		assertTrue(uploaded.getVariants().isEmpty());
+		verify(storage).putBytes(argThat(key -> key.endsWith("/orig.jpg")), any(), any());
+		verify(mediaIndex, never()).register(any());
+	}
+
+	@Test
+	void storageFailureWhileWritingVariantsRegistersNothing() throws Exception {
+		when(imagePipeline.process(any())).thenReturn(List.of(new ImageVariant(320, 160, new byte[]{4})));
+		doNothing().when(storage).putBytes(argThat(key -> key.endsWith("/orig.jpg")), any(), any());
+		doThrow(new IOException("disk full")).when(storage).putBytes(argThat(key -> key.endsWith("/w320.jpg")), any(), any());
+
+		assertThrows(IOException.class, () -> service.uploadImage(file));
+		verify(mediaIndex, never()).register(any());
+	}
+}
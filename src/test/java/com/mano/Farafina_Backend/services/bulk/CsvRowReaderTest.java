@@ -0,0 +1,118 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+	private static final int MAX_RECORD = 200;
+
+	@Test
+	void quotedFieldsKeepDelimitersQuotesAndLineBreaks() throws IOException {
+		CsvRowReader reader = reader("productName,description,price\n" +
+				"\"Pagne, wax\",\"Dit \"\"super\"\"\",2500\n" +
+				"Boubou,\"Brodé\nà la main\",9000\n" +
+				"Sac,,1500\n");
+
+		ImportRow first = reader.next();
+		assertEquals(Map.of("productName", "Pagne, wax", "description", "Dit \"super\"", "price", "2500"),
+				first.getFields());
+		assertEquals(1, first.getNumber());
+		assertEquals(2, first.getLine());
+
+		ImportRow second = reader.next();
+		assertEquals("Brodé\nà la main", second.getFields().get("description"));
+		assertEquals(3, second.getLine());
+
+		// The quoted line break moved the third row to line 5; empty cells are left out
+		ImportRow third = reader.next();
+		assertEquals(Map.of("productName", "Sac", "price", "1500"), third.getFields());
+		assertEquals(5, third.getLine());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void byteOrderMarkAndSemicolonsFromSpreadsheets() throws IOException {
+		CsvRowReader reader = reader("\uFEFFproductName;price;images\r\n" +
+				"Pagne;2500,50;/media/a.jpg|/media/b.jpg\r\n");
+
+		assertEquals(List.of("productName", "price", "images"), reader.getHeader());
+		assertEquals(Map.of("productName", "Pagne", "price", "2500,50", "images", "/media/a.jpg|/media/b.jpg"),
+				reader.next().getFields());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void blankAndEmptyRowsAreSkipped() throws IOException {
+		CsvRowReader reader = reader("productName,price\n\n,\nPagne,2500\n,,\n");
+
+		ImportRow row = reader.next();
+		assertEquals(1, row.getNumber());
+		assertEquals(4, row.getLine());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void extraValuesPastTheHeaderAreAnError() throws IOException {
+		CsvRowReader reader = reader("productName,price\nPagne,2500,oops\nSac,1500,,\n");
+
+		assertEquals("Has 3 columns, the header has 2", reader.next().getError());
+		assertEquals(Map.of("productName", "Sac", "price", "1500"), reader.next().getFields());
+	}
+
+	@Test
+	void unterminatedQuoteIsReportedWithItsStartLine() throws IOException {
+		CsvRowReader reader = reader("productName,price\nPagne,2500\n\"Sac,1500\nBoubou,9000\n");
+
+		reader.next();
+		ImportRow row = reader.next();
+		assertEquals("Quoted field is never closed", row.getError());
+		assertEquals(3, row.getLine());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void overlongRecordIsReportedAndTheNextOneStillRead() throws IOException {
+		String longName = "x".repeat(MAX_RECORD);
+		CsvRowReader reader = reader("productName,price\n" + longName + ",2500\n\"" + longName + "\n" + longName + "\",1\n" +
+				"Sac,1500\n");
+
+		ImportRow tooLong = reader.next();
+		assertEquals("Longer than " + MAX_RECORD + " characters", tooLong.getError());
+		assertEquals(2, tooLong.getLine());
+
+		ImportRow quotedTooLong = reader.next();
+		assertEquals("Longer than " + MAX_RECORD + " characters", quotedTooLong.getError());
+		assertEquals(3, quotedTooLong.getLine());
+
+		ImportRow next = reader.next();
+		assertEquals(Map.of("productName", "Sac", "price", "1500"), next.getFields());
+		assertEquals(3, next.getNumber());
+		assertEquals(5, next.getLine());
+	}
+
+	@Test
+	void recordOfExactlyTheLimitIsRead() throws IOException {
+		String name = "x".repeat(MAX_RECORD - ",2500".length());
+		CsvRowReader reader = reader("productName,price\n" + name + ",2500\n");
+
+		assertEquals(name, reader.next().getFields().get("productName"));
+	}
+
+	@Test
+	void unreadableHeaderRejectsTheFile() {
+		assertThrows(IllegalArgumentException.class, () -> reader(""));
+		assertThrows(IllegalArgumentException.class, () -> reader("\"productName,price\n"));
+	}
+
+	private static CsvRowReader reader(String csv) throws IOException {
+		return new CsvRowReader(new BufferedReader(new StringReader(csv)), MAX_RECORD);
+	}
+}
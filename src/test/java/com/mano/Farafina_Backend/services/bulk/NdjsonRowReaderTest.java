@@ -0,0 +1,72 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonRowReaderTest {
+
+	private static final int MAX_LINE = 100;
+
+	@Test
+	void oneObjectPerLine() throws IOException {
+		NdjsonRowReader reader = reader("{\"productName\":\"Pagne\",\"price\":2500,\"images\":[\"/media/a.jpg\",\"/media/b.jpg\"]}\r\n" +
+				"\n" +
+				"{\"productName\":\" Sac \",\"description\":null,\"city\":\"\"}\n");
+
+		ImportRow first = reader.next();
+		assertEquals(Map.of("productName", "Pagne", "price", "2500", "images", List.of("/media/a.jpg", "/media/b.jpg")),
+				first.getFields());
+		assertEquals(1, first.getLine());
+
+		// Nulls and blank strings are left out, text is trimmed; the blank line still counts as a line
+		ImportRow second = reader.next();
+		assertEquals(Map.of("productName", "Sac"), second.getFields());
+		assertEquals(2, second.getNumber());
+		assertEquals(3, second.getLine());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void lastLineWithoutLineBreak() throws IOException {
+		NdjsonRowReader reader = reader("{\"productName\":\"Pagne\"}");
+
+		assertEquals(Map.of("productName", "Pagne"), reader.next().getFields());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void malformedLinesAreReportedAndReadingGoesOn() throws IOException {
+		NdjsonRowReader reader = reader("{\"productName\":\n[1,2]\n{\"productName\":\"Sac\"}\n");
+
+		assertTrue(reader.next().getError().startsWith("Not valid JSON"));
+		assertEquals("Expected a JSON object", reader.next().getError());
+		ImportRow row = reader.next();
+		assertEquals(Map.of("productName", "Sac"), row.getFields());
+		assertEquals(3, row.getNumber());
+	}
+
+	@Test
+	void overlongLineIsReportedAndTheNextOneStillRead() throws IOException {
+		String longLine = "{\"description\":\"" + "x".repeat(MAX_LINE) + "\"}";
+		NdjsonRowReader reader = reader(longLine + "\n{\"productName\":\"Sac\"}\n");
+
+		ImportRow tooLong = reader.next();
+		assertEquals("Longer than " + MAX_LINE + " characters", tooLong.getError());
+		assertEquals(1, tooLong.getLine());
+		ImportRow next = reader.next();
+		assertEquals(Map.of("productName", "Sac"), next.getFields());
+		assertEquals(2, next.getLine());
+	}
+
+	private static NdjsonRowReader reader(String ndjson) {
+		return new NdjsonRowReader(new BufferedReader(new StringReader(ndjson)), new ObjectMapper(), MAX_LINE);
+	}
+}
@@ -0,0 +1,97 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mano.Farafina_Backend.entity.Product;
+import com.mano.Farafina_Backend.repository.ProductImportRepository;
+import com.mano.Farafina_Backend.services.CatalogStatistics;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Batch writes and their failure handling, with the database replaced by a repository that rejects
+// any batch holding a product named "bad"
+class ProductImportServiceTest {
+
+	private static final int BATCH = 500;
+
+	private final ProductImportRepository repository = mock(ProductImportRepository.class);
+	private final AtomicInteger writes = new AtomicInteger();
+	private final AtomicInteger saved = new AtomicInteger();
+	private ProductImportService service;
+
+	@BeforeEach
+	void setUp() {
+		doAnswer(invocation -> {
+			List<Product> products = invocation.getArgument(0);
+			writes.incrementAndGet();
+			if (products.stream().anyMatch(product -> product.getProductName().startsWith("bad"))) {
+				throw new DataIntegrityViolationException("Incorrect string value");
+			}
+			saved.addAndGet(products.size());
+			return null;
+		}).when(repository).insert(anyList());
+
+		service = new ProductImportService(repository, mock(ProductSearchIndex.class), mock(CatalogStatistics.class),
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper());
+		ReflectionTestUtils.setField(service, "batchSize", BATCH);
+		ReflectionTestUtils.setField(service, "maxRows", 20000);
+		ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+		ReflectionTestUtils.setField(service, "maxRecordLength", 131072);
+	}
+
+	@Test
+	void rejectedRowsAreIsolatedByBisection() throws Exception {
+		ProductImportReport report = importRows(BATCH, 137, 402);
+
+		assertEquals(BATCH - 2, report.getImported());
+		assertEquals(BATCH - 2, saved.get());
+		assertEquals(2, report.getFailed());
+		assertEquals(List.of(137, 402), report.getErrors().stream().map(ImportError::getRow).toList());
+		assertEquals(List.of(138, 403), report.getErrors().stream().map(ImportError::getLine).toList());
+		assertTrue(report.getErrors().get(0).getErrors().get(0).startsWith("Not saved: "));
+		// One-by-one retries would have cost 501 writes
+		assertTrue(writes.get() <= 1 + ProductImportService.MAX_RETRY_WRITES, writes.get() + " writes");
+	}
+
+	@Test
+	void retriesStopAtTheirCap() throws Exception {
+		int[] bad = new int[50];
+		for (int i = 0; i < bad.length; i++) {
+			bad[i] = i * 10 + 1;
+		}
+		ProductImportReport report = importRows(BATCH, bad);
+
+		assertEquals(BATCH, report.getImported() + report.getFailed());
+		assertTrue(report.getFailed() >= bad.length);
+		assertEquals(report.getImported(), saved.get());
+		assertTrue(writes.get() <= 1 + ProductImportService.MAX_RETRY_WRITES, writes.get() + " writes");
+	}
+
+	// rows named "bad" at the given 1-based row numbers
+	private ProductImportReport importRows(int rows, int... bad) throws Exception {
+		StringBuilder csv = new StringBuilder("productName,category,condition,price,currency,country\n");
+		int next = 0;
+		for (int row = 1; row <= rows; row++) {
+			boolean rejected = next < bad.length && bad[next] == row;
+			if (rejected) {
+				next++;
+			}
+			csv.append(rejected ? "bad " : "Pagne ").append(row).append(",Clothing,New,2500,XOF,Mali\n");
+		}
+		return service.importProducts(new BufferedReader(new StringReader(csv.toString())), "text/csv", 1L);
+	}
+}
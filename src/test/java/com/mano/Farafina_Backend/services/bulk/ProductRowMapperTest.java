@@ -0,0 +1,64 @@
+package com.mano.Farafina_Backend.services.bulk;
+
+import com.mano.Farafina_Backend.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductRowMapperTest {
+
+	@Test
+	void csvImageCellIsSplitOnPipes() {
+		Map<String, Object> fields = valid();
+		fields.put("images", "/media/a.jpg| /media/b.jpg ||/media/c.jpg");
+		List<String> errors = new ArrayList<>();
+
+		Product product = ProductRowMapper.toProduct(fields, 1L, errors);
+
+		assertEquals(List.of(), errors);
+		assertEquals(List.of("/media/a.jpg", "/media/b.jpg", "/media/c.jpg"), product.getImages());
+		assertEquals(new BigDecimal("2500.50"), product.getPrice());
+		assertEquals(1L, product.getUserId());
+	}
+
+	@Test
+	void tooManyImages() {
+		Map<String, Object> fields = valid();
+		fields.put("images", "/media/x.jpg|".repeat(ProductRowMapper.MAX_IMAGES + 1));
+		List<String> errors = new ArrayList<>();
+
+		assertNull(ProductRowMapper.toProduct(fields, 1L, errors));
+		assertEquals(List.of("more than " + ProductRowMapper.MAX_IMAGES + " images"), errors);
+	}
+
+	@Test
+	void everyProblemInTheRowIsListed() {
+		Map<String, Object> fields = valid();
+		fields.remove("category");
+		fields.put("price", "12.345");
+		fields.put("localPickup", "maybe");
+		fields.put("colour", "red");
+		List<String> errors = new ArrayList<>();
+
+		assertNull(ProductRowMapper.toProduct(fields, null, errors));
+		assertEquals(List.of("Unknown field colour", "userId is required (in the row or as the userId parameter)",
+				"category is required", "price has more than 2 decimals", "localPickup must be true or false"), errors);
+	}
+
+	private static Map<String, Object> valid() {
+		Map<String, Object> fields = new HashMap<>();
+		fields.put("productName", "Pagne wax");
+		fields.put("category", "Clothing");
+		fields.put("condition", "New");
+		fields.put("price", "2500.50");
+		fields.put("currency", "XOF");
+		fields.put("country", "Mali");
+		return fields;
+	}
+}
@@ -0,0 +1,91 @@
+package com.mano.Farafina_Backend.services.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExifOrientationTest {
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8})
+	void readsTheTagInEitherByteOrder(int orientation) {
+		assertEquals(orientation, ExifOrientation.read(jpeg(exif(orientation, false))));
+		assertEquals(orientation, ExifOrientation.read(jpeg(exif(orientation, true))));
+	}
+
+	@Test
+	void findsTheExifSegmentAfterOtherSegments() {
+		byte[] app0 = {(byte) 0xFF, (byte) 0xE0, 0, 7, 'J', 'F', 'I', 'F', 0};
+		assertEquals(6, ExifOrientation.read(jpeg(app0, exif(6, false))));
+	}
+
+	@Test
+	void anythingUnreadableIsUpright() {
+		assertEquals(1, ExifOrientation.read(new byte[0]));
+		assertEquals(1, ExifOrientation.read(new byte[]{(byte) 0x89, 'P', 'N', 'G'}));
+		assertEquals(1, ExifOrientation.read(jpeg()));
+		assertEquals(1, ExifOrientation.read(jpeg(exif(9, false))));
+		// Segment length past the end of the file
+		assertEquals(1, ExifOrientation.read(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE1, 0x7F, 0}));
+		// IFD offset past the end of the segment
+		byte[] broken = exif(6, false);
+		broken[4 + 6 + 7] = 0x70;
+		assertEquals(1, ExifOrientation.read(jpeg(broken)));
+	}
+
+	// An APP1 segment whose IFD0 holds one entry: Orientation, type SHORT
+	static byte[] exif(int orientation, boolean littleEndian) {
+		ByteArrayOutputStream tiff = new ByteArrayOutputStream();
+		tiff.writeBytes(littleEndian ? new byte[]{'I', 'I', 42, 0} : new byte[]{'M', 'M', 0, 42});
+		writeInt(tiff, 8, littleEndian);
+		writeShort(tiff, 1, littleEndian);
+		writeShort(tiff, 0x0112, littleEndian);
+		writeShort(tiff, 3, littleEndian);
+		writeInt(tiff, 1, littleEndian);
+		writeShort(tiff, orientation, littleEndian);
+		writeShort(tiff, 0, littleEndian);
+		writeInt(tiff, 0, littleEndian);
+
+		byte[] body = tiff.toByteArray();
+		int length = 2 + 6 + body.length;
+		ByteArrayOutputStream segment = new ByteArrayOutputStream();
+		segment.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length});
+		segment.writeBytes(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+		segment.writeBytes(body);
+		return segment.toByteArray();
+	}
+
+	private static byte[] jpeg(byte[]... segments) {
+		ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+		jpeg.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD8});
+		for (byte[] segment : segments) {
+			jpeg.writeBytes(segment);
+		}
+		jpeg.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD9});
+		return jpeg.toByteArray();
+	}
+
+	private static void writeShort(ByteArrayOutputStream out, int value, boolean littleEndian) {
+		if (littleEndian) {
+			out.write(value);
+			out.write(value >> 8);
+		} else {
+			out.write(value >> 8);
+			out.write(value);
+		}
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value, boolean littleEndian) {
+		if (littleEndian) {
+			writeShort(out, value & 0xFFFF, true);
+			writeShort(out, value >>> 16, true);
+		} else {
+			writeShort(out, value >>> 16, false);
+			writeShort(out, value & 0xFFFF, false);
+		}
+	}
+}
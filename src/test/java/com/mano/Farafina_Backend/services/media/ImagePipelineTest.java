@@ -0,0 +1,129 @@
+package com.mano.Farafina_Backend.services.media;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Variants come out upright, never upscaled, and oversized originals are refused before decoding
+class ImagePipelineTest {
+
+	private final ImagePipeline pipeline = new ImagePipeline(List.of(320, 16), 0.9f, 2, 4, 10_000);
+
+	@AfterEach
+	void tearDown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	void storedOrientationIsKept() throws Exception {
+		List<ImageVariant> variants = pipeline.process(redLeftBlueRight(0));
+
+		assertEquals(List.of(16, 320), variants.stream().map(ImageVariant::getWidth).toList());
+		BufferedImage full = decode(variants.get(1));
+		assertEquals(64, full.getWidth());
+		assertEquals(32, full.getHeight());
+		assertEquals(32, variants.get(1).getHeight());
+		assertRed(full.getRGB(8, 16));
+		assertBlue(full.getRGB(56, 16));
+		assertEquals(8, decode(variants.get(0)).getHeight());
+	}
+
+	@Test
+	void quarterTurnClockwiseTradesWidthAndHeight() throws Exception {
+		List<ImageVariant> variants = pipeline.process(redLeftBlueRight(6));
+
+		BufferedImage full = decode(variants.get(1));
+		assertEquals(32, full.getWidth());
+		assertEquals(64, full.getHeight());
+		assertEquals(64, variants.get(1).getHeight());
+		// The stored left edge is now the top
+		assertRed(full.getRGB(16, 8));
+		assertBlue(full.getRGB(16, 56));
+		BufferedImage thumbnail = decode(variants.get(0));
+		assertEquals(16, thumbnail.getWidth());
+		assertEquals(32, thumbnail.getHeight());
+	}
+
+	@Test
+	void quarterTurnCounterClockwisePutsTheLeftEdgeAtTheBottom() throws Exception {
+		BufferedImage full = decode(pipeline.process(redLeftBlueRight(8)).get(1));
+
+		assertEquals(32, full.getWidth());
+		assertBlue(full.getRGB(16, 8));
+		assertRed(full.getRGB(16, 56));
+	}
+
+	@Test
+	void halfTurnAndMirrorSwapTheSides() throws Exception {
+		BufferedImage turned = decode(pipeline.process(redLeftBlueRight(3)).get(1));
+		assertBlue(turned.getRGB(8, 16));
+		assertRed(turned.getRGB(56, 16));
+
+		BufferedImage mirrored = decode(pipeline.process(redLeftBlueRight(2)).get(1));
+		assertBlue(mirrored.getRGB(8, 16));
+		assertRed(mirrored.getRGB(56, 16));
+	}
+
+	@Test
+	void originalsOverThePixelCapAreRefused() throws Exception {
+		BufferedImage large = new BufferedImage(101, 100, BufferedImage.TYPE_INT_RGB);
+		IOException e = assertThrows(IOException.class, () -> pipeline.process(jpeg(large)));
+		assertEquals("Image too large: 101x100", e.getMessage());
+	}
+
+	@Test
+	void notAnImageIsRefused() {
+		IOException e = assertThrows(IOException.class, () -> pipeline.process(new byte[]{1, 2, 3}));
+		assertEquals("Unsupported image format", e.getMessage());
+	}
+
+	// 64x32, left half red and right half blue, with an EXIF orientation tag unless 0
+	private static byte[] redLeftBlueRight(int orientation) throws IOException {
+		BufferedImage image = new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.RED);
+		graphics.fillRect(0, 0, 32, 32);
+		graphics.setColor(Color.BLUE);
+		graphics.fillRect(32, 0, 32, 32);
+		graphics.dispose();
+		byte[] jpeg = jpeg(image);
+		if (orientation == 0) {
+			return jpeg;
+		}
+		byte[] exif = ExifOrientationTest.exif(orientation, false);
+		ByteArrayOutputStream tagged = new ByteArrayOutputStream();
+		tagged.write(jpeg, 0, 2);
+		tagged.writeBytes(exif);
+		tagged.write(jpeg, 2, jpeg.length - 2);
+		return tagged.toByteArray();
+	}
+
+	private static byte[] jpeg(BufferedImage image) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpg", bytes);
+		return bytes.toByteArray();
+	}
+
+	private static BufferedImage decode(ImageVariant variant) throws IOException {
+		return ImageIO.read(new ByteArrayInputStream(variant.getBytes()));
+	}
+
+	private static void assertRed(int rgb) {
+		Color color = new Color(rgb);
+		assertTrue(color.getRed() > 200 && color.getBlue() < 60, color.toString());
+	}
+
+	private static void assertBlue(int rgb) {
+		Color color = new Color(rgb);
+		assertTrue(color.getBlue() > 200 && color.getRed() < 60, color.toString());
+	}
+}
@@ -0,0 +1,95 @@
+package com.mano.Farafina_Backend.services.media;
+
+import com.mano.Farafina_Backend.entity.MediaObject;
+import com.mano.Farafina_Backend.fixtures.SeededCatalog;
+import com.mano.Farafina_Backend.repository.MediaObjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A hash is inserted once: a second register of the same content never overwrites the first row
+@SpringBootTest(properties = {
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"farafina.storage.backend=local"
+})
+class MediaIndexTest {
+
+	private static final String SHA = "ab".repeat(32);
+
+	@Autowired
+	private MediaObjectRepository mediaObjectRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private SimpleMeterRegistry meterRegistry;
+	private MediaIndex index;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> SeededCatalog.h2Url("media_index"));
+	}
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM media_objects");
+		meterRegistry = new SimpleMeterRegistry();
+		index = new MediaIndex(mediaObjectRepository, meterRegistry, 100);
+	}
+
+	@Test
+	void concurrentDuplicateKeepsTheFirstRowAndCountsAsDeduplicated() {
+		index.register(new MediaObject(SHA, "videos/" + SHA + ".mp4", "video/mp4", 10L, null));
+		Map<String, Object> first = row();
+
+		// Another instance, whose in-memory index has not seen the hash, stores the same content
+		new MediaIndex(mediaObjectRepository, meterRegistry, 100)
+				.register(new MediaObject(SHA, "videos/" + SHA + ".mov", "video/quicktime", 10L, null));
+
+		assertEquals(first, row());
+		assertNotNull(first.get("created_at"));
+		assertEquals(1.0, counter("stored"));
+		assertEquals(1.0, counter("deduplicated"));
+		assertEquals(10.0, meterRegistry.get("farafina.media.dedup.bytes.saved").counter().count());
+	}
+
+	@Test
+	void otherIntegrityFailuresAreNotTakenForDuplicates() {
+		assertThrows(DataIntegrityViolationException.class,
+				() -> index.register(new MediaObject(SHA, null, "video/mp4", 10L, null)));
+
+		assertEquals(0.0, counter("stored"));
+		assertEquals(0.0, counter("deduplicated"));
+	}
+
+	@Test
+	void storedObjectIsFoundWithItsCreationTime() {
+		index.register(new MediaObject(SHA, "videos/" + SHA + ".mp4", "video/mp4", 10L, null));
+
+		MediaObject found = new MediaIndex(mediaObjectRepository, meterRegistry, 100).find(SHA).orElseThrow();
+		assertEquals("videos/" + SHA + ".mp4", found.getStorageKey());
+		assertNotNull(found.getCreatedAt());
+		assertFalse(found.isNew());
+	}
+
+	private Map<String, Object> row() {
+		return jdbcTemplate.queryForMap("SELECT * FROM media_objects WHERE sha256 = ?", SHA);
+	}
+
+	private double counter(String result) {
+		return meterRegistry.get("farafina.media.uploads").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,158 @@
+package com.mano.Farafina_Backend.services.search;
+
+import com.mano.Farafina_Backend.dto.SearchCursor;
+import com.mano.Farafina_Backend.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// BM25 ranking, prefix matching, keyset paging and rebuilds racing with writes
+class ProductSearchIndexTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final ProductSearchIndex index = new ProductSearchIndex(jdbcTemplate);
+
+	@Test
+	void nameMatchesOutrankDescriptionMatches() {
+		index.index(product(1, "Sac en cuir", "Cadeau pour radio"));
+		index.index(product(2, "Radio portable", "Piles incluses"));
+
+		assertEquals(List.of(2L, 1L), ids(index.search("radio", null, 10)));
+	}
+
+	@Test
+	void rarerTermsWeighMore() {
+		index.index(product(1, "Pagne bleu", null));
+		index.index(product(2, "Pagne rouge", null));
+		index.index(product(3, "Pagne vert", null));
+		index.index(product(4, "Boubou bleu", null));
+		index.index(product(5, "Boubou indigo", null));
+
+		// "indigo" appears once, "pagne" three times: a one-term match on the rare term wins
+		List<SearchHit> hits = index.search("pagne indigo", null, 10);
+		assertEquals(5L, hits.get(0).getProductId());
+		assertEquals(4, hits.size());
+	}
+
+	@Test
+	void shorterDocumentsWinForTheSameTerm() {
+		index.index(product(1, "Télévision", null));
+		index.index(product(2, "Télévision écran plat garantie deux ans livraison Bamako", null));
+
+		assertEquals(List.of(1L, 2L), ids(index.search("television", null, 10)));
+	}
+
+	@Test
+	void lastTermAlsoMatchesAsAPrefix() {
+		index.index(product(1, "Télévision Samsung", null));
+		index.index(product(2, "Téléphone Samsung", null));
+		index.index(product(3, "Tel", null));
+
+		assertEquals(List.of(1L), ids(index.search("samsung telev", null, 10)).subList(0, 1));
+		assertEquals(2, index.search("tele", null, 10).size());
+		// The exact match comes before the discounted prefix matches, which need three characters
+		assertEquals(3L, index.search("tel", null, 10).get(0).getProductId());
+		assertEquals(3, index.search("tel", null, 10).size());
+		assertEquals(List.of(), ids(index.search("te", null, 10)));
+	}
+
+	@Test
+	void keysetPagesVisitEveryHitOnceInRankOrder() {
+		// Equal names give equal scores; ties are broken by id, descending
+		for (long id = 1; id <= 23; id++) {
+			index.index(product(id, id % 3 == 0 ? "Calebasse gravée" : "Calebasse", null));
+		}
+		List<SearchHit> all = index.search("calebasse", null, 100);
+		assertEquals(23, all.size());
+
+		List<SearchHit> paged = new ArrayList<>();
+		SearchCursor cursor = null;
+		List<SearchHit> page;
+		do {
+			page = index.search("calebasse", cursor, 5);
+			paged.addAll(page);
+			if (!page.isEmpty()) {
+				SearchHit last = page.get(page.size() - 1);
+				// Through the opaque token, as a client would send it back
+				cursor = SearchCursor.decode(new SearchCursor(last.getScore(), last.getProductId()).encode());
+			}
+		} while (page.size() == 5);
+
+		assertEquals(ids(all), ids(paged));
+		for (int i = 1; i < all.size(); i++) {
+			SearchHit previous = all.get(i - 1);
+			SearchHit hit = all.get(i);
+			assertTrue(previous.getScore() > hit.getScore()
+					|| (previous.getScore() == hit.getScore() && previous.getProductId() > hit.getProductId()));
+		}
+	}
+
+	@Test
+	void removedAndReindexedProductsAreFoundByTheirNewText() {
+		index.index(product(1, "Radio", null));
+		index.index(product(1, "Lampe", null));
+		index.index(product(2, "Radio", null));
+		index.remove(2L);
+
+		assertEquals(List.of(), ids(index.search("radio", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("lampe", null, 10)));
+	}
+
+	@Test
+	void writesDuringARebuildSurviveIt() throws Exception {
+		index.index(product(1, "Radio", null));
+		index.index(product(2, "Lampe", null));
+		// The SELECT sees products 1 and 2 as they were; meanwhile 3 is created, 1 renamed and 2 deleted
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(row(1, "Radio"));
+			index.index(product(3, "Montre", null));
+			index.index(product(1, "Ventilateur", null));
+			index.remove(2L);
+			handler.processRow(row(2, "Lampe"));
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+		index.rebuild();
+
+		assertTrue(index.isReady());
+		assertEquals(List.of(3L), ids(index.search("montre", null, 10)));
+		assertEquals(List.of(1L), ids(index.search("ventilateur", null, 10)));
+		assertEquals(List.of(), ids(index.search("radio", null, 10)));
+		assertEquals(List.of(), ids(index.search("lampe", null, 10)));
+
+		// Once the rebuild is over, writes are no longer buffered
+		index.remove(3L);
+		doNothing().when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+		index.rebuild();
+		assertEquals(List.of(), ids(index.search("montre", null, 10)));
+	}
+
+	private static Product product(long id, String name, String description) {
+		Product product = new Product();
+		product.setId(id);
+		product.setProductName(name);
+		product.setDescription(description);
+		return product;
+	}
+
+	private static ResultSet row(long id, String name) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong("id")).thenReturn(id);
+		when(rs.getString("product_name")).thenReturn(name);
+		return rs;
+	}
+
+	private static List<Long> ids(List<SearchHit> hits) {
+		return hits.stream().map(SearchHit::getProductId).toList();
+	}
+}
@@ -0,0 +1,34 @@
+package com.mano.Farafina_Backend.services.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchTextAnalyzerTest {
+
+	@Test
+	void foldsCaseAccentsAndLigatures() {
+		assertEquals(List.of("television", "ecran", "plat"), SearchTextAnalyzer.tokenize("Télévision ÉCRAN plat"));
+		assertEquals(List.of("coeur", "naive"), SearchTextAnalyzer.tokenize("Cœur naïve"));
+	}
+
+	@Test
+	void foldsBambaraLetters() {
+		assertEquals(List.of("seben", "nyogon", "dongo"), SearchTextAnalyzer.tokenize("sɛbɛn ɲɔgɔn dɔŋɔ"));
+	}
+
+	@Test
+	void splitsOnPunctuationAndDropsStopwordsAndSingleCharacters() {
+		assertEquals(List.of("pagne", "wax", "12", "yards", "bamako"),
+				SearchTextAnalyzer.tokenize("Pagne-wax (12 yards) à Bamako, pour le x"));
+	}
+
+	@Test
+	void blankTextHasNoTokens() {
+		assertEquals(List.of(), SearchTextAnalyzer.tokenize(null));
+		assertEquals(List.of(), SearchTextAnalyzer.tokenize("  "));
+		assertEquals(List.of(), SearchTextAnalyzer.tokenize("le de la"));
+	}
+}
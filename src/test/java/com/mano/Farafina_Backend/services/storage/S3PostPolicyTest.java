@@ -0,0 +1,92 @@
+package com.mano.Farafina_Backend.services.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// SigV4 POST policy for direct uploads: key derivation, policy conditions and signature
+class S3PostPolicyTest {
+
+	private static final String SECRET = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+	private static final Instant NOW = Instant.parse("2026-10-18T08:30:05Z");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final S3PostPolicy postPolicy = new S3PostPolicy(objectMapper, "eu-west-3");
+
+	@Test
+	void signingKeyMatchesTheSigV4Example() {
+		// "Examples of how to derive a signing key for Signature Version 4" in the AWS docs
+		byte[] key = S3PostPolicy.signingKey(SECRET, "20120215", "us-east-1", "iam");
+
+		assertEquals("f4780e2d9f65fa895f9c67b32ce1baf0b0d8a43505a000a1a9e090d414db404d", HexFormat.of().formatHex(key));
+	}
+
+	@Test
+	void policyCapsTheBodyAndPinsKeyAndType() throws Exception {
+		PresignedUpload upload = postPolicy.sign("https://bucket.s3.eu-west-3.amazonaws.com/", "bucket",
+				"videos/clip.mp4", "video/mp4", null, 104857600, AwsBasicCredentials.create("AKID", SECRET),
+				NOW, Duration.ofMinutes(15));
+
+		assertEquals("POST", upload.getMethod());
+		assertEquals("https://bucket.s3.eu-west-3.amazonaws.com/", upload.getUrl());
+		assertEquals(NOW.plus(Duration.ofMinutes(15)), upload.getExpiresAt());
+		Map<String, String> fields = upload.getFields();
+		assertEquals("videos/clip.mp4", fields.get("key"));
+		assertEquals("video/mp4", fields.get("Content-Type"));
+		assertEquals("AWS4-HMAC-SHA256", fields.get("x-amz-algorithm"));
+		assertEquals("AKID/20261018/eu-west-3/s3/aws4_request", fields.get("x-amz-credential"));
+		assertEquals("20261018T083005Z", fields.get("x-amz-date"));
+		assertFalse(fields.containsKey("x-amz-checksum-sha256"));
+		assertFalse(fields.containsKey("x-amz-security-token"));
+
+		JsonNode policy = objectMapper.readTree(Base64.getDecoder().decode(fields.get("policy")));
+		assertEquals("2026-10-18T08:45:05Z", policy.get("expiration").asText());
+		assertEquals("[{\"bucket\":\"bucket\"},{\"key\":\"videos/clip.mp4\"},{\"Content-Type\":\"video/mp4\"},"
+						+ "{\"x-amz-algorithm\":\"AWS4-HMAC-SHA256\"},"
+						+ "{\"x-amz-credential\":\"AKID/20261018/eu-west-3/s3/aws4_request\"},"
+						+ "{\"x-amz-date\":\"20261018T083005Z\"},[\"content-length-range\",1,104857600]]",
+				policy.get("conditions").toString());
+
+		byte[] signingKey = S3PostPolicy.signingKey(SECRET, "20261018", "eu-west-3", "s3");
+		assertEquals(HexFormat.of().formatHex(hmac(signingKey, fields.get("policy"))), fields.get("x-amz-signature"));
+	}
+
+	@Test
+	void checksumAndSessionTokenAreSignedFields() throws Exception {
+		String sha256 = "ab".repeat(32);
+		PresignedUpload upload = postPolicy.sign("http://minio:9000/bucket/", "bucket", "products/x/orig.jpg",
+				"image/jpeg", sha256, 1024, AwsSessionCredentials.create("AKID", SECRET, "session"),
+				NOW, Duration.ofMinutes(15));
+
+		Map<String, String> fields = upload.getFields();
+		assertEquals("SHA256", fields.get("x-amz-checksum-algorithm"));
+		assertEquals(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256)),
+				fields.get("x-amz-checksum-sha256"));
+		assertEquals("session", fields.get("x-amz-security-token"));
+
+		String conditions = objectMapper.readTree(Base64.getDecoder().decode(fields.get("policy")))
+				.get("conditions").toString();
+		assertTrue(conditions.contains("{\"x-amz-checksum-sha256\":\"" + fields.get("x-amz-checksum-sha256") + "\"}"));
+		assertTrue(conditions.contains("{\"x-amz-security-token\":\"session\"}"));
+		assertTrue(conditions.endsWith("[\"content-length-range\",1,1024]]"));
+	}
+
+	private static byte[] hmac(byte[] key, String data) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(key, "HmacSHA256"));
+		return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,65 @@
+package com.mano.Farafina_Backend.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Ring buffer of kept traces: newest first, oldest evicted, no lost slots under concurrent writers
+class TraceRecorderTest {
+
+	@Test
+	void keepsTheNewestTracesNewestFirst() {
+		TraceRecorder recorder = new TraceRecorder(true, Duration.ofHours(1), 0, 3, 10);
+		for (int i = 1; i <= 5; i++) {
+			recorder.completed(trace("t" + i), true);
+		}
+
+		assertEquals(List.of("t5", "t4", "t3"), ids(recorder.getTraces()));
+		assertEquals("error", recorder.getTrace("t4").getKeptBecause());
+		assertNull(recorder.getTrace("t2"));
+	}
+
+	@Test
+	void partlyFilledBufferListsOnlyWhatWasKept() {
+		TraceRecorder recorder = new TraceRecorder(true, Duration.ofHours(1), 0, 3, 10);
+		recorder.completed(trace("fast"), false);
+		recorder.completed(trace("failed"), true);
+
+		assertEquals(List.of("failed"), ids(recorder.getTraces()));
+	}
+
+	@Test
+	void concurrentWritersFillEverySlot() throws Exception {
+		TraceRecorder recorder = new TraceRecorder(true, Duration.ofHours(1), 0, 64, 10);
+		Set<String> written = ConcurrentHashMap.newKeySet();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			IntStream.range(0, 1000).forEach(i -> executor.submit(() -> {
+				recorder.completed(trace("t" + i), true);
+				written.add("t" + i);
+			}));
+		}
+
+		List<String> kept = ids(recorder.getTraces());
+		assertEquals(64, kept.size());
+		assertEquals(64, Set.copyOf(kept).size());
+		assertTrue(written.containsAll(kept));
+	}
+
+	private static Trace trace(String id) {
+		Trace trace = new Trace(id, "GET", "/api/products", 10);
+		trace.finish("/api/products", 200);
+		return trace;
+	}
+
+	private static List<String> ids(List<Trace> traces) {
+		return traces.stream().map(Trace::getTraceId).toList();
+	}
+}
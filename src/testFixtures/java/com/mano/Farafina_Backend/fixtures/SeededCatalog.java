@@ -0,0 +1,270 @@
+package com.mano.Farafina_Backend.fixtures;
+
+import com.mano.Farafina_Backend.FarafinaBackendApplication;
+import com.mano.Farafina_Backend.services.CatalogStatistics;
+import com.mano.Farafina_Backend.services.search.ProductSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Boots the whole application against an in-memory H2 database (MySQL mode) and seeds it with a
+// deterministic catalog shaped like production: French/English listing titles with accents, a few
+// heavy categories, most listings in a handful of cities, log-normal prices, a year of created_at.
+// Shared by the JMH benchmarks (src/jmh) and the end-to-end load test (src/perfTest).
+public final class SeededCatalog {
+
+    public static final int DEFAULT_PRODUCTS = 20_000;
+
+    // Every seeded user (user1 .. userN) logs in with this password
+    public static final String USER_PASSWORD = "farafina-perf";
+
+    // Tables the app expects but has no entities for
+    private static final String EXTRA_TABLES =
+            "CREATE TABLE IF NOT EXISTS product_likes (id BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+            "user_id BIGINT NOT NULL, liked_at TIMESTAMP, " +
+            "CONSTRAINT uk_product_likes_product_user UNIQUE (product_id, user_id))\\;" +
+            "CREATE TABLE IF NOT EXISTS product_comments (id BIGINT AUTO_INCREMENT PRIMARY KEY, product_id BIGINT NOT NULL, " +
+            "user_id BIGINT NOT NULL, comment TEXT, commented_at TIMESTAMP, updated_at TIMESTAMP)";
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products (id, user_id, product_name, description, category, " +
+            "product_condition, price, currency, country, city, shop_name, contact_phone, quantity, shipping_available, " +
+            "local_pickup, likes_count, comments_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'XOF', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IMAGE = "INSERT INTO product_images (product_id, image_order, image_url) VALUES (?, 0, ?)";
+
+    private static final String INSERT_USER = "INSERT INTO users (id, fullname, username, email, phone, password, country, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LIKE = "INSERT INTO product_likes (product_id, user_id, liked_at) VALUES (?, ?, ?)";
+
+    private static final String INSERT_COMMENT = "INSERT INTO product_comments (product_id, user_id, comment, commented_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String[] CATEGORIES = {"Electronics", "Clothing", "Shoes", "Foods", "Home", "Vehicles", "Beauty"};
+    private static final int[] CATEGORY_WEIGHTS = {30, 18, 12, 14, 12, 6, 8};
+
+    private static final String[][] TITLES = {
+            {"Téléphone Samsung Galaxy A14", "iPhone 12 Pro 128Go", "Télévision LG 43 pouces", "Ordinateur portable HP",
+                    "Écouteurs Bluetooth", "Chargeur solaire", "Tecno Spark 10", "Infinix Hot 30", "Power bank 20000mAh"},
+            {"Boubou bazin riche", "Pagne wax hollandais", "Chemise en lin", "Robe en bogolan", "Jean slim homme",
+                    "Tenue traditionnelle brodée"},
+            {"Chaussures Nike Air Max", "Sandales en cuir", "Baskets Adidas", "Babouches brodées", "Escarpins femme"},
+            {"Riz parfumé 25kg", "Huile d'arachide 5L", "Mangues Kent", "Sucre en poudre 50kg", "Oignons de Ségou",
+                    "Fonio précuit"},
+            {"Réfrigérateur Samsung", "Climatiseur split", "Ventilateur sur pied", "Matelas orthopédique",
+                    "Canapé 3 places", "Cuisinière à gaz"},
+            {"Moto Jakarta", "Toyota Corolla 2012", "Vélo VTT", "Moto Yamaha Crypton", "Pneus Michelin"},
+            {"Beurre de karité", "Savon noir", "Parfum Dior", "Mèches brésiliennes", "Crème éclaircissante"}
+    };
+    private static final int[] BASE_PRICES = {90_000, 15_000, 20_000, 12_000, 150_000, 900_000, 5_000};
+
+    private static final String[] SUFFIXES = {"", "", " neuf", " occasion", " noir", " blanc", " rouge", " original",
+            " très bon état", " garantie 6 mois"};
+
+    private static final String[] COUNTRIES = {"Mali", "Senegal", "Côte d'Ivoire", "Guinea", "Burkina Faso"};
+    private static final int[] COUNTRY_WEIGHTS = {45, 20, 20, 8, 7};
+    private static final String[][] CITIES = {
+            {"Bamako", "Bamako", "Bamako", "Sikasso", "Ségou", "Kayes", "Mopti"},
+            {"Dakar", "Dakar", "Thiès", "Saint-Louis", "Touba"},
+            {"Abidjan", "Abidjan", "Bouaké", "Yamoussoukro"},
+            {"Conakry", "Kankan"},
+            {"Ouagadougou", "Bobo-Dioulasso"}
+    };
+
+    private static final String[] COMMENTS = {"Toujours disponible ?", "C'est négociable ?", "Livraison à Kati possible ?",
+            "Je suis intéressé, je vous appelle.", "Quel est le dernier prix ?", "Is it still available?", "Merci, bien reçu."};
+
+    private SeededCatalog() {}
+
+    public static ConfigurableApplicationContext start(int products) {
+        return start(products, 0);
+    }
+
+    // users > 0 also seeds user accounts and, for every product, as many like and comment rows as its counters say.
+    // Extra arguments are passed through as application properties, e.g. "--spring.threads.virtual.enabled=true".
+    public static ConfigurableApplicationContext start(int products, int users, String... overrides) {
+        Path media;
+        try {
+            media = Files.createTempDirectory("farafina-catalog");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Command-line arguments, so they win over application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + h2Url("catalog"),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--farafina.storage.backend=local",
+                "--farafina.storage.local.root=" + media.resolve("media"),
+                "--farafina.uploads.resumable.dir=" + media.resolve("resumable")));
+        args.addAll(List.of(overrides));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FarafinaBackendApplication.class)
+                .run(args.toArray(String[]::new));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate, products);
+        if (users > 0) {
+            seedUsers(jdbcTemplate, users, context.getBean(PasswordEncoder.class).encode(USER_PASSWORD));
+            seedInteractions(jdbcTemplate, products, users);
+        }
+        // Both were built from the empty database on startup
+        context.getBean(ProductSearchIndex.class).rebuild();
+        context.getBean(CatalogStatistics.class).reload();
+        return context;
+    }
+
+    // In-memory H2 in MySQL mode, with the tables the entities do not create
+    public static String h2Url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;INIT=" + EXTRA_TABLES;
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int products) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = 1000;
+        for (int from = 1; from <= products; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            List<Object[]> images = new ArrayList<>(batchSize);
+            for (int id = from; id < Math.min(from + batchSize, products + 1); id++) {
+                rows.add(product(random, id, now));
+                byte[] key = new byte[16];
+                random.nextBytes(key);
+                images.add(new Object[]{(long) id, "/media/products/" + HexFormat.of().formatHex(key) + "/orig.jpg"});
+            }
+            batchInsert(jdbcTemplate, INSERT_PRODUCT, rows);
+            batchInsert(jdbcTemplate, INSERT_IMAGE, images);
+        }
+        jdbcTemplate.execute("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (products + 1));
+    }
+
+    // user1 .. userN, all sharing one BCrypt hash so seeding does not pay the hashing cost per row
+    public static void seedUsers(JdbcTemplate jdbcTemplate, int users, String passwordHash) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        int batchSize = 1000;
+        for (int from = 1; from <= users; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int id = from; id < Math.min(from + batchSize, users + 1); id++) {
+                rows.add(new Object[]{(long) id, "Utilisateur " + id, "user" + id, "user" + id + "@example.com",
+                        String.format("+223 6%07d", id), passwordHash, COUNTRIES[id % COUNTRIES.length], createdAt});
+            }
+            batchInsert(jdbcTemplate, INSERT_USER, rows);
+        }
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + (users + 1));
+    }
+
+    // Caps likes_count at what can be seeded without repeating a (product, user) pair, then inserts exactly
+    // that many like rows and comments_count comment rows per product. Comments may repeat a user, so their
+    // generated count is kept as is.
+    public static void seedInteractions(JdbcTemplate jdbcTemplate, int products, int users) {
+        jdbcTemplate.update("UPDATE products SET likes_count = LEAST(likes_count, ?)", users);
+        Random random = new Random(7);
+        Timestamp likedAt = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        int batchSize = 1000;
+        for (int from = 1; from <= products; from += batchSize) {
+            int to = Math.min(from + batchSize - 1, products);
+            List<Object[]> likes = new ArrayList<>();
+            List<Object[]> comments = new ArrayList<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList(
+                    "SELECT id, likes_count, comments_count FROM products WHERE id BETWEEN ? AND ?", from, to)) {
+                long productId = ((Number) row.get("id")).longValue();
+                int likeCount = ((Number) row.get("likes_count")).intValue();
+                int commentCount = ((Number) row.get("comments_count")).intValue();
+                // Consecutive user ids from a per-product offset, distinct as long as likeCount <= users
+                long offset = productId * 7919;
+                for (int i = 0; i < likeCount; i++) {
+                    likes.add(new Object[]{productId, (offset + i) % users + 1, likedAt});
+                }
+                for (int i = 0; i < commentCount; i++) {
+                    comments.add(new Object[]{productId, 1L + random.nextInt(users),
+                            COMMENTS[random.nextInt(COMMENTS.length)], likedAt});
+                }
+            }
+            batchInsert(jdbcTemplate, INSERT_LIKE, likes);
+            batchInsert(jdbcTemplate, INSERT_COMMENT, comments);
+        }
+    }
+
+    private static Object[] product(Random random, long id, LocalDateTime now) {
+        int category = pick(random, CATEGORY_WEIGHTS);
+        int country = pick(random, COUNTRY_WEIGHTS);
+        String[] titles = TITLES[category];
+        String title = titles[random.nextInt(titles.length)] + SUFFIXES[random.nextInt(SUFFIXES.length)];
+        String city = CITIES[country][random.nextInt(CITIES[country].length)];
+        boolean used = random.nextInt(100) < 60;
+
+        // Log-normal around the category's typical price
+        double factor = Math.exp(random.nextGaussian() * 0.6);
+        BigDecimal price = BigDecimal.valueOf(BASE_PRICES[category] * factor * (used ? 0.6 : 1.0))
+                .setScale(0, RoundingMode.HALF_UP);
+
+        String description = title + " disponible à " + city + ". " +
+                (used ? "Article d'occasion, bien entretenu." : "Article neuf, jamais utilisé.") +
+                " Livraison possible, paiement Orange Money ou espèces.";
+        Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+        int likes = (int) Math.min(500, Math.abs(random.nextGaussian()) * 12);
+
+        return new Object[]{id, 1L + random.nextInt(2000), title, description, CATEGORIES[category],
+                used ? "Used" : "New", price, COUNTRIES[country], city,
+                random.nextInt(4) == 0 ? "Boutique " + city : null, "+223 7" + (1000000 + random.nextInt(8999999)),
+                1 + random.nextInt(5), random.nextBoolean(), true, likes, likes / 4, createdAt, createdAt};
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void batchInsert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Object[] row = rows.get(i);
+                for (int column = 0; column < row.length; column++) {
+                    statement.setObject(column + 1, row[column]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}